@@ -1,15 +1,19 @@
 package com.powerme;
 
+import com.powerme.service.cluster.ClusterProperties;
 import com.powerme.service.security.JwtProperties;
 import com.powerme.service.security.RefreshCookieProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableConfigurationProperties({
         JwtProperties.class,
-        RefreshCookieProperties.class
+        RefreshCookieProperties.class,
+        ClusterProperties.class
 })
 public class PowermeApp {
 
@@ -2,17 +2,28 @@
 
 import com.powerme.dto.BookingCreateRequestDto;
 import com.powerme.dto.BookingDto;
+import com.powerme.dto.SlotHoldDto;
+import com.powerme.dto.SlotHoldRequestDto;
 import com.powerme.entity.Booking;
 import com.powerme.mapper.BookingMapper;
+import com.powerme.service.booking.BookingIdempotencyService;
 import com.powerme.service.booking.BookingService;
+import com.powerme.service.booking.SlotHoldService;
+import com.powerme.service.cluster.BookingForwarder;
 import com.powerme.service.security.UserPrincipal;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -20,12 +31,26 @@
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final BookingService bookingService;
     private final BookingMapper bookingMapper;
+    private final BookingForwarder bookingForwarder;
+    private final SlotHoldService slotHoldService;
+    private final BookingIdempotencyService idempotencyService;
 
-    public BookingController(BookingService bookingService, BookingMapper bookingMapper) {
+    public BookingController(
+            BookingService bookingService,
+            BookingMapper bookingMapper,
+            BookingForwarder bookingForwarder,
+            SlotHoldService slotHoldService,
+            BookingIdempotencyService idempotencyService
+    ) {
         this.bookingService = bookingService;
         this.bookingMapper = bookingMapper;
+        this.bookingForwarder = bookingForwarder;
+        this.slotHoldService = slotHoldService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping()
@@ -40,10 +65,63 @@ public List<BookingDto> getBookings(@AuthenticationPrincipal UserPrincipal princ
     @PreAuthorize("isAuthenticated()")
     public BookingDto createBooking(
             @RequestBody @Valid BookingCreateRequestDto request,
-            @AuthenticationPrincipal UserPrincipal principal
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader HttpHeaders headers,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false)
+            String idempotencyKey
     ) {
-        Long userId = principal.getId();
-        Booking booking = bookingService.createBooking(request, userId);
+        // Cluster : créée par l'instance propriétaire de la borne (état en mémoire)
+        Optional<BookingDto> forwarded = bookingForwarder.forwardIfRemote(request, headers);
+        if (forwarded.isPresent()) {
+            return forwarded.get();
+        }
+
+        // Requête rejouée (même clé) : réservation d'origine
+        return idempotencyService.createBooking(request, principal.getId(), idempotencyKey);
+    }
+
+    /**
+     * Bloque des créneaux quelques minutes pendant la confirmation ; le jeton renvoyé est à
+     * transmettre à la création de la réservation (holdToken).
+     */
+    @PostMapping("/holds")
+    @PreAuthorize("isAuthenticated()")
+    public SlotHoldDto holdSlots(
+            @RequestBody @Valid SlotHoldRequestDto request,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader HttpHeaders headers
+    ) {
+        // Même file que les réservations de la borne : chez son propriétaire
+        return bookingForwarder.forwardHoldIfRemote(request, headers)
+                .orElseGet(() -> slotHoldService.hold(request, principal.getId()));
+    }
+
+    @DeleteMapping("/holds/{token}")
+    @PreAuthorize("isAuthenticated()")
+    public void releaseSlots(
+            @PathVariable UUID token,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader HttpHeaders headers
+    ) {
+        if (!bookingForwarder.forwardReleaseIfRemote(token, principal.getId(), headers)) {
+            slotHoldService.release(token, principal.getId());
+        }
+    }
+
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("isAuthenticated()")
+    public BookingDto cancelBooking(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader HttpHeaders headers
+    ) {
+        Optional<BookingDto> forwarded =
+                bookingForwarder.forwardCancelIfRemote(id, principal.getId(), headers);
+        if (forwarded.isPresent()) {
+            return forwarded.get();
+        }
+
+        Booking booking = bookingService.cancelBooking(id, principal.getId());
         return bookingMapper.toDto(booking);
     }
 }
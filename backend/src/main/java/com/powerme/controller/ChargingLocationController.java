@@ -1,20 +1,45 @@
 package com.powerme.controller;
 
+import com.powerme.dto.ChargingLocationAvailabilityDto;
+import com.powerme.dto.ChargingLocationChangesDto;
+import com.powerme.dto.ChargingLocationClusterDto;
+import com.powerme.dto.ChargingLocationCorridorDto;
+import com.powerme.dto.ChargingLocationCorridorPageDto;
+import com.powerme.dto.ChargingLocationCorridorRequestDto;
 import com.powerme.dto.ChargingLocationCreateUpdateDto;
 import com.powerme.dto.ChargingLocationDetailDto;
+import com.powerme.dto.ChargingLocationFilterDto;
 import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.dto.ChargingLocationMapPageDto;
+import com.powerme.dto.ChargingLocationNearbyDto;
+import com.powerme.dto.ChargingLocationNearbyPageDto;
+import com.powerme.dto.ChargingLocationSearchDto;
 import com.powerme.dto.ChargingStationDto;
+import com.powerme.dto.CoverageCellDto;
+import com.powerme.dto.LocationAvailabilityDto;
 import com.powerme.entity.ChargingLocation;
 import com.powerme.enums.StationStatus;
 import com.powerme.mapper.ChargingLocationMapper;
 import com.powerme.mapper.ChargingStationMapper;
+import com.powerme.service.charginglocation.CatalogVersionService;
+import com.powerme.service.charginglocation.ChargingLocationClusterService;
 import com.powerme.service.charginglocation.ChargingLocationService;
+import com.powerme.service.charginglocation.CoverageService;
+import com.powerme.service.chargingstation.ChargingStationAvailabilityService;
 import com.powerme.service.chargingstation.ChargingStationService;
+import com.powerme.service.chargingstation.StationStatusService;
 import com.powerme.service.security.UserPrincipal;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -26,40 +51,252 @@
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/charging-locations")
 public class ChargingLocationController {
 
+    private static final MediaType MVT_MEDIA_TYPE =
+            MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    /**
+     * Header portant le curseur de la page suivante des recherches par zone, rayon et itinéraire.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Durée de cache navigateur / proxy des tuiles
+    private static final Duration TILE_MAX_AGE = Duration.ofSeconds(60);
+
     private final ChargingLocationService locationService;
     private final ChargingLocationMapper locationMapper;
     private final ChargingStationService stationService;
     private final ChargingStationMapper stationMapper;
+    private final ChargingLocationClusterService clusterService;
+    private final CatalogVersionService catalogVersionService;
+    private final CoverageService coverageService;
+    private final StationStatusService stationStatusService;
+    private final ChargingStationAvailabilityService availabilityService;
 
     public ChargingLocationController(
             ChargingLocationService locationService,
             ChargingLocationMapper locationMapper,
             ChargingStationService stationService,
-            ChargingStationMapper stationMapper
+            ChargingStationMapper stationMapper,
+            ChargingLocationClusterService clusterService,
+            CatalogVersionService catalogVersionService,
+            CoverageService coverageService,
+            StationStatusService stationStatusService,
+            ChargingStationAvailabilityService availabilityService
     ) {
         this.locationService = locationService;
         this.locationMapper = locationMapper;
         this.stationService = stationService;
         this.stationMapper = stationMapper;
+        this.clusterService = clusterService;
+        this.catalogVersionService = catalogVersionService;
+        this.coverageService = coverageService;
+        this.stationStatusService = stationStatusService;
+        this.availabilityService = availabilityService;
     }
 
+    /**
+     * Lieux dans la zone, les plus proches du centre d'abord. Page limitée (paramètre limit,
+     * plafonné côté serveur) : s'il reste des lieux, le header X-Next-Cursor contient le curseur à
+     * renvoyer (paramètre cursor) pour obtenir la page suivante.
+     *
+     * <p>Filtres optionnels : socketType, minPower, maxHourlyRate, active.</p>
+     *
+     * <p>ETag fort = version du catalogue : 304 tant qu'aucun lieu ni borne n'a changé.</p>
+     */
     @GetMapping("/bounds")
-    public List<ChargingLocationMapDto> getInBounds(
+    public ResponseEntity<List<ChargingLocationMapDto>> getInBounds(
             @RequestParam double north,
             @RequestParam double south,
             @RequestParam double east,
-            @RequestParam double west
+            @RequestParam double west,
+            ChargingLocationFilterDto filter,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
     ) {
-        return locationService
-                .getLocationsInBounds(north, south, east, west)
-                .stream()
-                .map(locationMapper::toMapDto)
-                .toList();
+        // Version lue avant les données : au pire l'ETag est plus ancien que la réponse
+        String etag = catalogVersionService.getCurrentEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        ChargingLocationMapPageDto page = locationService.getLocationsInBounds(
+                north, south, east, west, filter, limit, cursor
+        );
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePublic());
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Variante de /bounds renvoyant aussi le nombre de lieux de la zone par type de prise et par
+     * puissance (facettes), pour afficher les filtres de la carte sans appel supplémentaire.
+     */
+    @GetMapping("/bounds/search")
+    public ResponseEntity<ChargingLocationSearchDto> searchInBounds(
+            @RequestParam double north,
+            @RequestParam double south,
+            @RequestParam double east,
+            @RequestParam double west,
+            ChargingLocationFilterDto filter,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        String etag = catalogVersionService.getCurrentEtag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(locationService.searchInBounds(
+                        north, south, east, west, filter, limit, cursor
+                ));
+    }
+
+    /**
+     * Lieux créés, modifiés et supprimés depuis la version since du catalogue (champ version de
+     * la réponse précédente, ou ETag de /bounds sans le préfixe "v").
+     */
+    @GetMapping("/changes")
+    public ChargingLocationChangesDto getChanges(@RequestParam long since) {
+        return catalogVersionService.getChangesSince(since);
+    }
+
+    /**
+     * Les k lieux les plus proches de la position (défaut 10, max 100), avec leur distance. Mêmes
+     * filtres optionnels que /bounds.
+     */
+    @GetMapping("/nearest")
+    public List<ChargingLocationNearbyDto> getNearest(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            ChargingLocationFilterDto filter,
+            @RequestParam(required = false) Integer k
+    ) {
+        return locationService.getNearest(lat, lon, filter, k);
+    }
+
+    /**
+     * Lieux à moins de radius mètres de la position (max 50 km), les plus proches d'abord. Page
+     * limitée comme /bounds : s'il reste des lieux, le header X-Next-Cursor contient le curseur
+     * de la page suivante (paramètre cursor).
+     */
+    @GetMapping("/within")
+    public ResponseEntity<List<ChargingLocationNearbyDto>> getWithinRadius(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radius,
+            ChargingLocationFilterDto filter,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        ChargingLocationNearbyPageDto page =
+                locationService.getWithinRadius(lat, lon, radius, filter, limit, cursor);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Lieux le long d'un itinéraire : polyline = tracé encodé (format Google, précision 5), width
+     * = largeur du couloir en mètres de part et d'autre (max 10 km), dans le corps de la requête
+     * (un long tracé ne tient pas dans une URL). Résultats dans l'ordre du parcours, paginés comme
+     * /bounds (header X-Next-Cursor) ; mêmes filtres optionnels que /bounds.
+     */
+    @PostMapping("/corridor")
+    public ResponseEntity<List<ChargingLocationCorridorDto>> getAlongRoute(
+            @Valid @RequestBody ChargingLocationCorridorRequestDto route,
+            ChargingLocationFilterDto filter,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        ChargingLocationCorridorPageDto page = locationService.getAlongRoute(
+                route.polyline(), route.width(), filter, limit, cursor
+        );
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Variante de /bounds pour les zooms faibles : renvoie des clusters (barycentre, nombre de
+     * lieux, emprise) au lieu des points. Au-delà du zoom max de clustering, chaque lieu est
+     * renvoyé comme un cluster de 1.
+     */
+    @GetMapping("/bounds/clusters")
+    public List<ChargingLocationClusterDto> getClustersInBounds(
+            @RequestParam double north,
+            @RequestParam double south,
+            @RequestParam double east,
+            @RequestParam double west,
+            @RequestParam int zoom
+    ) {
+        return clusterService.getClusters(north, south, east, west, zoom);
+    }
+
+    /**
+     * Heatmap de couverture : nombre de lieux et de bornes par cellule de la zone. level =
+     * résolution de la grille (0 à 16, cellules de 360/2^level x 180/2^level degrés) ; seules
+     * les cellules non vides sont renvoyées.
+     */
+    @GetMapping("/coverage")
+    public List<CoverageCellDto> getCoverage(
+            @RequestParam double north,
+            @RequestParam double south,
+            @RequestParam double east,
+            @RequestParam double west,
+            @RequestParam int level
+    ) {
+        return coverageService.getCoverage(north, south, east, west, level);
+    }
+
+    /**
+     * Nombre de bornes et de bornes libres des lieux donnés (ids = lieux affichés, max 500), lu
+     * dans le modèle de lecture : permet de rafraîchir les badges de la carte sans recharger les
+     * points.
+     */
+    @GetMapping("/availability")
+    public List<LocationAvailabilityDto> getAvailabilities(@RequestParam List<Long> ids) {
+        return stationStatusService.findLocationAvailabilities(ids);
+    }
+
+    /**
+     * Tuile vectorielle (Mapbox Vector Tile) des lieux de recharge, layer "charging_locations".
+     * Propriétés des features : name, station_count, free_count, best_power (id = feature
+     * id).
+     */
+    @GetMapping("/tiles/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y
+    ) {
+        byte[] tile = locationService.getTile(z, x, y);
+
+        return ResponseEntity.ok()
+                .contentType(MVT_MEDIA_TYPE)
+                .cacheControl(CacheControl.maxAge(TILE_MAX_AGE).cachePublic())
+                .body(tile);
     }
 
     @GetMapping("/{id}")
@@ -67,14 +304,11 @@ public ChargingLocationDetailDto getById(@PathVariable Long id) {
         // Charge location avec stations
         ChargingLocation location = locationService.getByIdWithStations(id);
 
-        // Décide du "maintenant" et mappe les stations une par une pour ajouter le "now"
-        Instant now = Instant.now();
+        // Décide du "maintenant" et calcule le statut de toutes les stations en une requête
+        Map<Long, StationStatus> statuses =
+                stationService.computeStatuses(location.getChargingStations(), Instant.now());
         List<ChargingStationDto> stationDtos = location.getChargingStations().stream()
-                .map(station -> {
-                    StationStatus status =
-                            stationService.computeStatus(station, now);
-                    return stationMapper.toDto(station, status);
-                })
+                .map(station -> stationMapper.toDto(station, statuses.get(station.getId())))
                 .toList();
 
         // Mappe la location sans les stations
@@ -84,6 +318,18 @@ public ChargingLocationDetailDto getById(@PathVariable Long id) {
         return ChargingLocationDetailDto.of(baseDto, stationDtos);
     }
 
+    /**
+     * Créneaux du jour de toutes les bornes du lieu, en un appel (au lieu d'un appel
+     * /api/charging-stations/{id}/availability par borne).
+     */
+    @GetMapping("/{id}/availability")
+    public ChargingLocationAvailabilityDto getAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return availabilityService.getLocationAvailability(id, date);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ChargingLocationDetailDto create(
@@ -1,24 +1,60 @@
 package com.powerme.controller;
 
+import com.powerme.dto.ChargingLocationFilterDto;
 import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.dto.ChargingStationAvailabilityRangeDto;
+import com.powerme.dto.EarliestSlotDto;
+import com.powerme.enums.AvailabilityFormat;
+import com.powerme.service.chargingstation.AvailabilityStreamService;
 import com.powerme.service.chargingstation.ChargingStationAvailabilityService;
+import com.powerme.service.chargingstation.SlotSearchService;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/charging-stations")
 public class ChargingStationAvailabilityController {
     private final ChargingStationAvailabilityService availabilityService;
+    private final SlotSearchService slotSearchService;
+    private final AvailabilityStreamService streamService;
 
     public ChargingStationAvailabilityController(
-            ChargingStationAvailabilityService availabilityService
+            ChargingStationAvailabilityService availabilityService,
+            SlotSearchService slotSearchService,
+            AvailabilityStreamService streamService
     ) {
         this.availabilityService = availabilityService;
+        this.slotSearchService = slotSearchService;
+        this.streamService = streamService;
+    }
+
+    /**
+     * Premiers créneaux libres autour de la position : bornes à moins de radius mètres (max
+     * 50 km) ayant slots créneaux de 30 min consécutifs libres à partir de from (défaut :
+     * maintenant, 7 jours max). Au plus k résultats (défaut 10, max 50), classés par début, puis
+     * distance, puis prix. Filtres optionnels : socketType, minPower, maxHourlyRate.
+     */
+    @GetMapping("/availability/earliest")
+    public List<EarliestSlotDto> findEarliestSlots(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radius,
+            @RequestParam int slots,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) Integer k,
+            ChargingLocationFilterDto filter
+    ) {
+        return slotSearchService.findEarliest(lat, lon, radius, from, slots, filter, k);
     }
 
     @GetMapping("/{id}/availability")
@@ -28,4 +64,33 @@ public ChargingStationAvailabilityDto getAvailability(
     ) {
         return availabilityService.getAvailability(id, date);
     }
+
+    /**
+     * Flux SSE des créneaux du jour date : événement "snapshot" (même contenu que
+     * /availability) puis un événement "slots" (liste de {index, available}) à chaque
+     * réservation ou changement de statut touchant ce jour. Remplace le polling de
+     * /availability par la page borne.
+     */
+    @GetMapping(value = "/{id}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return streamService.subscribe(id, date);
+    }
+
+    /**
+     * Disponibilités du jour from au jour to inclus (31 jours max), en une requête. format =
+     * MASK (défaut : masques open / free, bit i = créneau i), RLE (plages "C16F4B2...") ou SLOTS
+     * (créneaux détaillés, comme /availability).
+     */
+    @GetMapping("/{id}/availability/range")
+    public ChargingStationAvailabilityRangeDto getAvailabilityRange(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MASK") AvailabilityFormat format
+    ) {
+        return availabilityService.getAvailabilityRange(id, from, to, format);
+    }
 }
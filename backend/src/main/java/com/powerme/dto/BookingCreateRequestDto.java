@@ -6,6 +6,7 @@
 import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 public record BookingCreateRequestDto(
         @NotNull Long stationId,
@@ -16,5 +17,8 @@ public record BookingCreateRequestDto(
 
         @NotNull
         @Size(min = 1)
-        List<@NotNull @Min(0) Integer> slots
+        List<@NotNull @Min(0) Integer> slots,
+
+        // Jeton du blocage obtenu avant confirmation (optionnel)
+        UUID holdToken
 ) {}
@@ -0,0 +1,15 @@
+package com.powerme.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Créneaux du jour de toutes les bornes d'un lieu, par id de borne croissant.
+ */
+public record ChargingLocationAvailabilityDto(
+        Long locationId,
+        LocalDate date,
+        List<StationSlotsDto> stations
+) {
+
+}
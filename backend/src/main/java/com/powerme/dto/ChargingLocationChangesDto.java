@@ -0,0 +1,20 @@
+package com.powerme.dto;
+
+import java.util.List;
+
+/**
+ * Lieux modifiés depuis une version du catalogue (synchro différentielle de la carte).
+ *
+ * @param version  version courante, à renvoyer comme "since" au prochain appel
+ * @param inserted lieux créés depuis la version demandée
+ * @param updated  lieux (ou leurs bornes) modifiés depuis la version demandée
+ * @param deleted  lieux supprimés depuis la version demandée
+ */
+public record ChargingLocationChangesDto(
+        long version,
+        List<Long> inserted,
+        List<Long> updated,
+        List<Long> deleted
+) {
+
+}
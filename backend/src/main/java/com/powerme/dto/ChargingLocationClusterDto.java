@@ -0,0 +1,36 @@
+package com.powerme.dto;
+
+/**
+ * Cluster de lieux de recharge renvoyé pour la carte aux zooms faibles.
+ *
+ * <p>Latitude/longitude = barycentre des lieux regroupés, north/south/east/west = emprise du
+ * cluster (pour zoomer dessus). Si le cluster ne contient qu'un lieu, id et name sont renseignés et
+ * le cluster correspond au point lui-même.</p>
+ */
+public record ChargingLocationClusterDto(
+        Long id,
+        String name,
+        double latitude,
+        double longitude,
+        int count,
+        double north,
+        double south,
+        double east,
+        double west
+) {
+
+    // Factory pour un lieu isolé
+    public static ChargingLocationClusterDto ofPoint(ChargingLocationMapDto point) {
+        return new ChargingLocationClusterDto(
+                point.id(),
+                point.name(),
+                point.latitude(),
+                point.longitude(),
+                1,
+                point.latitude(),
+                point.latitude(),
+                point.longitude(),
+                point.longitude()
+        );
+    }
+}
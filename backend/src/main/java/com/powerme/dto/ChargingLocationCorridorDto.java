@@ -0,0 +1,18 @@
+package com.powerme.dto;
+
+/**
+ * Lieu de recharge renvoyé par une recherche le long d'un itinéraire.
+ *
+ * @param distanceMeters distance (en mètres) entre le lieu et l'itinéraire
+ * @param routeFraction  position le long de l'itinéraire (0 = départ, 1 = arrivée)
+ */
+public record ChargingLocationCorridorDto(
+        Long id,
+        String name,
+        double latitude,
+        double longitude,
+        double distanceMeters,
+        double routeFraction
+) {
+
+}
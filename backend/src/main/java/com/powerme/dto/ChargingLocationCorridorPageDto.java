@@ -0,0 +1,16 @@
+package com.powerme.dto;
+
+import java.util.List;
+
+/**
+ * Page de lieux renvoyée par une recherche le long d'un itinéraire, dans l'ordre du parcours.
+ *
+ * @param items      lieux de la page
+ * @param nextCursor curseur opaque de la page suivante, null si dernière page
+ */
+public record ChargingLocationCorridorPageDto(
+        List<ChargingLocationCorridorDto> items,
+        String nextCursor
+) {
+
+}
@@ -0,0 +1,16 @@
+package com.powerme.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Itinéraire d'une recherche le long du trajet (corps de requête : un long tracé dépasse la
+ * taille maximale d'une URL).
+ *
+ * @param polyline tracé encodé (format Google, précision 5)
+ * @param width    largeur du couloir en mètres, de part et d'autre du tracé
+ */
+public record ChargingLocationCorridorRequestDto(
+        @NotBlank String polyline,
+        @NotNull Double width
+) {}
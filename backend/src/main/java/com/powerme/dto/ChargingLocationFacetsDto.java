@@ -0,0 +1,19 @@
+package com.powerme.dto;
+
+import com.powerme.enums.ChargingPower;
+import com.powerme.enums.SocketType;
+import java.util.Map;
+
+/**
+ * Nombre de lieux de la zone par valeur de filtre. Chaque facette tient compte des autres filtres
+ * demandés, mais pas du sien (le front peut afficher le nombre obtenu en changeant de valeur).
+ *
+ * @param socketTypes nombre de lieux par type de prise
+ * @param powers      nombre de lieux par puissance
+ */
+public record ChargingLocationFacetsDto(
+        Map<SocketType, Long> socketTypes,
+        Map<ChargingPower, Long> powers
+) {
+
+}
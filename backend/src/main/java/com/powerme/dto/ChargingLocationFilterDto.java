@@ -0,0 +1,69 @@
+package com.powerme.dto;
+
+import com.powerme.enums.ChargingPower;
+import com.powerme.enums.SocketType;
+import com.powerme.exception.ValidationException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Filtres de recherche des lieux sur la carte (paramètres de requête, tous optionnels). Un lieu
+ * correspond s'il possède au moins une borne active qui satisfait tous les filtres.
+ *
+ * @param socketType    type de prise
+ * @param minPower      puissance minimale
+ * @param maxHourlyRate tarif horaire maximum
+ * @param active        true : seulement les lieux ayant au moins une borne active ; false
+ *                      refusé (la carte ne propose pas les lieux sans borne active)
+ */
+public record ChargingLocationFilterDto(
+        SocketType socketType,
+        ChargingPower minPower,
+        BigDecimal maxHourlyRate,
+        Boolean active
+) {
+
+    public static final ChargingLocationFilterDto NONE =
+            new ChargingLocationFilterDto(null, null, null, null);
+
+    /**
+     * Rejette les valeurs non prises en charge (active=false) au lieu de les ignorer.
+     */
+    public void validate() {
+        if (Boolean.FALSE.equals(active)) {
+            throw new ValidationException("active", "seule la valeur true est acceptée");
+        }
+    }
+
+    /**
+     * Vrai si aucun filtre n'est demandé (tous les lieux correspondent).
+     */
+    public boolean isEmpty() {
+        return socketType == null
+                && minPower == null
+                && maxHourlyRate == null
+                && !Boolean.TRUE.equals(active);
+    }
+
+    /**
+     * Types de prise acceptés (tous si non filtré), au format stocké en base.
+     */
+    public List<String> socketTypeNames() {
+        return Arrays.stream(SocketType.values())
+                .filter(type -> socketType == null || type == socketType)
+                .map(Enum::name)
+                .toList();
+    }
+
+    /**
+     * Puissances acceptées (toutes si non filtré), au format stocké en base.
+     */
+    public List<String> powerNames() {
+        return Arrays.stream(ChargingPower.values())
+                .filter(power -> minPower == null
+                        || power.getKilowatts() >= minPower.getKilowatts())
+                .map(Enum::name)
+                .toList();
+    }
+}
@@ -0,0 +1,16 @@
+package com.powerme.dto;
+
+import java.util.List;
+
+/**
+ * Page de lieux renvoyée par une recherche par zone, triée par distance au centre de la zone.
+ *
+ * @param items      lieux de la page
+ * @param nextCursor curseur opaque de la page suivante, null si dernière page
+ */
+public record ChargingLocationMapPageDto(
+        List<ChargingLocationMapDto> items,
+        String nextCursor
+) {
+
+}
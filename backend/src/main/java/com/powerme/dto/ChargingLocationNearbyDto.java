@@ -0,0 +1,16 @@
+package com.powerme.dto;
+
+/**
+ * Lieu de recharge renvoyé par les recherches autour d'une position, avec sa distance.
+ *
+ * @param distanceMeters distance (en mètres, sur le sphéroïde) à la position recherchée
+ */
+public record ChargingLocationNearbyDto(
+        Long id,
+        String name,
+        double latitude,
+        double longitude,
+        double distanceMeters
+) {
+
+}
@@ -0,0 +1,16 @@
+package com.powerme.dto;
+
+import java.util.List;
+
+/**
+ * Page de lieux renvoyée par une recherche dans un rayon, les plus proches d'abord.
+ *
+ * @param items      lieux de la page
+ * @param nextCursor curseur opaque de la page suivante, null si dernière page
+ */
+public record ChargingLocationNearbyPageDto(
+        List<ChargingLocationNearbyDto> items,
+        String nextCursor
+) {
+
+}
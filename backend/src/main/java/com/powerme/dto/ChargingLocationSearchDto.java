@@ -0,0 +1,18 @@
+package com.powerme.dto;
+
+import java.util.List;
+
+/**
+ * Résultat d'une recherche filtrée par zone : page de lieux et facettes de la zone.
+ *
+ * @param items      lieux de la page, les plus proches du centre d'abord
+ * @param nextCursor curseur opaque de la page suivante, null si dernière page
+ * @param facets     nombre de lieux de la zone par valeur de filtre
+ */
+public record ChargingLocationSearchDto(
+        List<ChargingLocationMapDto> items,
+        String nextCursor,
+        ChargingLocationFacetsDto facets
+) {
+
+}
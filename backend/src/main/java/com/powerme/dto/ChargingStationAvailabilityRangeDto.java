@@ -0,0 +1,21 @@
+package com.powerme.dto;
+
+import com.powerme.enums.AvailabilityFormat;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Disponibilités d'une borne sur plusieurs jours.
+ *
+ * @param slotMinutes durée d'un créneau (bit / créneau i = de i x slotMinutes à (i + 1) x
+ *                    slotMinutes, heure locale)
+ */
+public record ChargingStationAvailabilityRangeDto(
+        LocalDate from,
+        LocalDate to,
+        int slotMinutes,
+        AvailabilityFormat format,
+        List<DayAvailabilityDto> days
+) {
+
+}
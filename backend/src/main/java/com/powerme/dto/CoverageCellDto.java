@@ -0,0 +1,15 @@
+package com.powerme.dto;
+
+/**
+ * Cellule de la heatmap de couverture : emprise et nombre de lieux / bornes qu'elle contient.
+ */
+public record CoverageCellDto(
+        double north,
+        double south,
+        double east,
+        double west,
+        int locationCount,
+        int stationCount
+) {
+
+}
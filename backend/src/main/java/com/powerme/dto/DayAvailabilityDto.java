@@ -0,0 +1,25 @@
+package com.powerme.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Disponibilités d'une journée ; seuls les champs du format demandé sont renseignés.
+ *
+ * @param date  jour
+ * @param open  format MASK : créneaux proposés (horaires d'ouverture, hors indisponibilité)
+ * @param free  format MASK : créneaux proposés, ni réservés ni bloqués
+ * @param runs  format RLE : plages de créneaux, cf. SlotMask.encodeRuns
+ * @param slots format SLOTS : créneaux détaillés
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DayAvailabilityDto(
+        LocalDate date,
+        Long open,
+        Long free,
+        String runs,
+        List<TimeSlotDto> slots
+) {
+
+}
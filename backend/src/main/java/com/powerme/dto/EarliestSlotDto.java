@@ -0,0 +1,26 @@
+package com.powerme.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Premier créneau libre d'une borne trouvé par la recherche de créneaux.
+ *
+ * @param start          début du créneau (le plus tôt possible à partir de l'instant demandé)
+ * @param end            fin du créneau
+ * @param distanceMeters distance entre la position et le lieu de la borne
+ * @param totalPrice     prix de la réservation de ce créneau
+ */
+public record EarliestSlotDto(
+        Long stationId,
+        String stationName,
+        Long locationId,
+        String locationName,
+        Instant start,
+        Instant end,
+        double distanceMeters,
+        BigDecimal hourlyRate,
+        BigDecimal totalPrice
+) {
+
+}
@@ -0,0 +1,12 @@
+package com.powerme.dto;
+
+/**
+ * Bornes libres d'un lieu à l'instant présent (badge "3/5 libres" de la carte).
+ */
+public record LocationAvailabilityDto(
+        Long locationId,
+        int stationCount,
+        int freeCount
+) {
+
+}
@@ -0,0 +1,14 @@
+package com.powerme.dto;
+
+/**
+ * Changement d'état d'un créneau poussé aux pages borne ouvertes (flux SSE).
+ *
+ * @param index     index du créneau dans la journée (cf. TimeSlotDto.index)
+ * @param available true si le créneau vient de se libérer, false s'il vient d'être réservé
+ */
+public record SlotChangeDto(
+        int index,
+        boolean available
+) {
+
+}
@@ -0,0 +1,25 @@
+package com.powerme.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Créneaux bloqués pendant la confirmation d'une réservation.
+ *
+ * @param token     jeton à transmettre à la création de la réservation
+ * @param stationId id de la borne
+ * @param date      jour des créneaux
+ * @param slots     indices des créneaux bloqués
+ * @param expiresAt fin du blocage
+ */
+public record SlotHoldDto(
+        UUID token,
+        Long stationId,
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate date,
+        List<Integer> slots,
+        Instant expiresAt
+) {}
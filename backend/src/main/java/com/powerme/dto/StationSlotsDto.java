@@ -0,0 +1,14 @@
+package com.powerme.dto;
+
+import java.util.List;
+
+/**
+ * Créneaux d'une borne pour un jour donné (grille d'un lieu).
+ */
+public record StationSlotsDto(
+        Long stationId,
+        String name,
+        List<TimeSlotDto> slots
+) {
+
+}
@@ -66,6 +66,9 @@ public class ChargingLocation {
 
     /**
      * Point géographique PostGIS.
+     *
+     * <p>La base en dérive la colonne générée location_geom (geometry, indexée GIST) utilisée par
+     * les recherches par zone : elle n'est pas mappée ici.</p>
      */
     @Column(columnDefinition = "geography(Point, 4326)")
     @JdbcTypeCode(SqlTypes.GEOGRAPHY)
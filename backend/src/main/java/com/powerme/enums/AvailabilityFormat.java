@@ -0,0 +1,10 @@
+package com.powerme.enums;
+
+/**
+ * Encodage des créneaux renvoyés par les disponibilités sur plusieurs jours.
+ */
+public enum AvailabilityFormat {
+    MASK,   // masques de bits open / free (bit i = créneau i)
+    RLE,    // plages "C16F4B2..." (C = fermé, F = libre, B = réservé)
+    SLOTS   // liste détaillée des créneaux (format de /availability)
+}
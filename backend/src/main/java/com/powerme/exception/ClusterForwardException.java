@@ -0,0 +1,19 @@
+package com.powerme.exception;
+
+/**
+ * Erreur renvoyée par l'instance propriétaire d'une borne pour une requête transférée : statut
+ * et détail repris tels quels (401, 403, 404, 400...).
+ */
+public class ClusterForwardException extends ServiceException {
+
+    private final int status;
+
+    public ClusterForwardException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -11,8 +11,11 @@
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -293,6 +296,22 @@ public ProblemDetail handleMalformedJson(HttpMessageNotReadableException ex) {
         return pd;
     }
 
+    /**
+     * Gère les erreurs de l'instance propriétaire d'une borne (requête transférée) : même statut
+     * que sa réponse.
+     */
+    @ExceptionHandler(ClusterForwardException.class)
+    public ProblemDetail handleClusterForward(ClusterForwardException ex) {
+        var pd = ProblemDetail.forStatusAndDetail(
+                HttpStatusCode.valueOf(ex.getStatus()),
+                ex.getMessage()
+        );
+
+        logger.info("Forwarded request refused by owner: status={}, detail={}", ex.getStatus(),
+                ex.getMessage());
+        return pd;
+    }
+
     /**
      * Gère toutes les autres ServiceException (exceptions métier non spécifiques).
      */
@@ -325,6 +344,21 @@ public ProblemDetail handleDataAccess(DataAccessException ex) {
         return pd;
     }
 
+    /**
+     * Gère les bornes trop sollicitées (file de réservation pleine ou attente trop longue) :
+     * l'en-tête Retry-After indique quand réessayer.
+     */
+    @ExceptionHandler(StationBusyException.class)
+    public ResponseEntity<ProblemDetail> handleStationBusy(StationBusyException ex) {
+        var pd = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        pd.setTitle("Borne très sollicitée");
+
+        logger.warn("Station busy: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(pd);
+    }
+
     /**
      * Gère les échecs d'envoi d'email.
      */
@@ -0,0 +1,21 @@
+package com.powerme.exception;
+
+import java.time.Duration;
+
+/**
+ * Borne trop sollicitée : file d'attente des réservations pleine ou attente trop longue. Le
+ * client peut réessayer après retryAfter (en-tête Retry-After).
+ */
+public class StationBusyException extends ServiceException {
+
+    private final Duration retryAfter;
+
+    public StationBusyException(Duration retryAfter) {
+        super("Borne très sollicitée, veuillez réessayer");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,76 @@
+package com.powerme.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Clés d'idempotence des créations de réservation (booking_idempotency).
+ *
+ * <p>Table technique sans entité : passe par l'EntityManager.</p>
+ */
+@Repository
+public class BookingIdempotencyRepository {
+
+    /**
+     * Réservation créée avec une clé.
+     *
+     * @param bookingId   id de la réservation créée
+     * @param requestHash empreinte de la requête d'origine
+     */
+    public record IdempotentBooking(Long bookingId, String requestHash) {}
+
+    private final EntityManager entityManager;
+
+    public BookingIdempotencyRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Optional<IdempotentBooking> find(Long userId, String key) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT booking_id, request_hash
+                        FROM booking_idempotency
+                        WHERE user_id = :userId
+                          AND idempotency_key = :key
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("key", key)
+                .getResultList();
+
+        return rows.stream()
+                .findFirst()
+                .map(item -> {
+                    Object[] row = (Object[]) item;
+                    return new IdempotentBooking(((Number) row[0]).longValue(), (String) row[1]);
+                });
+    }
+
+    /**
+     * Enregistre la clé (échoue en violation de clé primaire si elle existe déjà).
+     */
+    public void insert(Long userId, String key, Long bookingId, String requestHash) {
+        entityManager.createNativeQuery("""
+                        INSERT INTO booking_idempotency (user_id, idempotency_key, booking_id,
+                                                         request_hash)
+                        VALUES (:userId, :key, :bookingId, :requestHash)
+                        """)
+                .setParameter("userId", userId)
+                .setParameter("key", key)
+                .setParameter("bookingId", bookingId)
+                .setParameter("requestHash", requestHash)
+                .executeUpdate();
+    }
+
+    /**
+     * Supprime les clés enregistrées depuis plus de hours heures.
+     */
+    public int deleteOlderThan(long hours) {
+        return entityManager.createNativeQuery("""
+                        DELETE FROM booking_idempotency
+                        WHERE created_at < now() - make_interval(hours => :hours)
+                        """)
+                .setParameter("hours", (int) hours)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,142 @@
+package com.powerme.repository;
+
+import com.powerme.entity.Booking;
+import com.powerme.service.pricing.PriceTerms;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Création d'une réservation en une seule requête : lecture de la borne (prix et snapshots),
+ * insertion de la réservation et ajout de ses créneaux au masque d'occupation du jour
+ * (station_day_occupancy, ligne créée au besoin) dans le même statement.
+ *
+ * <p>Le non-chevauchement est garanti par la contrainte d'exclusion excl_booking_station_overlap
+ * : en cas de conflit, l'insertion échoue (SQLSTATE 23P01). Statement multi-tables non
+ * exprimable via Spring Data : passe par l'EntityManager.</p>
+ */
+@Repository
+public class BookingInsertRepository {
+
+    /**
+     * Contrainte violée lorsqu'un créneau est déjà réservé.
+     */
+    public static final String OVERLAP_CONSTRAINT = "excl_booking_station_overlap";
+
+    /**
+     * Valeurs calculées par l'insertion à partir de la borne.
+     */
+    public record InsertedBooking(
+            Long id,
+            BigDecimal totalPrice,
+            String stationName,
+            String stationAddress,
+            BigDecimal hourlyRate
+    ) {}
+
+    private final EntityManager entityManager;
+
+    public BookingInsertRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Insère la réservation (utilisateur, borne, période, statut et dates de l'objet) ; prix
+     * (price appliqué au taux horaire) et snapshots sont lus sur la borne dans la même requête.
+     * Ajoute slots au masque du jour day ; ligne absente : créée avec les créneaux des
+     * réservations actives déjà en base (même calcul que SlotMask.occupied, heure locale).
+     * Vide si la borne n'existe pas.
+     */
+    public Optional<InsertedBooking> insert(
+            Booking booking,
+            PriceTerms price,
+            LocalDate day,
+            long slots
+    ) {
+        ZoneId zone = ZoneId.systemDefault();
+        List<?> rows = entityManager.createNativeQuery("""
+                        WITH inserted AS (
+                            INSERT INTO booking (created_at, updated_at, start_time, end_time,
+                                                 total_price, booking_status, user_id,
+                                                 charging_station_id, station_name_snapshot,
+                                                 station_address_snapshot, hourly_rate_snapshot)
+                            SELECT :createdAt, :createdAt, :start, :end,
+                                   round(cs.hourly_rate * :hours + :fee, 2), :status,
+                                   :userId, cs.id, cs.name,
+                                   a.street_address || ', ' || a.postal_code || ' ' || a.city,
+                                   cs.hourly_rate
+                            FROM charging_station cs
+                            JOIN charging_location cl ON cl.id = cs.charging_location_id
+                            JOIN address a ON a.id = cl.address_id
+                            WHERE cs.id = :stationId
+                            RETURNING id, total_price, station_name_snapshot,
+                                      station_address_snapshot, hourly_rate_snapshot
+                        ),
+                        existing AS (
+                            SELECT CAST(floor(greatest(m.start_minutes, 0) / 30) AS INTEGER)
+                                       AS first_slot,
+                                   CAST(ceil(least(m.end_minutes, 1440) / 30) AS INTEGER)
+                                       AS end_slot
+                            FROM (
+                                SELECT extract(epoch FROM (b.start_time AT TIME ZONE :zone)
+                                           - CAST(:day AS TIMESTAMP)) / 60 AS start_minutes,
+                                       extract(epoch FROM (b.end_time AT TIME ZONE :zone)
+                                           - CAST(:day AS TIMESTAMP)) / 60 AS end_minutes
+                                FROM booking b
+                                WHERE b.charging_station_id = :stationId
+                                  AND b.start_time < :dayEnd
+                                  AND b.end_time > :dayStart
+                                  AND b.booking_status IN ('PENDING', 'ACCEPTED')
+                            ) m
+                        ),
+                        occupancy AS (
+                            INSERT INTO station_day_occupancy (station_id, day, mask)
+                            SELECT :stationId, :day, CAST(:slots AS BIGINT) | COALESCE((
+                                       SELECT bit_or(((CAST(1 AS BIGINT)
+                                                   << (e.end_slot - e.first_slot)) - 1)
+                                                   << e.first_slot)
+                                       FROM existing e
+                                       WHERE e.end_slot > e.first_slot
+                                   ), 0)
+                            FROM inserted
+                            ON CONFLICT (station_id, day) DO UPDATE
+                            SET mask    = station_day_occupancy.mask | CAST(:slots AS BIGINT),
+                                version = station_day_occupancy.version + 1
+                        )
+                        SELECT id, total_price, station_name_snapshot, station_address_snapshot,
+                               hourly_rate_snapshot
+                        FROM inserted
+                        """)
+                .setParameter("createdAt", booking.getCreatedAt())
+                .setParameter("start", booking.getStartTime())
+                .setParameter("end", booking.getEndTime())
+                .setParameter("hours", price.hours())
+                .setParameter("fee", price.fee())
+                .setParameter("status", booking.getBookingStatus().name())
+                .setParameter("userId", booking.getUser().getId())
+                .setParameter("stationId", booking.getChargingStation().getId())
+                .setParameter("zone", zone.getId())
+                .setParameter("day", day)
+                .setParameter("dayStart", day.atStartOfDay(zone).toInstant())
+                .setParameter("dayEnd", day.plusDays(1).atStartOfDay(zone).toInstant())
+                .setParameter("slots", slots)
+                .getResultList();
+
+        return rows.stream()
+                .findFirst()
+                .map(item -> {
+                    Object[] row = (Object[]) item;
+                    return new InsertedBooking(
+                            ((Number) row[0]).longValue(),
+                            (BigDecimal) row[1],
+                            (String) row[2],
+                            (String) row[3],
+                            (BigDecimal) row[4]
+                    );
+                });
+    }
+}
@@ -2,6 +2,7 @@
 
 import com.powerme.entity.Booking;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,17 +16,34 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUserIdOrderByStartTimeDesc(Long userId);
 
     /**
-     * Détermine si une borne est réservée à un instant donné.
-     * Utilisé pour l'affichage UI
+     * Borne de la réservation de l'utilisateur (transfert au propriétaire de la borne).
      */
     @Query("""
-        select count(b) > 0
+        select b.chargingStation.id
         from Booking b
-        where b.chargingStation.id = :stationId
-          and :now between b.startTime and b.endTime
+        where b.id = :bookingId
+          and b.user.id = :userId
     """)
-    boolean existsActiveBookingAt(
-            @Param("stationId") Long stationId,
+    Optional<Long> findStationIdByIdAndUserId(
+            @Param("bookingId") Long bookingId,
+            @Param("userId") Long userId
+    );
+
+    /**
+     * Parmi les bornes données, celles réservées à l'instant donné (réservation "active" en
+     * cours). Une seule requête pour toutes les bornes, servie par
+     * idx_booking_station_active_times. Utilisé pour l'affichage UI
+     */
+    @Query("""
+        select distinct b.chargingStation.id
+        from Booking b
+        where b.chargingStation.id in :stationIds
+          and b.bookingStatus in ('PENDING', 'ACCEPTED')
+          and b.startTime <= :now
+          and b.endTime > :now
+    """)
+    List<Long> findStationIdsBookedAt(
+            @Param("stationIds") Collection<Long> stationIds,
             @Param("now") Instant now
     );
 
@@ -46,17 +64,18 @@ List<Booking> findActiveBookingsForDay(
     );
 
     /**
-     * Détecte un chevauchement temporel sur une borne donnée.
+     * Réservations actives de plusieurs bornes sur une période (une requête pour un lieu
+     * entier).
      */
     @Query("""
-        SELECT COUNT(b) > 0
-        FROM Booking b
-        WHERE b.chargingStation.id = :stationId
-          AND b.startTime < :end
-          AND b.endTime > :start
-    """)
-    boolean existsOverlap(
-            @Param("stationId") Long stationId,
+    SELECT b FROM Booking b
+    WHERE b.chargingStation.id IN :stationIds
+      AND b.startTime < :end
+      AND b.endTime > :start
+      AND b.bookingStatus IN ('PENDING', 'ACCEPTED')
+""")
+    List<Booking> findActiveBookingsForStations(
+            @Param("stationIds") Collection<Long> stationIds,
             @Param("start") Instant start,
             @Param("end") Instant end
     );
@@ -0,0 +1,60 @@
+package com.powerme.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lecture de la table catalog_change (version de chaque lieu, tenue à jour par triggers).
+ *
+ * <p>Table sans entité (écrite uniquement par la base) : passe par l'EntityManager.</p>
+ */
+@Repository
+public class CatalogChangeRepository {
+
+    /**
+     * Modification d'un lieu postérieure à la version demandée.
+     *
+     * @param locationId     id du lieu
+     * @param createdVersion version de création (ou recréation) du lieu
+     * @param deleted        lieu supprimé
+     */
+    public record Change(long locationId, long createdVersion, boolean deleted) {}
+
+    private final EntityManager entityManager;
+
+    public CatalogChangeRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Version courante du catalogue (0 si aucun lieu n'a jamais existé).
+     */
+    public long findCurrentVersion() {
+        Object result = entityManager
+                .createNativeQuery("SELECT COALESCE(MAX(version), 0) FROM catalog_change")
+                .getSingleResult();
+
+        return ((Number) result).longValue();
+    }
+
+    public List<Change> findChangesSince(long since) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT location_id, created_version, deleted
+                        FROM catalog_change
+                        WHERE version > :since
+                        ORDER BY version
+                        """)
+                .setParameter("since", since)
+                .getResultList();
+
+        return rows.stream()
+                .map(Object[].class::cast)
+                .map(row -> new Change(
+                        ((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(),
+                        (Boolean) row[2]
+                ))
+                .toList();
+    }
+}
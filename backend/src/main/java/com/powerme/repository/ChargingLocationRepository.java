@@ -1,6 +1,10 @@
 package com.powerme.repository;
 
+import com.powerme.dto.ChargingLocationCorridorDto;
+import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.dto.ChargingLocationNearbyDto;
 import com.powerme.entity.ChargingLocation;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,38 +14,294 @@
 public interface ChargingLocationRepository extends JpaRepository<ChargingLocation, Long> {
 
     /**
-     * * Crée un rectangle et vérifie que le point est dedans
+     * Conditions communes à toute borne retenue par les filtres de la carte (alias cs) : borne
+     * active, tarif horaire plafonné. Partagées par {@link #STATION_FILTER} et par les facettes.
+     */
+    String STATION_MATCH = """
+                    cs.active = TRUE
+                    AND (CAST(:maxHourlyRate AS numeric) IS NULL
+                         OR cs.hourly_rate <= CAST(:maxHourlyRate AS numeric))
+            """;
+
+    /**
+     * Filtre des recherches de la carte (cf. ChargingLocationFilterDto) : le lieu doit avoir une
+     * borne active satisfaisant tous les filtres. Ignoré si :filtered est faux.
+     */
+    String STATION_FILTER = """
+                    (:filtered = FALSE OR EXISTS (
+                        SELECT 1
+                        FROM charging_station cs
+                        WHERE cs.charging_location_id = cl.id
+                          AND cs.socket_type IN (:socketTypes)
+                          AND cs.power IN (:powers)
+                          AND\s""" + STATION_MATCH + """
+                    ))
+            """;
+
+    /**
+     * Zone de la carte (:north, :south, :east, :west) : rectangle sur la colonne geometry (index
+     * GIST), coupé en deux à l'antiméridien quand :west &gt; :east (comme l'index en mémoire).
+     */
+    String BOUNDS_FILTER = """
+                    (cl.location_geom && ST_MakeEnvelope(
+                         :west, :south,
+                         CASE WHEN :west <= :east THEN :east ELSE 180 END, :north, 4326
+                     )
+                     OR (:west > :east AND cl.location_geom && ST_MakeEnvelope(
+                         -180, :south, :east, :north, 4326
+                     )))
+            """;
+
+    /**
+     * Lieu de la carte avec sa distance (en degrés) au centre de la zone recherchée.
+     */
+    record MapPointDistance(
+            Long id,
+            String name,
+            double latitude,
+            double longitude,
+            double distance
+    ) {
+
+        public ChargingLocationMapDto toMapDto() {
+            return new ChargingLocationMapDto(id, name, latitude, longitude);
+        }
+    }
+
+    /**
+     * Requête de findMapPointsInBounds, partagée avec le test de plan d'exécution
+     * (ChargingLocationBoundsExplainIT).
+     */
+    String MAP_POINTS_IN_BOUNDS_QUERY = """
+                    SELECT cl.id,
+                           cl.name,
+                           cl.latitude::float8            AS latitude,
+                           cl.longitude::float8           AS longitude,
+                           cl.location_geom <-> c.center  AS distance
+                    FROM charging_location cl
+                    CROSS JOIN (
+                        SELECT ST_SetSRID(ST_MakePoint(:centerLon, :centerLat), 4326) AS center
+                    ) c
+                    WHERE\s""" + BOUNDS_FILTER + """
+                      AND\s""" + STATION_FILTER + """
+                      AND (cl.location_geom <-> c.center > :lastDistance
+                           OR (cl.location_geom <-> c.center = :lastDistance
+                               AND cl.id > :lastId))
+                    ORDER BY cl.location_geom <-> c.center, cl.id
+                    LIMIT :limit
+                """;
+
+    /**
+     * Crée un rectangle et renvoie les lieux dedans, projetés directement (une seule requête, sans
+     * hydrater les entités). Utilise l'index GIST de la colonne geometry générée (opérateur &&,
+     * équivalent à "dans le rectangle" pour des points), cf. {@link #BOUNDS_FILTER}.
+     *
+     * <p>Tri KNN (opérateur &lt;-&gt; sur la colonne geometry, servi par le même index : seuls les
+     * lieux de la page sont lus, quelle que soit la taille de la zone) par distance plane au
+     * centre, en degrés (cf. BoundsCursor.distance, même calcul pour l'index en mémoire), puis
+     * id ; pagination par clé : seuls les lieux situés après (lastDistance, lastId) sont
+     * renvoyés.</p>
+     */
+    @Query(nativeQuery = true, value = MAP_POINTS_IN_BOUNDS_QUERY)
+    List<MapPointDistance> findMapPointsInBounds(
+            @Param("north") double north,
+            @Param("south") double south,
+            @Param("east") double east,
+            @Param("west") double west,
+            @Param("centerLat") double centerLat,
+            @Param("centerLon") double centerLon,
+            @Param("filtered") boolean filtered,
+            @Param("socketTypes") List<String> socketTypes,
+            @Param("powers") List<String> powers,
+            @Param("maxHourlyRate") BigDecimal maxHourlyRate,
+            @Param("lastDistance") double lastDistance,
+            @Param("lastId") long lastId,
+            @Param("limit") int limit
+    );
+
+
+    /**
+     * Nombre de lieux de la zone par valeur de filtre (facette SOCKET_TYPE ou POWER).
+     */
+    record FacetCount(String facet, String value, long count) {}
+
+    /**
+     * Facettes de la zone, en une requête. Chaque facette applique les autres filtres mais pas le
+     * sien (la facette type de prise ignore :socketTypes, la facette puissance ignore :powers).
+     *
+     * <p>Même prédicat de borne que {@link #STATION_FILTER} ({@link #STATION_MATCH}) : le compte
+     * d'une valeur est le nombre de lieux que renvoie findMapPointsInBounds une fois cette
+     * valeur sélectionnée. Sans filtre, la carte montre aussi les lieux sans borne active, que
+     * les facettes ne comptent pas.</p>
      */
     @Query(
         nativeQuery = true,
         value = """
-                    SELECT cl.id
+                    SELECT 'SOCKET_TYPE' AS facet,
+                           cs.socket_type AS value,
+                           COUNT(DISTINCT cs.charging_location_id) AS count
+                    FROM charging_location cl
+                    JOIN charging_station cs ON cs.charging_location_id = cl.id
+                    WHERE\s""" + BOUNDS_FILTER + """
+                      AND cs.power IN (:powers)
+                      AND\s""" + STATION_MATCH + """
+                    GROUP BY cs.socket_type
+                    UNION ALL
+                    SELECT 'POWER' AS facet,
+                           cs.power AS value,
+                           COUNT(DISTINCT cs.charging_location_id) AS count
                     FROM charging_location cl
-                    WHERE ST_Within(
-                        cl.location::geometry,
-                        ST_MakeEnvelope(
-                            :west, :south, :east, :north, 4326
-                        )
-                    )
+                    JOIN charging_station cs ON cs.charging_location_id = cl.id
+                    WHERE\s""" + BOUNDS_FILTER + """
+                      AND cs.socket_type IN (:socketTypes)
+                      AND\s""" + STATION_MATCH + """
+                    GROUP BY cs.power
                 """
     )
-    List<Long> findIdsInBounds(
+    List<FacetCount> countFacetsInBounds(
             @Param("north") double north,
             @Param("south") double south,
             @Param("east") double east,
-            @Param("west") double west
+            @Param("west") double west,
+            @Param("socketTypes") List<String> socketTypes,
+            @Param("powers") List<String> powers,
+            @Param("maxHourlyRate") BigDecimal maxHourlyRate
     );
 
 
+    /**
+     * Les k lieux les plus proches de la position : tri KNN (opérateur &lt;-&gt;) servi par l'index
+     * GIST de la colonne geography.
+     */
+    @Query(
+        nativeQuery = true,
+        value = """
+                    SELECT cl.id,
+                           cl.name,
+                           cl.latitude::float8                 AS latitude,
+                           cl.longitude::float8                AS longitude,
+                           ST_Distance(cl.location, p.point)   AS "distanceMeters"
+                    FROM charging_location cl
+                    CROSS JOIN (
+                        SELECT ST_SetSRID(ST_MakePoint(:lon, :lat), 4326)::geography AS point
+                    ) p
+                    WHERE\s""" + STATION_FILTER + """
+                    ORDER BY cl.location <-> p.point, cl.id
+                    LIMIT :k
+                """
+    )
+    List<ChargingLocationNearbyDto> findNearest(
+            @Param("lat") double lat,
+            @Param("lon") double lon,
+            @Param("filtered") boolean filtered,
+            @Param("socketTypes") List<String> socketTypes,
+            @Param("powers") List<String> powers,
+            @Param("maxHourlyRate") BigDecimal maxHourlyRate,
+            @Param("k") int k
+    );
+
+
+    /**
+     * Lieux à moins de radius mètres de la position (ST_DWithin, index GIST de la colonne
+     * geography), les plus proches d'abord. Pagination par clé : seuls les lieux situés après
+     * (lastDistance, lastId) sont renvoyés.
+     */
+    @Query(
+        nativeQuery = true,
+        value = """
+                    SELECT n.id, n.name, n.latitude, n.longitude, n."distanceMeters"
+                    FROM (
+                        SELECT cl.id,
+                               cl.name,
+                               cl.latitude::float8                 AS latitude,
+                               cl.longitude::float8                AS longitude,
+                               ST_Distance(cl.location, p.point)   AS "distanceMeters"
+                        FROM charging_location cl
+                        CROSS JOIN (
+                            SELECT ST_SetSRID(ST_MakePoint(:lon, :lat), 4326)::geography AS point
+                        ) p
+                        WHERE ST_DWithin(cl.location, p.point, :radius)
+                          AND\s""" + STATION_FILTER + """
+                    ) n
+                    WHERE n."distanceMeters" > :lastDistance
+                       OR (n."distanceMeters" = :lastDistance AND n.id > :lastId)
+                    ORDER BY n."distanceMeters", n.id
+                    LIMIT :limit
+                """
+    )
+    List<ChargingLocationNearbyDto> findWithinRadius(
+            @Param("lat") double lat,
+            @Param("lon") double lon,
+            @Param("radius") double radiusMeters,
+            @Param("filtered") boolean filtered,
+            @Param("socketTypes") List<String> socketTypes,
+            @Param("powers") List<String> powers,
+            @Param("maxHourlyRate") BigDecimal maxHourlyRate,
+            @Param("lastDistance") double lastDistance,
+            @Param("lastId") long lastId,
+            @Param("limit") int limit
+    );
+
+
+    /**
+     * Lieux à moins de width mètres de l'itinéraire (LINESTRING WKT, SRID 4326), dans l'ordre du
+     * parcours. ST_DWithin sur la colonne geography (index GIST) ; position le long du tracé par
+     * ST_LineLocatePoint. Pagination par clé : seuls les lieux situés après (lastFraction,
+     * lastId) sont renvoyés.
+     */
+    @Query(
+        nativeQuery = true,
+        value = """
+                    SELECT c.id, c.name, c.latitude, c.longitude, c."distanceMeters",
+                           c."routeFraction"
+                    FROM (
+                        SELECT cl.id,
+                               cl.name,
+                               cl.latitude::float8                            AS latitude,
+                               cl.longitude::float8                           AS longitude,
+                               ST_Distance(cl.location, r.route)              AS "distanceMeters",
+                               ST_LineLocatePoint(r.line, cl.location_geom)   AS "routeFraction"
+                        FROM charging_location cl
+                        CROSS JOIN (
+                            SELECT ST_GeomFromText(:route, 4326)            AS line,
+                                   ST_GeomFromText(:route, 4326)::geography AS route
+                        ) r
+                        WHERE ST_DWithin(cl.location, r.route, :width)
+                          AND\s""" + STATION_FILTER + """
+                    ) c
+                    WHERE c."routeFraction" > :lastFraction
+                       OR (c."routeFraction" = :lastFraction AND c.id > :lastId)
+                    ORDER BY c."routeFraction", c.id
+                    LIMIT :limit
+                """
+    )
+    List<ChargingLocationCorridorDto> findAlongRoute(
+            @Param("route") String routeWkt,
+            @Param("width") double widthMeters,
+            @Param("filtered") boolean filtered,
+            @Param("socketTypes") List<String> socketTypes,
+            @Param("powers") List<String> powers,
+            @Param("maxHourlyRate") BigDecimal maxHourlyRate,
+            @Param("lastFraction") double lastFraction,
+            @Param("lastId") long lastId,
+            @Param("limit") int limit
+    );
+
+
+    /**
+     * Charge tous les lieux sous forme de points (sans hydrater les entités). Utilisé pour
+     * construire les index en mémoire de la carte.
+     */
     @Query("""
-                SELECT cl
+                SELECT new com.powerme.dto.ChargingLocationMapDto(
+                    cl.id,
+                    cl.name,
+                    cast(cl.latitude as Double),
+                    cast(cl.longitude as Double)
+                )
                 FROM ChargingLocation cl
-                JOIN FETCH cl.address
-                WHERE cl.id IN :ids
             """)
-    List<ChargingLocation> findAllWithAddressByIdIn(
-            @Param("ids") List<Long> ids
-    );
+    List<ChargingLocationMapDto> findAllMapPoints();
 
 
     @Query("""
@@ -0,0 +1,78 @@
+package com.powerme.repository;
+
+import com.powerme.enums.ChargingPower;
+import jakarta.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Génère les tuiles vectorielles (Mapbox Vector Tile) des lieux de recharge directement dans
+ * PostGIS (ST_AsMVT / ST_AsMVTGeom).
+ *
+ * <p>Requête native non exprimable via Spring Data (résultat binaire unique) : passe par
+ * l'EntityManager.</p>
+ */
+@Repository
+public class ChargingLocationTileRepository {
+
+    /**
+     * Nom du layer dans la tuile.
+     */
+    public static final String LAYER_NAME = "charging_locations";
+
+    // Puissances triées par kW croissants : la "meilleure" = position la plus haute
+    private static final String POWER_ORDER = Arrays.stream(ChargingPower.values())
+            .sorted(Comparator.comparingDouble(ChargingPower::getKilowatts))
+            .map(power -> "'" + power.name() + "'")
+            .collect(Collectors.joining(",", "ARRAY[", "]::varchar[]"));
+
+    private static final String TILE_QUERY = """
+            WITH bounds AS (
+                SELECT ST_TileEnvelope(:z, :x, :y) AS geom
+            ),
+            tile AS (
+                SELECT cl.id,
+                       cl.name,
+                       COALESCE(s.station_count, 0) AS station_count,
+                       COALESCE(la.free_count, 0) AS free_count,
+                       s.best_power,
+                       ST_AsMVTGeom(ST_Transform(cl.location_geom, 3857), bounds.geom) AS geom
+                FROM charging_location cl
+                CROSS JOIN bounds
+                LEFT JOIN LATERAL (
+                    SELECT COUNT(*) AS station_count,
+                           (array_agg(
+                               cs.power
+                               ORDER BY array_position(%s, cs.power) DESC
+                           ))[1] AS best_power
+                    FROM charging_station cs
+                    WHERE cs.charging_location_id = cl.id
+                ) s ON TRUE
+                LEFT JOIN location_availability la ON la.location_id = cl.id
+                WHERE cl.location_geom && ST_Transform(bounds.geom, 4326)
+            )
+            SELECT COALESCE(ST_AsMVT(tile.*, '%s', 4096, 'geom', 'id'), ''::bytea)
+            FROM tile
+            """.formatted(POWER_ORDER, LAYER_NAME);
+
+    private final EntityManager entityManager;
+
+    public ChargingLocationTileRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Construit la tuile (z, x, y). Renvoie un tableau vide si aucun lieu dans la tuile.
+     */
+    public byte[] findTile(int z, int x, int y) {
+        Object result = entityManager.createNativeQuery(TILE_QUERY)
+                .setParameter("z", z)
+                .setParameter("x", x)
+                .setParameter("y", y)
+                .getSingleResult();
+
+        return result != null ? (byte[]) result : new byte[0];
+    }
+}
@@ -1,12 +1,42 @@
 package com.powerme.repository;
 
 import com.powerme.entity.ChargingStation;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ChargingStationRepository extends JpaRepository<ChargingStation, Long> {
 
+    /**
+     * Borne candidate d'une recherche de créneau, avec sa distance à la position (mètres).
+     * Horaires d'ouverture en secondes depuis minuit (null = toute la journée).
+     */
+    record SlotCandidate(
+            Long stationId,
+            String stationName,
+            Long locationId,
+            String locationName,
+            BigDecimal hourlyRate,
+            Integer openFromSecond,
+            Integer openToSecond,
+            double distanceMeters
+    ) {
+
+        public LocalTime availableFrom() {
+            return openFromSecond == null ? null : LocalTime.ofSecondOfDay(openFromSecond);
+        }
+
+        public LocalTime availableTo() {
+            return openToSecond == null ? null : LocalTime.ofSecondOfDay(openToSecond);
+        }
+    }
+
     @Query("""
         select s
         from ChargingStation s
@@ -16,10 +46,75 @@ public interface ChargingStationRepository extends JpaRepository<ChargingStation
     """)
     Optional<ChargingStation> findByIdWithLocationAndAddress(Long id);
 
+    @Query("""
+        select s
+        from ChargingStation s
+        left join fetch s.unavailabilityPeriods
+        where s.id = :id
+    """)
+    Optional<ChargingStation> findByIdWithUnavailabilityPeriods(Long id);
+
     @Query("""
         select count(cs)
         from ChargingStation cs
         where cs.chargingLocation.id = :locationId
     """)
     int countByLocationId(Long locationId);
+
+    /**
+     * Parmi les bornes données, celles ayant une période d'indisponibilité couvrant le jour.
+     */
+    @Query("""
+        select distinct p.chargingStation.id
+        from UnavailabilityPeriod p
+        where p.chargingStation.id in :stationIds
+          and p.startDate <= :day
+          and p.endDate >= :day
+    """)
+    List<Long> findUnavailableStationIds(
+            @Param("stationIds") Collection<Long> stationIds,
+            @Param("day") LocalDate day
+    );
+
+    /**
+     * Bornes actives à moins de radius mètres de la position (ST_DWithin, index GIST de la
+     * colonne geography des lieux) et satisfaisant les filtres, les plus proches d'abord.
+     */
+    @Query(
+        nativeQuery = true,
+        value = """
+                    SELECT cs.id                                          AS "stationId",
+                           cs.name                                        AS "stationName",
+                           cl.id                                          AS "locationId",
+                           cl.name                                        AS "locationName",
+                           cs.hourly_rate                                 AS "hourlyRate",
+                           CAST(EXTRACT(EPOCH FROM cs.available_from) AS integer)
+                                                                          AS "openFromSecond",
+                           CAST(EXTRACT(EPOCH FROM cs.available_to) AS integer)
+                                                                          AS "openToSecond",
+                           ST_Distance(cl.location, p.point)              AS "distanceMeters"
+                    FROM charging_station cs
+                    JOIN charging_location cl ON cl.id = cs.charging_location_id
+                    CROSS JOIN (
+                        SELECT ST_SetSRID(ST_MakePoint(:lon, :lat), 4326)::geography AS point
+                    ) p
+                    WHERE ST_DWithin(cl.location, p.point, :radius)
+                      AND cs.active = TRUE
+                      AND cs.socket_type IN (:socketTypes)
+                      AND cs.power IN (:powers)
+                      AND (CAST(:maxHourlyRate AS numeric) IS NULL
+                           OR cs.hourly_rate <= CAST(:maxHourlyRate AS numeric))
+                    ORDER BY "distanceMeters", cs.id
+                    LIMIT :limit
+                """
+    )
+    List<SlotCandidate> findSlotCandidates(
+            @Param("lat") double lat,
+            @Param("lon") double lon,
+            @Param("radius") double radiusMeters,
+            @Param("socketTypes") List<String> socketTypes,
+            @Param("powers") List<String> powers,
+            @Param("maxHourlyRate") BigDecimal maxHourlyRate,
+            @Param("limit") int limit
+    );
 }
@@ -0,0 +1,30 @@
+package com.powerme.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Diffusion d'événements entre instances (NOTIFY PostgreSQL).
+ *
+ * <p>Pas de table : la notification part au commit de la transaction courante et n'est jamais
+ * émise si elle est annulée.</p>
+ */
+@Repository
+public class ClusterEventRepository {
+
+    private final EntityManager entityManager;
+
+    public ClusterEventRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Notifie les instances à l'écoute du canal (LISTEN), au commit de la transaction.
+     */
+    public void notify(String channel, String payload) {
+        entityManager.createNativeQuery("SELECT pg_notify(:channel, :payload)")
+                .setParameter("channel", channel)
+                .setParameter("payload", payload)
+                .getSingleResult();
+    }
+}
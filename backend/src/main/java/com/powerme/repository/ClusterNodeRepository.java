@@ -0,0 +1,85 @@
+package com.powerme.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Instances backend actives (cluster_node).
+ *
+ * <p>Table technique sans entité, horodatée par l'horloge de la base (pas de dérive entre
+ * instances) : passe par l'EntityManager.</p>
+ */
+@Repository
+public class ClusterNodeRepository {
+
+    /**
+     * Instance du cluster.
+     *
+     * @param nodeId  identifiant de l'instance
+     * @param baseUrl URL interne de l'instance
+     */
+    public record ClusterNode(String nodeId, String baseUrl) {}
+
+    private final EntityManager entityManager;
+
+    public ClusterNodeRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Enregistre l'instance ou renouvelle son battement de cœur.
+     */
+    public void heartbeat(String nodeId, String baseUrl) {
+        entityManager.createNativeQuery("""
+                        INSERT INTO cluster_node (node_id, base_url)
+                        VALUES (:nodeId, :baseUrl)
+                        ON CONFLICT (node_id) DO UPDATE
+                            SET base_url       = EXCLUDED.base_url,
+                                last_heartbeat = now()
+                        """)
+                .setParameter("nodeId", nodeId)
+                .setParameter("baseUrl", baseUrl)
+                .executeUpdate();
+    }
+
+    /**
+     * Instances dont le dernier battement date de moins de ttlSeconds.
+     */
+    public List<ClusterNode> findAlive(long ttlSeconds) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT node_id, base_url
+                        FROM cluster_node
+                        WHERE last_heartbeat > now() - make_interval(secs => :ttl)
+                        ORDER BY node_id
+                        """)
+                .setParameter("ttl", ttlSeconds)
+                .getResultList();
+
+        List<ClusterNode> nodes = new ArrayList<>(rows.size());
+        for (Object item : rows) {
+            Object[] row = (Object[]) item;
+            nodes.add(new ClusterNode((String) row[0], (String) row[1]));
+        }
+        return nodes;
+    }
+
+    /**
+     * Supprime les instances silencieuses depuis plus de ttlSeconds.
+     */
+    public int deleteStale(long ttlSeconds) {
+        return entityManager.createNativeQuery("""
+                        DELETE FROM cluster_node
+                        WHERE last_heartbeat <= now() - make_interval(secs => :ttl)
+                        """)
+                .setParameter("ttl", ttlSeconds)
+                .executeUpdate();
+    }
+
+    public void delete(String nodeId) {
+        entityManager.createNativeQuery("DELETE FROM cluster_node WHERE node_id = :nodeId")
+                .setParameter("nodeId", nodeId)
+                .executeUpdate();
+    }
+}
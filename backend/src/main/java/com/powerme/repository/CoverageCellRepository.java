@@ -0,0 +1,64 @@
+package com.powerme.repository;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lecture de la table coverage_cell (compteurs de la heatmap, tenus à jour par triggers).
+ *
+ * <p>Table sans entité (écrite uniquement par la base) : passe par l'EntityManager.</p>
+ */
+@Repository
+public class CoverageCellRepository {
+
+    /**
+     * Compteurs d'une cellule du niveau le plus fin.
+     */
+    public record Cell(int cellX, int cellY, int locationCount, int stationCount) {}
+
+    private final EntityManager entityManager;
+
+    public CoverageCellRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Plus ancienne transaction encore active (pg_snapshot_xmin) : toutes les transactions
+     * antérieures sont terminées, leurs cellules visibles. Une cellule modifiée plus tard a une
+     * version supérieure ou égale.
+     */
+    public long findSettledVersion() {
+        Object result = entityManager.createNativeQuery("""
+                        SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT)
+                                    AS BIGINT)
+                        """)
+                .getSingleResult();
+
+        return ((Number) result).longValue();
+    }
+
+    /**
+     * Cellules écrites par une transaction de version supérieure ou égale (toutes avec 0).
+     * Version = transaction d'écriture : l'ordre des versions n'est pas celui des commits.
+     */
+    public List<Cell> findChangedSince(long version) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT cell_x, cell_y, location_count, station_count
+                        FROM coverage_cell
+                        WHERE version >= :version
+                        """)
+                .setParameter("version", version)
+                .getResultList();
+
+        return rows.stream()
+                .map(Object[].class::cast)
+                .map(row -> new Cell(
+                        ((Number) row[0]).intValue(),
+                        ((Number) row[1]).intValue(),
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[3]).intValue()
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,259 @@
+package com.powerme.repository;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Blocages temporaires de créneaux (slot_hold, table UNLOGGED).
+ *
+ * <p>Table technique sans entité, horodatée par l'horloge de la base (blocages partagés entre
+ * instances) : passe par l'EntityManager. Le non-chevauchement des blocages d'une borne est
+ * garanti par la contrainte d'exclusion excl_slot_hold_overlap (SQLSTATE 23P01).</p>
+ */
+@Repository
+public class SlotHoldRepository {
+
+    /**
+     * Blocage en cours.
+     *
+     * @param token     jeton remis à l'utilisateur
+     * @param userId    utilisateur ayant bloqué les créneaux
+     * @param mask      créneaux bloqués ({@code SlotMask})
+     * @param expiresAt fin du blocage
+     */
+    public record Hold(UUID token, Long userId, long mask, Instant expiresAt) {}
+
+    /**
+     * Journée d'une borne dont les blocages ont changé.
+     */
+    public record HeldDay(Long stationId, LocalDate day) {}
+
+    /**
+     * Blocage en cours d'une borne pour un jour.
+     */
+    public record DayHold(Long stationId, LocalDate day, Hold hold) {}
+
+    private final EntityManager entityManager;
+
+    public SlotHoldRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Blocages non expirés de la borne ce jour-là.
+     */
+    public List<Hold> findActive(Long stationId, LocalDate day) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT token, user_id, mask, expires_at
+                        FROM slot_hold
+                        WHERE station_id = :stationId
+                          AND day = :day
+                          AND expires_at > now()
+                        """)
+                .setParameter("stationId", stationId)
+                .setParameter("day", day)
+                .getResultList();
+
+        List<Hold> holds = new ArrayList<>(rows.size());
+        for (Object item : rows) {
+            Object[] row = (Object[]) item;
+            holds.add(new Hold(
+                    (UUID) row[0],
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(),
+                    toInstant(row[3])
+            ));
+        }
+        return holds;
+    }
+
+    /**
+     * Blocages non expirés des bornes données, du jour from au jour to inclus (une requête).
+     */
+    public List<DayHold> findActive(Collection<Long> stationIds, LocalDate from, LocalDate to) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT station_id, day, token, user_id, mask, expires_at
+                        FROM slot_hold
+                        WHERE station_id IN (:stationIds)
+                          AND day BETWEEN :from AND :to
+                          AND expires_at > now()
+                        """)
+                .setParameter("stationIds", stationIds)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        List<DayHold> holds = new ArrayList<>(rows.size());
+        for (Object item : rows) {
+            Object[] row = (Object[]) item;
+            holds.add(new DayHold(
+                    ((Number) row[0]).longValue(),
+                    toLocalDate(row[1]),
+                    new Hold(
+                            (UUID) row[2],
+                            ((Number) row[3]).longValue(),
+                            ((Number) row[4]).longValue(),
+                            toInstant(row[5])
+                    )
+            ));
+        }
+        return holds;
+    }
+
+    /**
+     * Borne du blocage de l'utilisateur (transfert au propriétaire de la borne).
+     */
+    public Optional<Long> findStationId(UUID token, Long userId) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT station_id
+                        FROM slot_hold
+                        WHERE token = :token
+                          AND user_id = :userId
+                        """)
+                .setParameter("token", token)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        return rows.stream().findFirst().map(id -> ((Number) id).longValue());
+    }
+
+    /**
+     * Créneaux de la borne bloqués ce jour-là par d'autres utilisateurs que userId.
+     */
+    public long findMaskHeldByOthers(Long stationId, LocalDate day, Long userId) {
+        Object mask = entityManager.createNativeQuery("""
+                        SELECT COALESCE(bit_or(mask), 0)
+                        FROM slot_hold
+                        WHERE station_id = :stationId
+                          AND day = :day
+                          AND user_id <> :userId
+                          AND expires_at > now()
+                        """)
+                .setParameter("stationId", stationId)
+                .setParameter("day", day)
+                .setParameter("userId", userId)
+                .getSingleResult();
+
+        return ((Number) mask).longValue();
+    }
+
+    /**
+     * Crée le blocage pour ttlSeconds et renvoie sa fin.
+     */
+    public Instant insert(
+            UUID token,
+            Long userId,
+            Long stationId,
+            LocalDate day,
+            long mask,
+            Instant start,
+            Instant end,
+            long ttlSeconds
+    ) {
+        Object expiresAt = entityManager.createNativeQuery("""
+                        INSERT INTO slot_hold (token, user_id, station_id, day, mask, period,
+                                               expires_at)
+                        VALUES (:token, :userId, :stationId, :day, :mask,
+                                tstzrange(:start, :end, '[)'),
+                                now() + make_interval(secs => :ttl))
+                        RETURNING expires_at
+                        """)
+                .setParameter("token", token)
+                .setParameter("userId", userId)
+                .setParameter("stationId", stationId)
+                .setParameter("day", day)
+                .setParameter("mask", mask)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("ttl", ttlSeconds)
+                .getSingleResult();
+
+        return toInstant(expiresAt);
+    }
+
+    /**
+     * Supprime le blocage s'il appartient à l'utilisateur.
+     */
+    public List<HeldDay> deleteByToken(UUID token, Long userId) {
+        return heldDays(entityManager.createNativeQuery("""
+                        DELETE FROM slot_hold
+                        WHERE token = :token
+                          AND user_id = :userId
+                        RETURNING station_id, day
+                        """)
+                .setParameter("token", token)
+                .setParameter("userId", userId)
+                .getResultList());
+    }
+
+    /**
+     * Supprime les blocages de l'utilisateur (un seul blocage à la fois par utilisateur).
+     */
+    public List<HeldDay> deleteByUser(Long userId) {
+        return heldDays(entityManager.createNativeQuery("""
+                        DELETE FROM slot_hold
+                        WHERE user_id = :userId
+                        RETURNING station_id, day
+                        """)
+                .setParameter("userId", userId)
+                .getResultList());
+    }
+
+    /**
+     * Supprime les blocages expirés de la borne (avant un nouveau blocage : sinon la contrainte
+     * d'exclusion les compterait encore).
+     */
+    public void deleteExpired(Long stationId) {
+        entityManager.createNativeQuery("""
+                        DELETE FROM slot_hold
+                        WHERE station_id = :stationId
+                          AND expires_at <= now()
+                        """)
+                .setParameter("stationId", stationId)
+                .executeUpdate();
+    }
+
+    /**
+     * Supprime tous les blocages expirés.
+     */
+    public List<HeldDay> deleteExpired() {
+        return heldDays(entityManager.createNativeQuery("""
+                        DELETE FROM slot_hold
+                        WHERE expires_at <= now()
+                        RETURNING station_id, day
+                        """)
+                .getResultList());
+    }
+
+    private static List<HeldDay> heldDays(List<?> rows) {
+        List<HeldDay> days = new ArrayList<>(rows.size());
+        for (Object item : rows) {
+            Object[] row = (Object[]) item;
+            days.add(new HeldDay(((Number) row[0]).longValue(), toLocalDate(row[1])));
+        }
+        return days;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toInstant();
+        }
+        return (Instant) value;
+    }
+}
@@ -0,0 +1,127 @@
+package com.powerme.repository;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Masques d'occupation journalière des bornes (station_day_occupancy). Les créneaux réservés y
+ * sont ajoutés par {@link BookingInsertRepository}.
+ *
+ * <p>Table sans entité, modifiée uniquement en SQL : passe par l'EntityManager.</p>
+ */
+@Repository
+public class StationDayOccupancyRepository {
+
+    private final EntityManager entityManager;
+
+    public StationDayOccupancyRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Masque de la journée, vide si la ligne n'a pas encore été créée.
+     */
+    public Optional<Long> findMask(Long stationId, LocalDate day) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT mask
+                        FROM station_day_occupancy
+                        WHERE station_id = :stationId
+                          AND day = :day
+                        """)
+                .setParameter("stationId", stationId)
+                .setParameter("day", day)
+                .getResultList();
+
+        return rows.stream()
+                .findFirst()
+                .map(mask -> ((Number) mask).longValue());
+    }
+
+    /**
+     * Masques des journées [from, to] déjà créées (clé = jour).
+     */
+    public Map<LocalDate, Long> findMasks(Long stationId, LocalDate from, LocalDate to) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT day, mask
+                        FROM station_day_occupancy
+                        WHERE station_id = :stationId
+                          AND day BETWEEN :from AND :to
+                        """)
+                .setParameter("stationId", stationId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+
+        Map<LocalDate, Long> masks = new HashMap<>();
+        for (Object item : rows) {
+            Object[] row = (Object[]) item;
+            masks.put(toLocalDate(row[0]), ((Number) row[1]).longValue());
+        }
+        return masks;
+    }
+
+    /**
+     * Masques du jour des bornes données déjà créés (clé = id de la borne).
+     */
+    public Map<Long, Long> findMasksForStations(Collection<Long> stationIds, LocalDate day) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT station_id, mask
+                        FROM station_day_occupancy
+                        WHERE station_id IN (:stationIds)
+                          AND day = :day
+                        """)
+                .setParameter("stationIds", stationIds)
+                .setParameter("day", day)
+                .getResultList();
+
+        Map<Long, Long> masks = new HashMap<>();
+        for (Object item : rows) {
+            Object[] row = (Object[]) item;
+            masks.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return masks;
+    }
+
+    /**
+     * Crée la ligne de la journée si elle n'existe pas (la ligne existante est conservée).
+     */
+    public void insertIfAbsent(Long stationId, LocalDate day, long mask) {
+        entityManager.createNativeQuery("""
+                        INSERT INTO station_day_occupancy (station_id, day, mask)
+                        VALUES (:stationId, :day, :mask)
+                        ON CONFLICT (station_id, day) DO NOTHING
+                        """)
+                .setParameter("stationId", stationId)
+                .setParameter("day", day)
+                .setParameter("mask", mask)
+                .executeUpdate();
+    }
+
+    /**
+     * Libère les créneaux (sans effet si la ligne n'existe pas : cf.
+     * StationOccupancyService.release, qui la crée avant).
+     */
+    public void release(Long stationId, LocalDate day, long slots) {
+        entityManager.createNativeQuery("""
+                        UPDATE station_day_occupancy
+                        SET mask    = mask & ~CAST(:slots AS BIGINT),
+                            version = version + 1
+                        WHERE station_id = :stationId
+                          AND day = :day
+                        """)
+                .setParameter("stationId", stationId)
+                .setParameter("day", day)
+                .setParameter("slots", slots)
+                .executeUpdate();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
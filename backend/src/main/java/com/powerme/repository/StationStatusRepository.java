@@ -0,0 +1,179 @@
+package com.powerme.repository;
+
+import com.powerme.dto.LocationAvailabilityDto;
+import com.powerme.enums.StationStatus;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Modèle de lecture du statut des bornes (station_status) et des bornes libres par lieu
+ * (location_availability).
+ *
+ * <p>Tables sans entité, recalculées en SQL à partir des réservations : passe par
+ * l'EntityManager.</p>
+ */
+@Repository
+public class StationStatusRepository {
+
+    // Recalcule le statut des bornes ciblées (%s = condition sur cs). Même règle que
+    // ChargingStationServiceImpl : réservation active en cours > borne inactive > disponible.
+    private static final String REFRESH_STATIONS = """
+            INSERT INTO station_status (station_id, location_id, status, next_transition_at,
+                                        updated_at)
+            SELECT cs.id,
+                   cs.charging_location_id,
+                   CASE
+                       WHEN EXISTS (
+                           SELECT 1
+                           FROM booking b
+                           WHERE b.charging_station_id = cs.id
+                             AND b.booking_status IN ('PENDING', 'ACCEPTED')
+                             AND b.start_time <= :now
+                             AND b.end_time > :now
+                       ) THEN 'OCCUPIED'
+                       WHEN NOT cs.active THEN 'UNAVAILABLE'
+                       ELSE 'AVAILABLE'
+                   END,
+                   (
+                       SELECT MIN(CASE WHEN b.start_time > :now THEN b.start_time
+                                       ELSE b.end_time END)
+                       FROM booking b
+                       WHERE b.charging_station_id = cs.id
+                         AND b.booking_status IN ('PENDING', 'ACCEPTED')
+                         AND b.end_time > :now
+                   ),
+                   :now
+            FROM charging_station cs
+            WHERE %s
+            ON CONFLICT (station_id) DO UPDATE
+                SET location_id        = EXCLUDED.location_id,
+                    status             = EXCLUDED.status,
+                    next_transition_at = EXCLUDED.next_transition_at,
+                    updated_at         = EXCLUDED.updated_at
+            RETURNING location_id
+            """;
+
+    private static final String REFRESH_LOCATIONS = """
+            INSERT INTO location_availability (location_id, station_count, free_count, updated_at)
+            SELECT cl.id,
+                   COUNT(ss.station_id),
+                   COUNT(ss.station_id) FILTER (WHERE ss.status = 'AVAILABLE'),
+                   NOW()
+            FROM charging_location cl
+            LEFT JOIN station_status ss ON ss.location_id = cl.id
+            WHERE cl.id IN (:locationIds)
+            GROUP BY cl.id
+            ON CONFLICT (location_id) DO UPDATE
+                SET station_count = EXCLUDED.station_count,
+                    free_count    = EXCLUDED.free_count,
+                    updated_at    = EXCLUDED.updated_at
+            """;
+
+    private final EntityManager entityManager;
+
+    public StationStatusRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Recalcule le statut des bornes données. Renvoie les lieux concernés.
+     */
+    public Set<Long> refreshStations(Collection<Long> stationIds, Instant now) {
+        if (stationIds.isEmpty()) {
+            return Set.of();
+        }
+        return refresh("cs.id IN (:stationIds)", now, Map.of("stationIds", stationIds));
+    }
+
+    /**
+     * Recalcule le statut des bornes dont le prochain changement est passé.
+     */
+    public Set<Long> refreshDueStations(Instant now) {
+        return refresh("""
+                cs.id IN (
+                    SELECT ss.station_id
+                    FROM station_status ss
+                    WHERE ss.next_transition_at <= :now
+                )""", now, Map.of());
+    }
+
+    /**
+     * Recalcule le statut de toutes les bornes. Renvoie les lieux concernés.
+     */
+    public Set<Long> refreshAllStations(Instant now) {
+        return refresh("TRUE", now, Map.of());
+    }
+
+    /**
+     * Recompte les bornes libres des lieux donnés (à appeler après refresh*Stations).
+     */
+    public void refreshLocations(Collection<Long> locationIds) {
+        if (locationIds.isEmpty()) {
+            return;
+        }
+        entityManager.createNativeQuery(REFRESH_LOCATIONS)
+                .setParameter("locationIds", locationIds)
+                .executeUpdate();
+    }
+
+    /**
+     * Statut des bornes présentes dans le modèle de lecture (clé = id de la borne).
+     */
+    public Map<Long, StationStatus> findStatuses(Collection<Long> stationIds) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT station_id, status
+                        FROM station_status
+                        WHERE station_id IN (:stationIds)
+                        """)
+                .setParameter("stationIds", stationIds)
+                .getResultList();
+
+        Map<Long, StationStatus> statuses = new HashMap<>();
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            statuses.put(((Number) columns[0]).longValue(),
+                    StationStatus.valueOf((String) columns[1]));
+        }
+        return statuses;
+    }
+
+    public List<LocationAvailabilityDto> findLocationAvailabilities(Collection<Long> locationIds) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT location_id, station_count, free_count
+                        FROM location_availability
+                        WHERE location_id IN (:locationIds)
+                        """)
+                .setParameter("locationIds", locationIds)
+                .getResultList();
+
+        return rows.stream()
+                .map(Object[].class::cast)
+                .map(columns -> new LocationAvailabilityDto(
+                        ((Number) columns[0]).longValue(),
+                        ((Number) columns[1]).intValue(),
+                        ((Number) columns[2]).intValue()
+                ))
+                .toList();
+    }
+
+    /* ========== HELPERS ========== */
+
+    private Set<Long> refresh(String condition, Instant now, Map<String, Object> parameters) {
+        var query = entityManager.createNativeQuery(REFRESH_STATIONS.formatted(condition))
+                .setParameter("now", now);
+        parameters.forEach(query::setParameter);
+
+        Set<Long> locationIds = new HashSet<>();
+        for (Object locationId : query.getResultList()) {
+            locationIds.add(((Number) locationId).longValue());
+        }
+        return locationIds;
+    }
+}
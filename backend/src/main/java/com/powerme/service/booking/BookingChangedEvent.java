@@ -0,0 +1,24 @@
+package com.powerme.service.booking;
+
+import com.powerme.enums.BookingStatus;
+import java.time.Instant;
+
+/**
+ * Événement publié (dans la transaction) à la création d'une réservation ou à son changement de
+ * statut. Les écouteurs "après commit" tiennent à jour les vues dérivées des réservations.
+ *
+ * @param bookingId id de la réservation
+ * @param stationId id de la borne réservée
+ * @param start     début de la réservation
+ * @param end       fin de la réservation
+ * @param status    nouveau statut
+ */
+public record BookingChangedEvent(
+        Long bookingId,
+        Long stationId,
+        Instant start,
+        Instant end,
+        BookingStatus status
+) {
+
+}
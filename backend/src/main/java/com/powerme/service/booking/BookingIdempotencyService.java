@@ -0,0 +1,194 @@
+package com.powerme.service.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powerme.dto.BookingCreateRequestDto;
+import com.powerme.dto.BookingDto;
+import com.powerme.exception.BookingConflictException;
+import com.powerme.exception.ValidationException;
+import com.powerme.mapper.BookingMapper;
+import com.powerme.repository.BookingIdempotencyRepository;
+import com.powerme.repository.BookingIdempotencyRepository.IdempotentBooking;
+import com.powerme.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Création de réservation idempotente (en-tête Idempotency-Key) : une requête rejouée avec la
+ * même clé renvoie la réservation d'origine sans relancer la création, dans son état actuel
+ * (relue en base, statut éventuellement changé depuis).
+ *
+ * <p>La clé est enregistrée dans la transaction de la réservation (booking_idempotency) ; les
+ * clés récentes et leur réservation sont gardées en mémoire (cache borné), ce qui évite de relire
+ * la clé mais pas la réservation. Une requête concurrente avec la même clé échoue (conflit de
+ * créneaux ou de clé) puis est rejouée depuis la base. Une clé réutilisée
+ * pour une autre requête est refusée. Rejeux comptés sous booking.idempotency.replays (source =
+ * memory / database).</p>
+ */
+@Service
+public class BookingIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIdempotencyService.class);
+
+    static final int MAX_KEY_LENGTH = 255;
+    static final long RETENTION_HOURS = 24;
+
+    private static final int MAX_CACHED_KEYS = 10_000;
+    private static final Duration CACHE_TTL = Duration.ofHours(1);
+
+    private record Key(Long userId, String idempotencyKey) {}
+
+    private record CachedKey(String requestHash, Long bookingId) {}
+
+    private final Cache<Key, CachedKey> keys = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_KEYS)
+            .expireAfterWrite(CACHE_TTL)
+            .build();
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final BookingIdempotencyRepository idempotencyRepository;
+    private final BookingMapper bookingMapper;
+    private final Counter memoryReplays;
+    private final Counter databaseReplays;
+
+    public BookingIdempotencyService(
+            BookingService bookingService,
+            BookingRepository bookingRepository,
+            BookingIdempotencyRepository idempotencyRepository,
+            BookingMapper bookingMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.bookingService = bookingService;
+        this.bookingRepository = bookingRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.bookingMapper = bookingMapper;
+        this.memoryReplays = replayCounter(meterRegistry, "memory");
+        this.databaseReplays = replayCounter(meterRegistry, "database");
+    }
+
+    /**
+     * Crée la réservation, ou renvoie celle déjà créée avec cette clé. Sans clé : création
+     * simple.
+     */
+    public BookingDto createBooking(
+            BookingCreateRequestDto request,
+            Long userId,
+            String idempotencyKey
+    ) {
+        if (idempotencyKey == null) {
+            return bookingMapper.toDto(bookingService.createBooking(request, userId));
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key",
+                    "doit contenir entre 1 et " + MAX_KEY_LENGTH + " caractères");
+        }
+
+        Key key = new Key(userId, idempotencyKey);
+        String requestHash = requestHash(request);
+
+        CachedKey cached = keys.getIfPresent(key);
+        if (cached != null) {
+            checkSameRequest(cached.requestHash(), requestHash);
+            Optional<BookingDto> current = bookingRepository
+                    .findByIdAndUserId(cached.bookingId(), userId)
+                    .map(bookingMapper::toDto);
+            if (current.isPresent()) {
+                memoryReplays.increment();
+                logger.info("Booking replayed from memory: userId={}, bookingId={}", userId,
+                        cached.bookingId());
+                return current.get();
+            }
+        }
+
+        Optional<BookingDto> stored = replayFromDatabase(key, requestHash);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        BookingDto booking;
+        try {
+            booking = bookingMapper.toDto(
+                    bookingService.createBooking(request, userId, idempotencyKey)
+            );
+        } catch (BookingConflictException | DataIntegrityViolationException e) {
+            // Requête concurrente avec la même clé, commitée entre-temps
+            return replayFromDatabase(key, requestHash).orElseThrow(() -> e);
+        }
+
+        keys.put(key, new CachedKey(requestHash, booking.id()));
+        return booking;
+    }
+
+    // Purge horaire des clés de plus de 24 heures
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyRepository.deleteOlderThan(RETENTION_HOURS);
+        if (deleted > 0) {
+            logger.debug("Expired idempotency keys purged: {}", deleted);
+        }
+    }
+
+    /**
+     * Empreinte de la requête (borne, jour, créneaux) : SHA-256 en hexadécimal.
+     */
+    public static String requestHash(BookingCreateRequestDto request) {
+        String canonical = request.stationId() + "|" + request.date() + "|"
+                + request.slots().stream().sorted().toList();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private Optional<BookingDto> replayFromDatabase(Key key, String requestHash) {
+        Optional<IdempotentBooking> stored =
+                idempotencyRepository.find(key.userId(), key.idempotencyKey());
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+        checkSameRequest(stored.get().requestHash(), requestHash);
+
+        Optional<BookingDto> booking = bookingRepository
+                .findByIdAndUserId(stored.get().bookingId(), key.userId())
+                .map(bookingMapper::toDto);
+        booking.ifPresent(dto -> {
+            keys.put(key, new CachedKey(requestHash, dto.id()));
+            databaseReplays.increment();
+            logger.info("Booking replayed from database: userId={}, bookingId={}",
+                    key.userId(), dto.id());
+        });
+        return booking;
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new ValidationException("Idempotency-Key",
+                    "déjà utilisée pour une autre réservation");
+        }
+    }
+
+    private static Counter replayCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("booking.idempotency.replays")
+                .description("Créations de réservation rejouées via Idempotency-Key")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,182 @@
+package com.powerme.service.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powerme.enums.BookingStatus;
+import com.powerme.exception.BookingConflictException;
+import com.powerme.exception.ServiceException;
+import com.powerme.exception.StationBusyException;
+import com.powerme.service.cluster.ClusterTopologyChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sérialisation en mémoire des tentatives de réservation d'une même borne (file par borne).
+ *
+ * <p>Sur une borne très demandée, les créations concurrentes se heurtent en base et la plupart
+ * finissent en conflit après plusieurs requêtes. Ici, celles dont les créneaux sont déjà pris
+ * d'après la vue mémoire de l'occupation sont rejetées avant d'entrer dans la file, sans
+ * attendre ni toucher la base ; les autres passent une par une (verrou équitable = file FIFO
+ * par borne, transaction comprise). Les bornes différentes restent en parallèle (une file par
+ * borne, retirée quand elle est vide).</p>
+ *
+ * <p>Une file pleine ou une attente trop longue est refusée ({@link StationBusyException}, 503
+ * avec Retry-After) : une borne très demandée ne peut pas immobiliser les threads de requête
+ * plus de quelques secondes.</p>
+ *
+ * <p>La vue n'est qu'un filtre : masque lu en base au premier passage (jour sans ligne
+ * d'occupation : pas de filtre), complété après chaque commit de réservation, oublié à chaque
+ * annulation (celles des autres instances comprises, via ClusterEventBus) et au bout d'une
+ * minute. Lecture et oubli d'une
+ * même clé sont atomiques (Cache.get) : un masque lu avant une annulation ne peut pas être
+ * remis en vue après son invalidation. La contrainte d'exclusion en base reste la garantie.</p>
+ */
+@Component
+public class BookingSerializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSerializer.class);
+
+    // Attente maximale et nombre max de tentatives en attente dans la file d'une borne
+    private static final Duration MAX_WAIT = Duration.ofSeconds(2);
+    private static final int MAX_QUEUE_LENGTH = 16;
+
+    // Délai conseillé au client avant de réessayer (Retry-After)
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private static final int MAX_VIEW_ENTRIES = 10_000;
+    private static final Duration VIEW_TTL = Duration.ofMinutes(1);
+
+    private record Key(Long stationId, LocalDate day) {}
+
+    // File d'une borne : verrou équitable et nombre de tentatives en cours ou en attente
+    private static final class Lane {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int users;
+    }
+
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    // Créneaux réservés (commités) par borne et par jour
+    private final Cache<Key, Long> occupancy = Caffeine.newBuilder()
+            .maximumSize(MAX_VIEW_ENTRIES)
+            .expireAfterWrite(VIEW_TTL)
+            .build();
+
+    private final StationOccupancyService occupancyService;
+    private final Counter rejected;
+
+    public BookingSerializer(
+            StationOccupancyService occupancyService,
+            MeterRegistry meterRegistry
+    ) {
+        this.occupancyService = occupancyService;
+        this.rejected = Counter.builder("booking.serializer.rejected")
+                .description("Réservations rejetées par la vue mémoire, sans accès à la base")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Exécute attempt (qui doit commiter sa transaction avant de rendre la main) seul sur la
+     * borne, après avoir vérifié que les créneaux slots du jour day sont libres d'après la vue.
+     *
+     * @throws BookingConflictException si un créneau est déjà pris (vue ou base)
+     */
+    public <T> T submit(Long stationId, LocalDate day, long slots, Supplier<T> attempt) {
+        Key key = new Key(stationId, day);
+
+        // Créneaux déjà pris d'après la vue : rejet immédiat, sans entrer dans la file
+        Long occupied = occupancy.get(key, k ->
+                occupancyService.findOccupiedSlots(k.stationId(), k.day()).orElse(null));
+        rejectIfTaken(key, occupied, slots);
+
+        Lane lane = lanes.compute(stationId, (id, current) -> {
+            Lane result = current == null ? new Lane() : current;
+            result.users++;
+            return result;
+        });
+        try {
+            if (lane.lock.getQueueLength() >= MAX_QUEUE_LENGTH
+                    || !lane.lock.tryLock(MAX_WAIT.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Booking queue full or timed out: stationId={}", stationId);
+                throw new StationBusyException(RETRY_AFTER);
+            }
+            try {
+                // Réservations commitées par les tentatives précédentes de la file
+                rejectIfTaken(key, occupancy.getIfPresent(key), slots);
+                return attempt(key, attempt);
+            } finally {
+                lane.lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Réservation interrompue, veuillez réessayer");
+        } finally {
+            lanes.compute(stationId, (id, current) -> --current.users == 0 ? null : current);
+        }
+    }
+
+    private void rejectIfTaken(Key key, Long occupied, long slots) {
+        if (occupied != null && (occupied & slots) != 0) {
+            rejected.increment();
+            logger.debug("Booking rejected from memory: stationId={}, day={}",
+                    key.stationId(), key.day());
+            throw new BookingConflictException();
+        }
+    }
+
+    private <T> T attempt(Key key, Supplier<T> attempt) {
+        try {
+            return attempt.get();
+        } catch (BookingConflictException e) {
+            // Vue en retard sur la base : relue au prochain passage
+            occupancy.invalidate(key);
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre de bornes ayant une tentative en cours ou en attente.
+     */
+    public int activeStations() {
+        return lanes.size();
+    }
+
+    // Bornes reprises d'une autre instance : leurs réservations récentes sont inconnues ici
+    @EventListener
+    public void onTopologyChanged(ClusterTopologyChangedEvent event) {
+        occupancy.invalidateAll();
+    }
+
+    // Après commit, avant que la file de la borne passe à la tentative suivante
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        boolean active = event.status() == BookingStatus.PENDING
+                || event.status() == BookingStatus.ACCEPTED;
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate last = LocalDate.ofInstant(event.end().minusNanos(1), zone);
+        for (LocalDate day = LocalDate.ofInstant(event.start(), zone);
+                !day.isAfter(last);
+                day = day.plusDays(1)) {
+            Key key = new Key(event.stationId(), day);
+            if (active) {
+                long slots = SlotMask.occupied(day, event.start(), event.end(), zone);
+                occupancy.asMap().computeIfPresent(key, (k, mask) -> mask | slots);
+            } else {
+                occupancy.invalidate(key);
+            }
+        }
+    }
+}
@@ -14,4 +14,16 @@ public Booking createBooking(
             BookingCreateRequestDto req,
             Long userId
     );
+
+    /**
+     * Création avec enregistrement de la clé d'idempotence dans la même transaction (clé déjà
+     * utilisée : échec en violation d'intégrité).
+     */
+    public Booking createBooking(
+            BookingCreateRequestDto req,
+            Long userId,
+            String idempotencyKey
+    );
+
+    public Booking cancelBooking(Long bookingId, Long userId);
 }
@@ -1,44 +1,67 @@
 package com.powerme.service.booking;
 
 import com.powerme.dto.BookingCreateRequestDto;
-import com.powerme.entity.Address;
 import com.powerme.entity.Booking;
-import com.powerme.entity.ChargingLocation;
 import com.powerme.entity.ChargingStation;
 import com.powerme.entity.User;
 import com.powerme.enums.BookingStatus;
 import com.powerme.exception.BookingConflictException;
 import com.powerme.exception.BookingNotFoundException;
 import com.powerme.exception.ChargingStationNotFoundException;
-import com.powerme.exception.UserNotFoundException;
+import com.powerme.exception.ServiceException;
+import com.powerme.repository.BookingIdempotencyRepository;
+import com.powerme.repository.BookingInsertRepository;
+import com.powerme.repository.BookingInsertRepository.InsertedBooking;
 import com.powerme.repository.BookingRepository;
 import com.powerme.repository.ChargingStationRepository;
 import com.powerme.repository.UserRepository;
+import com.powerme.service.pricing.PriceTerms;
 import com.powerme.service.pricing.PricingService;
-import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class BookingServiceImpl implements BookingService {
     private static final Logger logger = LoggerFactory.getLogger(BookingServiceImpl.class);
 
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingInsertRepository bookingInsertRepository;
+    private final BookingIdempotencyRepository idempotencyRepository;
     private final ChargingStationRepository chargingStationRepository;
     private final PricingService pricingService;
     private final SlotService slotService;
+    private final StationOccupancyService occupancyService;
+    private final BookingSerializer bookingSerializer;
+    private final SlotHoldService slotHoldService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public BookingServiceImpl(UserRepository userRepository, BookingRepository bookingRepository, ChargingStationRepository chargingStationRepository, PricingService pricingService, SlotService slotService) {
+    public BookingServiceImpl(UserRepository userRepository, BookingRepository bookingRepository, BookingInsertRepository bookingInsertRepository, BookingIdempotencyRepository idempotencyRepository, ChargingStationRepository chargingStationRepository, PricingService pricingService, SlotService slotService, StationOccupancyService occupancyService, BookingSerializer bookingSerializer, SlotHoldService slotHoldService, PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
+        this.bookingInsertRepository = bookingInsertRepository;
+        this.idempotencyRepository = idempotencyRepository;
         this.chargingStationRepository = chargingStationRepository;
         this.pricingService = pricingService;
         this.slotService = slotService;
+        this.occupancyService = occupancyService;
+        this.bookingSerializer = bookingSerializer;
+        this.slotHoldService = slotHoldService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -62,93 +85,190 @@ public Booking getBookingForUser(Long bookingId, Long userId) {
      * Création d'une réservation.
      * Le backend est la source de vérité :
      * - reconstruction des créneaux
-     * - détection des conflits
-     * - calcul du prix final
+     * - calcul du prix final (termes du tarif appliqués au taux de la borne par l'insertion)
+     * - détection des conflits : contrainte d'exclusion en base, vérifiée par l'insertion
+     *   (une seule requête qui lit aussi la borne et met à jour le masque d'occupation du jour)
+     * Le jeton de blocage éventuel ({@link SlotHoldService}) est consommé ; les créneaux bloqués
+     * par un autre utilisateur sont en conflit.
+     * Les tentatives sur une même borne passent une par une ({@link BookingSerializer}) ; celles
+     * déjà en conflit d'après l'occupation en mémoire sont rejetées sans accès à la base.
      */
     @Override
     public Booking createBooking(
             BookingCreateRequestDto request,
             Long userId
     ) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(UserNotFoundException::new);
+        return createBooking(request, userId, null);
+    }
 
-        ChargingStation station = chargingStationRepository
-                .findByIdWithLocationAndAddress(request.stationId())
-                .orElseThrow(ChargingStationNotFoundException::new);
+    @Override
+    public Booking createBooking(
+            BookingCreateRequestDto request,
+            Long userId,
+            String idempotencyKey
+    ) {
+        // Reconstruction des créneaux
+        SlotService.SlotRange range =
+                slotService.computeRange(request.date(), request.slots());
+
+        // Une tentative à la fois par borne, transaction commitée avant la suivante
+        return bookingSerializer.submit(
+                request.stationId(),
+                request.date(),
+                range.mask(),
+                () -> transactionTemplate.execute(
+                        status -> insertBooking(request, range, userId, idempotencyKey)
+                )
+        );
+    }
+
+    private Booking insertBooking(
+            BookingCreateRequestDto request,
+            SlotService.SlotRange range,
+            Long userId,
+            String idempotencyKey
+    ) {
+        // Utilisateur authentifié et borne : des références suffisent, lues par l'insertion
+        User user = userRepository.getReferenceById(userId);
+        ChargingStation station = chargingStationRepository.getReferenceById(request.stationId());
 
         LocalDate bookingDate = request.date(); // Normalisé
         logger.info(
             "Creating booking: userId={}, stationId={}, bookingDate={}, slotsCount={}",
-            user.getId(),
+            userId,
             station.getId(),
             bookingDate,
             request.slots().size() // OK car calculé
         );
 
-        ChargingLocation location = station.getChargingLocation();
-        Address address = location.getAddress();
+        // Prix final : termes appliqués au taux horaire de la borne par l'insertion
+        PriceTerms price = pricingService.termsFor(range.slots());
 
-        // Reconstruction des créneaux
-        SlotService.SlotRange range =
-                slotService.computeRange(request.date(), request.slots());
+        // Création de la réservation
+        Instant now = Instant.now();
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setChargingStation(station);
+        booking.setStartTime(range.start());
+        booking.setEndTime(range.end());
+        booking.setBookingStatus(BookingStatus.PENDING);
+        booking.setCreatedAt(now);
+        booking.setUpdatedAt(now);
 
-        // Détection des conflits
-        boolean conflict = bookingRepository.existsOverlap(
-                station.getId(),
-                range.start(),
-                range.end()
-        );
+        // Blocage de l'utilisateur consommé ; créneaux bloqués par un autre : conflit
+        slotHoldService.claim(userId, station.getId(), bookingDate, range.mask(),
+                request.holdToken());
 
-        if (conflict) {
-                logger.warn(
-                        "Booking conflict detected: stationId={}, start={}, end={}, slotsCount={}",
-                        station.getId(),
-                        range.start(),
-                        range.end(),
-                        request.slots().size()
-                );
+        // Une requête : lecture de la borne, insertion, masque d'occupation du jour
+        InsertedBooking inserted;
+        try {
+            inserted = bookingInsertRepository.insert(booking, price, bookingDate, range.mask())
+                    .orElseThrow(ChargingStationNotFoundException::new);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            logger.warn(
+                    "Booking conflict detected: stationId={}, start={}, end={}, slotsCount={}",
+                    station.getId(),
+                    range.start(),
+                    range.end(),
+                    request.slots().size()
+            );
 
-                throw new BookingConflictException();
+            throw new BookingConflictException();
         }
 
-        // Calcul du prix final
-        BigDecimal totalPrice = pricingService.computePrice(
-                station.getHourlyRate(),
-                range.slots()
-        );
+        booking.setId(inserted.id());
+        booking.setTotalPrice(inserted.totalPrice());
+
+        // Snapshots (utilisés pour l’historique)
+        booking.setStationNameSnapshot(inserted.stationName());
+        booking.setHourlyRateSnapshot(inserted.hourlyRate());
+        booking.setStationAddressSnapshot(inserted.stationAddress());
 
         logger.debug(
                 "Computed booking price: stationId={}, totalPrice={}",
                 station.getId(),
-                totalPrice
+                booking.getTotalPrice()
         );
 
-        // Création de la réservation
-        Booking booking = new Booking();
-        booking.setUser(user);
-        booking.setChargingStation(station);
-        booking.setStartTime(range.start());
-        booking.setEndTime(range.end());
-        booking.setTotalPrice(totalPrice);
-        booking.setBookingStatus(BookingStatus.PENDING);
-
-        // Snapshots (utilisés pour l’historique)
-        booking.setStationNameSnapshot(station.getName());
-        booking.setHourlyRateSnapshot(station.getHourlyRate());
-        booking.setStationAddressSnapshot(address.getFullAddress());
-
-        Booking saved = bookingRepository.save(booking);
+        // Clé d'idempotence : enregistrée avec la réservation (annulée avec elle)
+        if (idempotencyKey != null) {
+            idempotencyRepository.insert(userId, idempotencyKey, booking.getId(),
+                    BookingIdempotencyService.requestHash(request));
+        }
 
         logger.info(
                 "Booking created successfully: bookingId={}, userId={}, stationId={}, start={}, end={}",
-                saved.getId(),
-                user.getId(),
+                booking.getId(),
+                userId,
                 station.getId(),
-                saved.getStartTime(),
-                saved.getEndTime()
+                booking.getStartTime(),
+                booking.getEndTime()
         );
 
-        return saved;
+        publishChange(booking);
+
+        return booking;
+    }
+
+    /**
+     * Annulation d'une réservation par son auteur (en attente ou acceptée, pas encore terminée).
+     */
+    @Override
+    @Transactional
+    public Booking cancelBooking(Long bookingId, Long userId) {
+        Booking booking = getBookingForUser(bookingId, userId);
+
+        boolean active = booking.getBookingStatus() == BookingStatus.PENDING
+                || booking.getBookingStatus() == BookingStatus.ACCEPTED;
+        if (!active || !booking.getEndTime().isAfter(Instant.now())) {
+            logger.warn(
+                    "Booking cancellation refused: bookingId={}, status={}",
+                    bookingId,
+                    booking.getBookingStatus()
+            );
+            throw new ServiceException("Cette réservation ne peut plus être annulée");
+        }
+
+        booking.setBookingStatus(BookingStatus.CANCELLED);
+        if (booking.getChargingStation() != null) {
+            occupancyService.release(
+                    booking.getChargingStation().getId(),
+                    booking.getStartTime(),
+                    booking.getEndTime()
+            );
+        }
+
+        logger.info("Booking cancelled: bookingId={}, userId={}", bookingId, userId);
+
+        publishChange(booking);
+
+        return booking;
+    }
+
+    // Violation de la contrainte d'exclusion (SQLSTATE 23P01) : créneau déjà réservé
+    static boolean isOverlapViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql
+                    && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publishChange(Booking booking) {
+        if (booking.getChargingStation() == null) {
+            return;     // Borne supprimée : plus de vue à tenir à jour
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(
+                booking.getId(),
+                booking.getChargingStation().getId(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getBookingStatus()
+        ));
     }
 }
@@ -0,0 +1,17 @@
+package com.powerme.service.booking;
+
+import java.time.LocalDate;
+
+/**
+ * Événement publié (après commit) quand les créneaux bloqués d'une borne changent pour un jour :
+ * blocage créé, libéré, consommé par une réservation ou expiré.
+ *
+ * @param stationId id de la borne
+ * @param day       jour concerné
+ */
+public record SlotHoldChangedEvent(
+        Long stationId,
+        LocalDate day
+) {
+
+}
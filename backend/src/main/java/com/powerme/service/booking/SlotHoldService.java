@@ -0,0 +1,309 @@
+package com.powerme.service.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powerme.dto.SlotHoldDto;
+import com.powerme.dto.SlotHoldRequestDto;
+import com.powerme.exception.BookingConflictException;
+import com.powerme.exception.ChargingStationNotFoundException;
+import com.powerme.repository.ChargingStationRepository;
+import com.powerme.repository.SlotHoldRepository;
+import com.powerme.repository.SlotHoldRepository.DayHold;
+import com.powerme.repository.SlotHoldRepository.Hold;
+import com.powerme.repository.SlotHoldRepository.HeldDay;
+import com.powerme.service.cluster.ClusterTopologyChangedEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Blocage temporaire de créneaux pendant la confirmation d'une réservation (5 minutes).
+ *
+ * <p>Le blocage renvoie un jeton que la création de réservation consomme ; pendant sa durée,
+ * les créneaux sont indisponibles pour les autres utilisateurs (disponibilités et création de
+ * réservation). Un seul blocage par utilisateur : un nouveau remplace le précédent.</p>
+ *
+ * <p>Blocages persistés dans slot_hold (table UNLOGGED, partagée entre instances, contrainte
+ * d'exclusion par borne) ; les disponibilités lisent une vue mémoire par borne et par jour,
+ * relue après chaque changement (local ou diffusé par une autre instance) et au plus tard toutes
+ * les 10 secondes. Les blocages
+ * expirés sont purgés toutes les 30 secondes.</p>
+ */
+@Service
+public class SlotHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotHoldService.class);
+
+    static final Duration HOLD_TTL = Duration.ofMinutes(5);
+
+    private static final int MAX_VIEW_ENTRIES = 10_000;
+    private static final Duration VIEW_TTL = Duration.ofSeconds(10);
+
+    private record Key(Long stationId, LocalDate day) {}
+
+    // Blocages en cours par borne et par jour (expirés filtrés à la lecture)
+    private final Cache<Key, List<Hold>> holds = Caffeine.newBuilder()
+            .maximumSize(MAX_VIEW_ENTRIES)
+            .expireAfterWrite(VIEW_TTL)
+            .build();
+
+    private final SlotHoldRepository holdRepository;
+    private final ChargingStationRepository stationRepository;
+    private final SlotService slotService;
+    private final StationOccupancyService occupancyService;
+    private final BookingSerializer bookingSerializer;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SlotHoldService(
+            SlotHoldRepository holdRepository,
+            ChargingStationRepository stationRepository,
+            SlotService slotService,
+            StationOccupancyService occupancyService,
+            BookingSerializer bookingSerializer,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.holdRepository = holdRepository;
+        this.stationRepository = stationRepository;
+        this.slotService = slotService;
+        this.occupancyService = occupancyService;
+        this.bookingSerializer = bookingSerializer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Bloque les créneaux demandés (libres, ni réservés ni bloqués par un autre utilisateur).
+     *
+     * @throws BookingConflictException si un créneau n'est pas libre
+     */
+    public SlotHoldDto hold(SlotHoldRequestDto request, Long userId) {
+        SlotService.SlotRange range = slotService.computeRange(request.date(), request.slots());
+        if (!stationRepository.existsById(request.stationId())) {
+            throw new ChargingStationNotFoundException();
+        }
+
+        // Même file que les réservations de la borne
+        return bookingSerializer.submit(
+                request.stationId(),
+                request.date(),
+                range.mask(),
+                () -> transactionTemplate.execute(status -> insertHold(request, range, userId))
+        );
+    }
+
+    private SlotHoldDto insertHold(
+            SlotHoldRequestDto request,
+            SlotService.SlotRange range,
+            Long userId
+    ) {
+        // Dans la transaction du blocage (pas de seconde connexion)
+        long booked = occupancyService.prepareDay(request.stationId(), request.date());
+        if ((booked & range.mask()) != 0) {
+            throw new BookingConflictException();
+        }
+
+        publishChanges(holdRepository.deleteByUser(userId));
+        holdRepository.deleteExpired(request.stationId());
+
+        UUID token = UUID.randomUUID();
+        Instant expiresAt;
+        try {
+            expiresAt = holdRepository.insert(
+                    token,
+                    userId,
+                    request.stationId(),
+                    request.date(),
+                    range.mask(),
+                    range.start(),
+                    range.end(),
+                    HOLD_TTL.toSeconds()
+            );
+        } catch (DataIntegrityViolationException e) {
+            if (!BookingServiceImpl.isOverlapViolation(e)) {
+                throw e;
+            }
+            logger.debug("Slot hold conflict: stationId={}, start={}, end={}",
+                    request.stationId(), range.start(), range.end());
+            throw new BookingConflictException();
+        }
+        publishChanges(List.of(new HeldDay(request.stationId(), request.date())));
+
+        logger.info("Slots held: userId={}, stationId={}, start={}, end={}, expiresAt={}",
+                userId, request.stationId(), range.start(), range.end(), expiresAt);
+
+        return new SlotHoldDto(token, request.stationId(), request.date(), range.slots(),
+                expiresAt);
+    }
+
+    /**
+     * Libère le blocage de l'utilisateur (sans effet s'il a expiré ou n'existe pas).
+     */
+    public void release(UUID token, Long userId) {
+        transactionTemplate.executeWithoutResult(
+                status -> publishChanges(holdRepository.deleteByToken(token, userId))
+        );
+    }
+
+    /**
+     * À la création d'une réservation : consomme le blocage de l'utilisateur (jeton facultatif,
+     * ignoré s'il a expiré) puis vérifie qu'aucun autre utilisateur ne bloque ces créneaux.
+     *
+     * @throws BookingConflictException si un créneau est bloqué par un autre utilisateur
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void claim(Long userId, Long stationId, LocalDate day, long slots, UUID token) {
+        if (token != null) {
+            publishChanges(holdRepository.deleteByToken(token, userId));
+        }
+
+        long heldByOthers = holdRepository.findMaskHeldByOthers(stationId, day, userId);
+        if ((heldByOthers & slots) != 0) {
+            logger.debug("Booking blocked by slot hold: stationId={}, day={}", stationId, day);
+            throw new BookingConflictException();
+        }
+    }
+
+    /**
+     * Créneaux de la borne bloqués ce jour-là (tous utilisateurs confondus).
+     */
+    public long getHeldSlots(Long stationId, LocalDate day) {
+        List<Hold> current = holds.get(new Key(stationId, day),
+                key -> holdRepository.findActive(key.stationId(), key.day()));
+        return mask(current, Instant.now());
+    }
+
+    /**
+     * Créneaux bloqués ce jour-là pour chaque borne donnée (bornes absentes de la vue lues en
+     * une requête).
+     */
+    public Map<Long, Long> getHeldSlots(Collection<Long> stationIds, LocalDate day) {
+        Map<Key, List<Hold>> current = views(stationIds.stream()
+                .map(stationId -> new Key(stationId, day))
+                .toList());
+
+        Instant now = Instant.now();
+        Map<Long, Long> masks = new HashMap<>();
+        current.forEach((key, dayHolds) -> {
+            long mask = mask(dayHolds, now);
+            if (mask != 0L) {
+                masks.put(key.stationId(), mask);
+            }
+        });
+        return masks;
+    }
+
+    /**
+     * Créneaux bloqués de la borne pour chaque jour de [from, to] (jours absents de la vue lus
+     * en une requête).
+     */
+    public long[] getHeldSlots(Long stationId, LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        List<Key> keys = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            keys.add(new Key(stationId, from.plusDays(i)));
+        }
+        Map<Key, List<Hold>> current = views(keys);
+
+        Instant now = Instant.now();
+        long[] masks = new long[days];
+        for (int i = 0; i < days; i++) {
+            masks[i] = mask(current.getOrDefault(keys.get(i), List.of()), now);
+        }
+        return masks;
+    }
+
+    // Vue des clés données, les absentes chargées ensemble
+    private Map<Key, List<Hold>> views(Collection<Key> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        return holds.getAll(keys, missing -> {
+            Set<Long> stationIds = new HashSet<>();
+            LocalDate from = null;
+            LocalDate to = null;
+            Map<Key, List<Hold>> loaded = new HashMap<>();
+            for (Key key : missing) {
+                stationIds.add(key.stationId());
+                from = from == null || key.day().isBefore(from) ? key.day() : from;
+                to = to == null || key.day().isAfter(to) ? key.day() : to;
+                loaded.put(key, new ArrayList<>());
+            }
+            for (DayHold dayHold : holdRepository.findActive(stationIds, from, to)) {
+                List<Hold> dayHolds = loaded.get(new Key(dayHold.stationId(), dayHold.day()));
+                if (dayHolds != null) {
+                    dayHolds.add(dayHold.hold());
+                }
+            }
+            return loaded;
+        });
+    }
+
+    private static long mask(List<Hold> dayHolds, Instant now) {
+        long mask = 0L;
+        for (Hold hold : dayHolds) {
+            if (hold.expiresAt().isAfter(now)) {
+                mask |= hold.mask();
+            }
+        }
+        return mask;
+    }
+
+    // Purge toutes les 30 secondes : libère les créneaux des blocages expirés
+    @Scheduled(fixedDelay = 30, initialDelay = 30, timeUnit = TimeUnit.SECONDS)
+    void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<HeldDay> expired = holdRepository.deleteExpired();
+            if (!expired.isEmpty()) {
+                logger.debug("Expired slot holds purged: {}", expired.size());
+            }
+            publishChanges(expired);
+        });
+    }
+
+    // Changements d'autres instances possiblement perdus : tout est relu
+    @EventListener
+    public void onTopologyChanged(ClusterTopologyChangedEvent event) {
+        holds.invalidateAll();
+    }
+
+    // Avant les écouteurs qui relisent les disponibilités
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHoldChanged(SlotHoldChangedEvent event) {
+        holds.invalidate(new Key(event.stationId(), event.day()));
+    }
+
+    // Publié dans la transaction : les écouteurs agissent après commit
+    private void publishChanges(Collection<HeldDay> days) {
+        for (HeldDay day : new HashSet<>(days)) {
+            eventPublisher.publishEvent(new SlotHoldChangedEvent(day.stationId(), day.day()));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.powerme.service.booking;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Occupation d'une borne sur une journée sous forme de masque de bits : bit i = créneau i
+ * (de i x 30 min à (i + 1) x 30 min, heure locale). Les 48 créneaux tiennent dans un long.
+ *
+ * <p>Réservations, horaires d'ouverture et indisponibilités sont convertis une fois en masques ;
+ * les créneaux libres se déduisent ensuite par opérations de bits au lieu de comparer chaque
+ * créneau à chaque réservation.</p>
+ */
+public final class SlotMask {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    /**
+     * Tous les créneaux de la journée.
+     */
+    public static final long FULL_DAY = (1L << SLOTS_PER_DAY) - 1;
+
+    // Libellés "HH:mm" des bornes de créneaux (indice 48 = minuit du lendemain)
+    private static final String[] LABELS = new String[SLOTS_PER_DAY + 1];
+
+    static {
+        for (int i = 0; i <= SLOTS_PER_DAY; i++) {
+            LABELS[i] = LocalTime.MIDNIGHT.plusMinutes((long) i * SLOT_MINUTES).toString();
+        }
+    }
+
+    private SlotMask() {
+    }
+
+    /**
+     * Créneaux [from, to[ (indices bornés à la journée).
+     */
+    public static long range(int from, int to) {
+        int start = Math.max(from, 0);
+        int end = Math.min(to, SLOTS_PER_DAY);
+        if (start >= end) {
+            return 0L;
+        }
+        return (FULL_DAY >>> (SLOTS_PER_DAY - (end - start))) << start;
+    }
+
+    /**
+     * Créneaux entièrement compris dans les horaires d'ouverture [from, to[. Sans horaires :
+     * toute la journée.
+     */
+    public static long openingHours(LocalTime from, LocalTime to) {
+        if (from == null || to == null) {
+            return FULL_DAY;
+        }
+        int first = Math.ceilDiv(from.toSecondOfDay(), SLOT_MINUTES * 60);
+        int last = to.toSecondOfDay() / (SLOT_MINUTES * 60);
+        return range(first, last);
+    }
+
+    /**
+     * Créneaux de la journée date chevauchés par la période [start, end[ (ex. une réservation).
+     */
+    public static long occupied(LocalDate date, Instant start, Instant end, ZoneId zone) {
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime localStart = LocalDateTime.ofInstant(start, zone);
+        LocalDateTime localEnd = LocalDateTime.ofInstant(end, zone);
+
+        long startMinutes = Duration.between(dayStart, localStart).toMinutes();
+        long endMinutes = Duration.between(dayStart, localEnd).toMinutes();
+        if (endMinutes <= 0 || startMinutes >= SLOTS_PER_DAY * SLOT_MINUTES) {
+            return 0L;
+        }
+
+        int first = (int) Math.floorDiv(Math.max(startMinutes, 0), SLOT_MINUTES);
+        int last = (int) Math.ceilDiv(Math.min(endMinutes, SLOTS_PER_DAY * SLOT_MINUTES),
+                SLOT_MINUTES);
+        return range(first, last);
+    }
+
+    public static boolean contains(long mask, int slot) {
+        return (mask >>> slot & 1L) != 0;
+    }
+
+    /**
+     * Vrai si le masque est non vide et d'un seul tenant (créneaux consécutifs).
+     */
+    public static boolean isContiguous(long mask) {
+        if (mask == 0) {
+            return false;
+        }
+        long shifted = mask >>> Long.numberOfTrailingZeros(mask);
+        return (shifted & (shifted + 1)) == 0;
+    }
+
+    /**
+     * Premier créneau d'une suite de length créneaux consécutifs du masque, -1 si aucune.
+     */
+    public static int firstRun(long mask, int length) {
+        // Bit i de runs = créneaux i à i + length - 1 tous présents
+        long runs = mask;
+        for (int i = 1; i < length && runs != 0; i++) {
+            runs &= mask >>> i;
+        }
+        return runs == 0 ? -1 : Long.numberOfTrailingZeros(runs);
+    }
+
+    public static int first(long mask) {
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Indice suivant le dernier créneau du masque.
+     */
+    public static int end(long mask) {
+        return Long.SIZE - Long.numberOfLeadingZeros(mask);
+    }
+
+    public static int count(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    public static List<Integer> toList(long mask) {
+        List<Integer> slots = new ArrayList<>(Long.bitCount(mask));
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            slots.add(Long.numberOfTrailingZeros(rest));
+        }
+        return slots;
+    }
+
+    /**
+     * Encodage par plages de la journée : suite de "état + nombre de créneaux", avec C = fermé,
+     * F = libre, B = réservé. Ex. "C16F4B2F18C8" (toujours 48 créneaux au total).
+     */
+    public static String encodeRuns(long open, long occupied) {
+        StringBuilder runs = new StringBuilder();
+        char current = 0;
+        int length = 0;
+        for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+            char state = !contains(open, slot) ? 'C' : contains(occupied, slot) ? 'B' : 'F';
+            if (state != current && length > 0) {
+                runs.append(current).append(length);
+                length = 0;
+            }
+            current = state;
+            length++;
+        }
+        return runs.append(current).append(length).toString();
+    }
+
+    /**
+     * Heure de début ("HH:mm") du créneau ; label(48) = "00:00" (fin de journée).
+     */
+    public static String label(int slot) {
+        return LABELS[slot];
+    }
+}
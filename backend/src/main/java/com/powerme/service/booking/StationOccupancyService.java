@@ -0,0 +1,209 @@
+package com.powerme.service.booking;
+
+import com.powerme.entity.Booking;
+import com.powerme.repository.BookingRepository;
+import com.powerme.repository.StationDayOccupancyRepository;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Occupation journalière des bornes ({@link SlotMask}) persistée dans station_day_occupancy.
+ *
+ * <p>La ligne d'une journée est créée à la première lecture ou réservation, à partir des
+ * réservations actives déjà en base ; elle est ensuite tenue à jour dans la transaction de
+ * chaque réservation (même requête que l'insertion) et de chaque changement de statut. Les
+ * suppressions de borne (seed compris) effacent les lignes en cascade.</p>
+ */
+@Service
+public class StationOccupancyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationOccupancyService.class);
+
+    private final StationDayOccupancyRepository occupancyRepository;
+    private final BookingRepository bookingRepository;
+
+    public StationOccupancyService(
+            StationDayOccupancyRepository occupancyRepository,
+            BookingRepository bookingRepository
+    ) {
+        this.occupancyRepository = occupancyRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Créneaux réservés de la borne ce jour-là : une lecture par clé primaire. Transaction
+     * propre : la création éventuelle de la ligne doit pouvoir écrire depuis une lecture seule.
+     *
+     * <p>Comme les autres getOccupiedSlots, à appeler hors transaction : depuis une transaction,
+     * l'appelant garderait sa connexion en attendant une seconde du pool. Dans une transaction
+     * d'écriture, utiliser {@link #prepareDay}.</p>
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long getOccupiedSlots(Long stationId, LocalDate day) {
+        return occupancyRepository.findMask(stationId, day)
+                .orElseGet(() -> materialize(stationId, day, day).get(day));
+    }
+
+    /**
+     * Créneaux réservés de la borne ce jour-là si la ligne existe déjà (lecture seule, sans la
+     * créer : la borne peut ne pas exister).
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findOccupiedSlots(Long stationId, LocalDate day) {
+        return occupancyRepository.findMask(stationId, day);
+    }
+
+    /**
+     * Créneaux réservés de la borne pour chaque jour de [from, to] (indice 0 = from) : une
+     * lecture des lignes existantes, une seule requête de réservations pour les jours manquants.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long[] getOccupiedSlots(Long stationId, LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> masks = occupancyRepository.findMasks(stationId, from, to);
+
+        int dayCount = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (masks.size() < dayCount) {
+            // Plage couvrant tous les jours manquants
+            LocalDate firstMissing = null;
+            LocalDate lastMissing = null;
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                if (!masks.containsKey(day)) {
+                    firstMissing = firstMissing == null ? day : firstMissing;
+                    lastMissing = day;
+                }
+            }
+            Map<LocalDate, Long> materialized = materialize(stationId, firstMissing, lastMissing);
+            materialized.forEach(masks::putIfAbsent);
+        }
+
+        long[] result = new long[dayCount];
+        for (int i = 0; i < dayCount; i++) {
+            result[i] = masks.get(from.plusDays(i));
+        }
+        return result;
+    }
+
+    /**
+     * Créneaux réservés ce jour-là de chacune des bornes (clé = id de la borne) : une lecture
+     * des lignes existantes, une seule requête de réservations pour les bornes manquantes.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Map<Long, Long> getOccupiedSlots(Collection<Long> stationIds, LocalDate day) {
+        if (stationIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> masks = occupancyRepository.findMasksForStations(stationIds, day);
+
+        List<Long> missingIds = stationIds.stream()
+                .filter(id -> !masks.containsKey(id))
+                .toList();
+        if (missingIds.isEmpty()) {
+            return masks;
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        List<Booking> bookings = bookingRepository.findActiveBookingsForStations(
+                missingIds,
+                day.atStartOfDay(zone).toInstant(),
+                day.plusDays(1).atStartOfDay(zone).toInstant()
+        );
+
+        Map<Long, Long> computed = new HashMap<>();
+        for (Long stationId : missingIds) {
+            computed.put(stationId, 0L);
+        }
+        for (Booking booking : bookings) {
+            computed.merge(
+                    booking.getChargingStation().getId(),
+                    SlotMask.occupied(day, booking.getStartTime(), booking.getEndTime(), zone),
+                    (a, b) -> a | b
+            );
+        }
+        computed.forEach((stationId, mask) ->
+                occupancyRepository.insertIfAbsent(stationId, day, mask));
+
+        logger.debug("Occupancy materialized: stations={}, day={}, bookings={}",
+                missingIds.size(), day, bookings.size());
+
+        // Relecture : une autre transaction a pu créer certaines lignes entre-temps
+        computed.putAll(occupancyRepository.findMasksForStations(missingIds, day));
+        masks.putAll(computed);
+        return masks;
+    }
+
+    /**
+     * Garantit que la ligne du jour existe avant une écriture dans la transaction courante
+     * (blocage ou annulation ; une réservation la crée dans sa requête d'insertion, cf.
+     * BookingInsertRepository) et renvoie les créneaux réservés ce jour-là. Une
+     * lecture concurrente qui créerait la ligne sans voir l'écriture non commitée attend cette
+     * transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long prepareDay(Long stationId, LocalDate day) {
+        return occupancyRepository.findMask(stationId, day)
+                .orElseGet(() -> materialize(stationId, day, day).get(day));
+    }
+
+    /**
+     * Libère les créneaux d'une réservation qui n'est plus active (sur chaque jour couvert).
+     * Ligne du jour créée au besoin dans la transaction courante : sinon une lecture concurrente
+     * pourrait la créer depuis l'état non commité (réservation encore active) et garder ces
+     * créneaux réservés.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long stationId, Instant start, Instant end) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate last = LocalDate.ofInstant(end.minusNanos(1), zone);
+        for (LocalDate day = LocalDate.ofInstant(start, zone);
+                !day.isAfter(last);
+                day = day.plusDays(1)) {
+            prepareDay(stationId, day);
+            occupancyRepository.release(
+                    stationId, day, SlotMask.occupied(day, start, end, zone)
+            );
+        }
+    }
+
+    // Calcule les masques des jours [from, to] depuis les réservations (une requête) et crée
+    // les lignes absentes (une réservation concurrente attend la fin de ces INSERT puis ajoute
+    // ses créneaux à la ligne créée)
+    private Map<LocalDate, Long> materialize(Long stationId, LocalDate from, LocalDate to) {
+        ZoneId zone = ZoneId.systemDefault();
+        List<Booking> bookings = bookingRepository.findActiveBookingsForDay(
+                stationId,
+                from.atStartOfDay(zone).toInstant(),
+                to.plusDays(1).atStartOfDay(zone).toInstant()
+        );
+
+        Map<LocalDate, Long> masks = new HashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long mask = 0L;
+            for (Booking booking : bookings) {
+                mask |= SlotMask.occupied(
+                        day, booking.getStartTime(), booking.getEndTime(), zone
+                );
+            }
+            occupancyRepository.insertIfAbsent(stationId, day, mask);
+            masks.put(day, mask);
+        }
+
+        logger.debug("Occupancy materialized: stationId={}, from={}, to={}, bookings={}",
+                stationId, from, to, bookings.size());
+
+        // Relecture : une autre transaction a pu créer certaines lignes entre-temps
+        masks.putAll(occupancyRepository.findMasks(stationId, from, to));
+        return masks;
+    }
+}
@@ -0,0 +1,77 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.exception.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination des recherches par zone, rayon et itinéraire : position (clé de tri, id)
+ * du dernier lieu renvoyé. Exposé au client sous forme opaque (Base64 URL).
+ *
+ * @param distance clé de tri : distance au centre en degrés pour une zone (cf.
+ *                 {@link #distance}), en mètres pour un rayon ; position le long du tracé
+ *                 (0 à 1) pour un itinéraire
+ * @param id       id du dernier lieu, départage les lieux à égale distance
+ */
+public record BoundsCursor(double distance, long id) {
+
+    /**
+     * Position avant le premier lieu (première page).
+     */
+    public static final BoundsCursor START = new BoundsCursor(-1.0, 0L);
+
+    /**
+     * Vrai si le lieu (distance, id) se trouve après ce curseur dans l'ordre de tri.
+     */
+    public boolean isBefore(double otherDistance, long otherId) {
+        int cmp = Double.compare(distance, otherDistance);
+        return cmp < 0 || (cmp == 0 && id < otherId);
+    }
+
+    /**
+     * Distance plane (en degrés) d'un lieu au centre de la zone : celle de l'opérateur &lt;-&gt;
+     * de PostGIS sur la colonne geometry (ChargingLocationRepository.MAP_POINTS_IN_BOUNDS_QUERY),
+     * sans repli à l'antiméridien. Un curseur reste ainsi valable quel que soit le chemin (index
+     * en mémoire ou PostGIS) de la page suivante.
+     */
+    public static double distance(
+            double latitude,
+            double longitude,
+            double centerLat,
+            double centerLon
+    ) {
+        double dLon = longitude - centerLon;
+        double dLat = latitude - centerLat;
+        return Math.sqrt(dLon * dLon + dLat * dLat);
+    }
+
+    public String encode() {
+        String raw = Double.toString(distance) + ":" + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client ({@link #START} si absent).
+     *
+     * @throws ValidationException si le curseur est illisible
+     */
+    public static BoundsCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double distance = Double.parseDouble(raw.substring(0, separator));
+            long id = Long.parseLong(raw.substring(separator + 1));
+            if (distance < 0 || Double.isNaN(distance) || Double.isInfinite(distance)) {
+                throw new ValidationException("cursor", "curseur invalide");
+            }
+            return new BoundsCursor(distance, id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("cursor", "curseur invalide");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.dto.ChargingLocationChangesDto;
+import com.powerme.exception.ValidationException;
+import com.powerme.repository.CatalogChangeRepository;
+import com.powerme.repository.CatalogChangeRepository.Change;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Version du catalogue de la carte (lieux + bornes). Incrémentée par la base à chaque
+ * modification d'un lieu ou d'une borne (table catalog_change).
+ *
+ * <p>Sert d'ETag fort aux réponses de la carte : tant que la version ne change pas, les mêmes
+ * paramètres donnent la même réponse.</p>
+ */
+@Service
+@Transactional(readOnly = true)
+public class CatalogVersionService {
+
+    private final CatalogChangeRepository catalogChangeRepository;
+
+    public CatalogVersionService(CatalogChangeRepository catalogChangeRepository) {
+        this.catalogChangeRepository = catalogChangeRepository;
+    }
+
+    public long getCurrentVersion() {
+        return catalogChangeRepository.findCurrentVersion();
+    }
+
+    /**
+     * ETag (sans guillemets) des données de la carte à la version courante.
+     */
+    public String getCurrentEtag() {
+        return "v" + getCurrentVersion();
+    }
+
+    /**
+     * Lieux créés, modifiés et supprimés depuis la version since.
+     */
+    public ChargingLocationChangesDto getChangesSince(long since) {
+        if (since < 0) {
+            throw new ValidationException("since", "doit être positif");
+        }
+
+        // Version lue avant les modifications : au pire un changement est renvoyé deux fois
+        long version = catalogChangeRepository.findCurrentVersion();
+        List<Change> changes = catalogChangeRepository.findChangesSince(since);
+
+        List<Long> inserted = new ArrayList<>();
+        List<Long> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.deleted()) {
+                // Créé puis supprimé depuis : le client ne l'a jamais vu
+                if (change.createdVersion() <= since) {
+                    deleted.add(change.locationId());
+                }
+            } else if (change.createdVersion() > since) {
+                inserted.add(change.locationId());
+            } else {
+                updated.add(change.locationId());
+            }
+        }
+
+        return new ChargingLocationChangesDto(version, inserted, updated, deleted);
+    }
+}
@@ -0,0 +1,26 @@
+package com.powerme.service.charginglocation;
+
+/**
+ * Événement publié après la création, la modification ou la suppression d'un lieu de recharge.
+ *
+ * <p>Les index en mémoire (clusters, etc.) l'écoutent après commit pour se mettre à jour sans
+ * relire toute la table. Pour une suppression, seuls l'id et le type sont renseignés.</p>
+ */
+public record ChargingLocationChangedEvent(
+        Long locationId,
+        ChangeType type,
+        String name,
+        double latitude,
+        double longitude
+) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ChargingLocationChangedEvent deleted(Long locationId) {
+        return new ChargingLocationChangedEvent(locationId, ChangeType.DELETED, null, 0.0, 0.0);
+    }
+}
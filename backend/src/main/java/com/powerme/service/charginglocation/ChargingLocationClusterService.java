@@ -0,0 +1,77 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.dto.ChargingLocationClusterDto;
+import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.exception.ValidationException;
+import com.powerme.repository.ChargingLocationRepository;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Clustering des lieux de recharge selon le zoom de la carte.
+ *
+ * <p>S'appuie sur une {@link LocationClusterPyramid} chargée au démarrage puis tenue à jour à
+ * chaque création / modification / suppression de lieu (après commit).</p>
+ */
+@Service
+public class ChargingLocationClusterService {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(ChargingLocationClusterService.class);
+
+    private static final int MAX_ZOOM = 22;
+
+    private final ChargingLocationRepository locationRepository;
+    private final LocationClusterPyramid pyramid = new LocationClusterPyramid();
+
+    public ChargingLocationClusterService(ChargingLocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ChargingLocationMapDto> locations = locationRepository.findAllMapPoints();
+        pyramid.rebuild(locations);
+
+        logger.info("Cluster pyramid built with {} charging locations", locations.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLocationChanged(ChargingLocationChangedEvent event) {
+        if (event.type() == ChargingLocationChangedEvent.ChangeType.DELETED) {
+            pyramid.remove(event.locationId());
+        } else {
+            pyramid.upsert(new ChargingLocationMapDto(
+                    event.locationId(),
+                    event.name(),
+                    event.latitude(),
+                    event.longitude()
+            ));
+        }
+    }
+
+    public List<ChargingLocationClusterDto> getClusters(
+            double north,
+            double south,
+            double east,
+            double west,
+            int zoom
+    ) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            throw new ValidationException("zoom", "doit être compris entre 0 et " + MAX_ZOOM);
+        }
+
+        List<ChargingLocationClusterDto> clusters =
+                pyramid.query(north, south, east, west, zoom);
+
+        logger.debug("Found {} clusters at zoom {}", clusters.size(), zoom);
+
+        return clusters;
+    }
+}
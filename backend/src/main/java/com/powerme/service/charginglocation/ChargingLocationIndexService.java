@@ -0,0 +1,95 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.repository.ChargingLocationRepository;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sert les recherches "lieux dans une zone" depuis un index spatial en mémoire
+ * ({@link LocationSpatialIndex}) au lieu de PostGIS.
+ *
+ * <p>L'index est construit au démarrage, mis à jour après chaque commit touchant un lieu, et
+ * reconstruit périodiquement pour replier les modifications et rattraper les écritures faites hors
+ * application (seed, scripts SQL). Tant qu'il n'est pas prêt, l'appelant doit interroger la
+ * base.</p>
+ */
+@Service
+public class ChargingLocationIndexService {
+
+    private static final Logger logger =
+            LoggerFactory.getLogger(ChargingLocationIndexService.class);
+
+    private final ChargingLocationRepository locationRepository;
+    private final LocationSpatialIndex index = new LocationSpatialIndex();
+
+    private volatile boolean ready;
+
+    public ChargingLocationIndexService(ChargingLocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Reconstruction complète toutes les 10 minutes
+    @Scheduled(fixedDelay = 10, initialDelay = 10, timeUnit = TimeUnit.MINUTES)
+    void scheduledRebuild() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+
+        long startSequence = index.beginRebuild();
+        List<ChargingLocationMapDto> locations = locationRepository.findAllMapPoints();
+        index.rebuild(locations, startSequence);
+        ready = true;
+
+        logger.info(
+                "Spatial index rebuilt with {} charging locations in {} ms",
+                locations.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLocationChanged(ChargingLocationChangedEvent event) {
+        if (event.type() == ChargingLocationChangedEvent.ChangeType.DELETED) {
+            index.remove(event.locationId());
+        } else {
+            index.upsert(new ChargingLocationMapDto(
+                    event.locationId(),
+                    event.name(),
+                    event.latitude(),
+                    event.longitude()
+            ));
+        }
+    }
+
+    /**
+     * Lieux dans la zone, ou vide si l'index n'est pas encore chargé (repli sur PostGIS).
+     */
+    public Optional<List<ChargingLocationMapDto>> findInBounds(
+            double north,
+            double south,
+            double east,
+            double west
+    ) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(index.query(north, south, east, west));
+    }
+}
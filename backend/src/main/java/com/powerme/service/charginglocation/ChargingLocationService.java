@@ -1,19 +1,84 @@
 package com.powerme.service.charginglocation;
 
+import com.powerme.dto.ChargingLocationCorridorPageDto;
 import com.powerme.dto.ChargingLocationCreateUpdateDto;
+import com.powerme.dto.ChargingLocationFilterDto;
+import com.powerme.dto.ChargingLocationMapPageDto;
+import com.powerme.dto.ChargingLocationNearbyDto;
+import com.powerme.dto.ChargingLocationNearbyPageDto;
+import com.powerme.dto.ChargingLocationSearchDto;
 import com.powerme.entity.ChargingLocation;
 import com.powerme.service.security.UserPrincipal;
 import java.util.List;
 
 public interface ChargingLocationService {
 
-    List<ChargingLocation> getLocationsInBounds(
+    /**
+     * Lieux dans la zone correspondant aux filtres, triés par distance au centre et paginés
+     * (limit plafonné côté serveur, cursor = valeur nextCursor de la page précédente).
+     */
+    ChargingLocationMapPageDto getLocationsInBounds(
             double north,
             double south,
             double east,
-            double west
+            double west,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
     );
 
+    /**
+     * Comme {@link #getLocationsInBounds}, avec en plus le nombre de lieux de la zone par valeur
+     * de filtre (facettes), en un seul appel.
+     */
+    ChargingLocationSearchDto searchInBounds(
+            double north,
+            double south,
+            double east,
+            double west,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
+    );
+
+    /**
+     * Les k lieux les plus proches de la position, avec leur distance en mètres.
+     */
+    List<ChargingLocationNearbyDto> getNearest(
+            double lat,
+            double lon,
+            ChargingLocationFilterDto filter,
+            Integer k
+    );
+
+    /**
+     * Lieux à moins de radiusMeters de la position, les plus proches d'abord, paginés comme
+     * {@link #getLocationsInBounds} (limit plafonné côté serveur, cursor = valeur nextCursor de
+     * la page précédente).
+     */
+    ChargingLocationNearbyPageDto getWithinRadius(
+            double lat,
+            double lon,
+            double radiusMeters,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
+    );
+
+    /**
+     * Lieux à moins de widthMeters de l'itinéraire (polyligne encodée), dans l'ordre du parcours,
+     * paginés comme {@link #getLocationsInBounds}.
+     */
+    ChargingLocationCorridorPageDto getAlongRoute(
+            String polyline,
+            double widthMeters,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
+    );
+
+    byte[] getTile(int z, int x, int y);
+
     ChargingLocation getById(Long id);
 
     ChargingLocation getByIdWithStations(Long id);
@@ -1,18 +1,43 @@
 package com.powerme.service.charginglocation;
 
+import com.powerme.dto.ChargingLocationCorridorDto;
+import com.powerme.dto.ChargingLocationCorridorPageDto;
 import com.powerme.dto.ChargingLocationCreateUpdateDto;
+import com.powerme.dto.ChargingLocationFacetsDto;
+import com.powerme.dto.ChargingLocationFilterDto;
+import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.dto.ChargingLocationMapPageDto;
+import com.powerme.dto.ChargingLocationNearbyDto;
+import com.powerme.dto.ChargingLocationNearbyPageDto;
+import com.powerme.dto.ChargingLocationSearchDto;
 import com.powerme.entity.Address;
 import com.powerme.entity.ChargingLocation;
 import com.powerme.entity.User;
+import com.powerme.enums.ChargingPower;
+import com.powerme.enums.SocketType;
 import com.powerme.exception.ChargingLocationNotFoundException;
+import com.powerme.exception.ValidationException;
 import com.powerme.repository.AddressRepository;
 import com.powerme.repository.ChargingLocationRepository;
+import com.powerme.repository.ChargingLocationRepository.FacetCount;
+import com.powerme.repository.ChargingLocationRepository.MapPointDistance;
+import com.powerme.repository.ChargingLocationTileRepository;
 import com.powerme.repository.UserRepository;
 import com.powerme.service.security.UserPrincipal;
+import com.powerme.utils.PolylineDecoder;
+import com.powerme.utils.PolylineDecoder.LatLon;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,43 +48,280 @@ public class ChargingLocationServiceImpl implements ChargingLocationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChargingLocationServiceImpl.class);
 
+    private static final int MAX_TILE_ZOOM = 22;
+
+    // Nombre de lieux par page des recherches par zone, rayon et itinéraire (défaut / maximum)
+    private static final int DEFAULT_BOUNDS_LIMIT = 200;
+    private static final int MAX_BOUNDS_LIMIT = 500;
+
+    // Recherches autour d'une position : nombre de voisins (défaut / maximum), rayon maximum
+    private static final int DEFAULT_NEAREST_K = 10;
+    private static final int MAX_NEAREST_K = 100;
+    private static final double MAX_RADIUS_METERS = 50_000;
+
+    // Recherche le long d'un itinéraire : largeur max du couloir, nombre max de points du tracé
+    private static final double MAX_CORRIDOR_WIDTH_METERS = 10_000;
+    private static final int MAX_ROUTE_POINTS = 5_000;
+
+    // Nom de la facette "type de prise" renvoyé par countFacetsInBounds
+    private static final String FACET_SOCKET_TYPE = "SOCKET_TYPE";
+
     private final UserRepository userRepository;
     private final ChargingLocationRepository locationRepository;
     private final AddressRepository addressRepository;
+    private final ChargingLocationTileRepository tileRepository;
+    private final ChargingLocationIndexService indexService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ChargingLocationServiceImpl(
             UserRepository userRepository,
             ChargingLocationRepository locationRepository,
-            AddressRepository addressRepository
+            AddressRepository addressRepository,
+            ChargingLocationTileRepository tileRepository,
+            ChargingLocationIndexService indexService,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.userRepository = userRepository;
         this.locationRepository = locationRepository;
         this.addressRepository = addressRepository;
+        this.tileRepository = tileRepository;
+        this.indexService = indexService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public ChargingLocationMapPageDto getLocationsInBounds(
+            double north,
+            double south,
+            double east,
+            double west,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
+    ) {
+        logger.debug("Getting locations in bounds: north={}, south={}, east={}, west={}, "
+                + "filter={}", north, south, east, west, filter);
+
+        filter.validate();
+        int pageSize = pageSize(limit);
+        BoundsCursor after = BoundsCursor.decode(cursor);
+
+        // Centre de la zone (gère l'antiméridien quand west > east)
+        double centerLat = (north + south) / 2;
+        double centerLon = west <= east ? (west + east) / 2 : (west + east + 360) / 2;
+        if (centerLon > 180) {
+            centerLon -= 360;
+        }
+
+        // Index en mémoire si chargé (points seuls : pas utilisable avec des filtres)
+        Optional<List<ChargingLocationMapDto>> indexed = filter.isEmpty()
+                ? indexService.findInBounds(north, south, east, west)
+                : Optional.empty();
+        List<MapPointDistance> points;
+        if (indexed.isPresent()) {
+            points = sortByDistance(indexed.get(), centerLat, centerLon, after, pageSize + 1);
+        } else {
+            // PostGIS : recherche filtrée, ou index en cours de chargement
+            points = locationRepository.findMapPointsInBounds(
+                    north, south, east, west,
+                    centerLat, centerLon,
+                    !filter.isEmpty(), filter.socketTypeNames(), filter.powerNames(),
+                    filter.maxHourlyRate(),
+                    after.distance(), after.id(),
+                    pageSize + 1
+            );
+        }
+
+        // Une ligne de plus que demandé : indique s'il reste une page
+        String nextCursor = null;
+        if (points.size() > pageSize) {
+            points = points.subList(0, pageSize);
+            MapPointDistance last = points.getLast();
+            nextCursor = new BoundsCursor(last.distance(), last.id()).encode();
+        }
+
+        logger.debug("Found {} charging locations (in-memory index: {})", points.size(),
+                indexed.isPresent());
+
+        return new ChargingLocationMapPageDto(
+                points.stream().map(MapPointDistance::toMapDto).toList(),
+                nextCursor
+        );
     }
 
     @Override
-    public List<ChargingLocation> getLocationsInBounds(
+    public ChargingLocationSearchDto searchInBounds(
             double north,
             double south,
             double east,
-            double west
+            double west,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
+    ) {
+        ChargingLocationMapPageDto page =
+                getLocationsInBounds(north, south, east, west, filter, limit, cursor);
+
+        List<FacetCount> counts = locationRepository.countFacetsInBounds(
+                north, south, east, west,
+                filter.socketTypeNames(), filter.powerNames(), filter.maxHourlyRate()
+        );
+
+        // Toutes les valeurs présentes, à 0 par défaut
+        Map<SocketType, Long> socketTypes = new EnumMap<>(SocketType.class);
+        for (SocketType type : SocketType.values()) {
+            socketTypes.put(type, 0L);
+        }
+        Map<ChargingPower, Long> powers = new EnumMap<>(ChargingPower.class);
+        for (ChargingPower power : ChargingPower.values()) {
+            powers.put(power, 0L);
+        }
+        for (FacetCount count : counts) {
+            if (FACET_SOCKET_TYPE.equals(count.facet())) {
+                socketTypes.put(SocketType.valueOf(count.value()), count.count());
+            } else {
+                powers.put(ChargingPower.valueOf(count.value()), count.count());
+            }
+        }
+
+        return new ChargingLocationSearchDto(
+                page.items(),
+                page.nextCursor(),
+                new ChargingLocationFacetsDto(socketTypes, powers)
+        );
+    }
+
+    @Override
+    public List<ChargingLocationNearbyDto> getNearest(
+            double lat,
+            double lon,
+            ChargingLocationFilterDto filter,
+            Integer k
+    ) {
+        validatePosition(lat, lon);
+        filter.validate();
+        int count = k != null ? k : DEFAULT_NEAREST_K;
+        if (count < 1 || count > MAX_NEAREST_K) {
+            throw new ValidationException("k", "doit être compris entre 1 et " + MAX_NEAREST_K);
+        }
+
+        return locationRepository.findNearest(
+                lat, lon,
+                !filter.isEmpty(), filter.socketTypeNames(), filter.powerNames(),
+                filter.maxHourlyRate(),
+                count
+        );
+    }
+
+    @Override
+    public ChargingLocationNearbyPageDto getWithinRadius(
+            double lat,
+            double lon,
+            double radiusMeters,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
     ) {
-        logger.debug("Getting locations in bounds: north={}, south={}, east={}, west={}", north,
-                south, east, west);
+        validatePosition(lat, lon);
+        filter.validate();
+        if (!(radiusMeters > 0) || radiusMeters > MAX_RADIUS_METERS) {
+            throw new ValidationException("radius", "doit être compris entre 0 et "
+                    + (int) MAX_RADIUS_METERS + " mètres");
+        }
+        int pageSize = pageSize(limit);
+        BoundsCursor after = BoundsCursor.decode(cursor);
+
+        List<ChargingLocationNearbyDto> locations = locationRepository.findWithinRadius(
+                lat, lon, radiusMeters,
+                !filter.isEmpty(), filter.socketTypeNames(), filter.powerNames(),
+                filter.maxHourlyRate(),
+                after.distance(), after.id(),
+                pageSize + 1
+        );
+
+        // Une ligne de plus que demandé : indique s'il reste une page
+        String nextCursor = null;
+        if (locations.size() > pageSize) {
+            locations = locations.subList(0, pageSize);
+            ChargingLocationNearbyDto last = locations.getLast();
+            nextCursor = new BoundsCursor(last.distanceMeters(), last.id()).encode();
+        }
 
-        List<Long> ids = locationRepository.findIdsInBounds(
-                north, south, east, west
+        return new ChargingLocationNearbyPageDto(locations, nextCursor);
+    }
+
+    @Override
+    public ChargingLocationCorridorPageDto getAlongRoute(
+            String polyline,
+            double widthMeters,
+            ChargingLocationFilterDto filter,
+            Integer limit,
+            String cursor
+    ) {
+        filter.validate();
+        if (!(widthMeters > 0) || widthMeters > MAX_CORRIDOR_WIDTH_METERS) {
+            throw new ValidationException("width", "doit être compris entre 0 et "
+                    + (int) MAX_CORRIDOR_WIDTH_METERS + " mètres");
+        }
+        int pageSize = pageSize(limit);
+        BoundsCursor after = BoundsCursor.decode(cursor);
+
+        List<LatLon> points;
+        try {
+            points = PolylineDecoder.decode(polyline);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("polyline", e.getMessage());
+        }
+        if (points.size() < 2 || points.size() > MAX_ROUTE_POINTS) {
+            throw new ValidationException("polyline", "doit contenir entre 2 et "
+                    + MAX_ROUTE_POINTS + " points");
+        }
+        for (LatLon point : points) {
+            validatePosition(point.latitude(), point.longitude());
+        }
+
+        // WKT : longitude puis latitude
+        String routeWkt = points.stream()
+                .map(point -> point.longitude() + " " + point.latitude())
+                .collect(Collectors.joining(",", "LINESTRING(", ")"));
+
+        List<ChargingLocationCorridorDto> locations = locationRepository.findAlongRoute(
+                routeWkt, widthMeters,
+                !filter.isEmpty(), filter.socketTypeNames(), filter.powerNames(),
+                filter.maxHourlyRate(),
+                after.distance(), after.id(),
+                pageSize + 1
         );
 
-        if (ids.isEmpty()) {
-            return List.of();
+        // Une ligne de plus que demandé : indique s'il reste une page (suite du trajet)
+        String nextCursor = null;
+        if (locations.size() > pageSize) {
+            locations = locations.subList(0, pageSize);
+            ChargingLocationCorridorDto last = locations.getLast();
+            nextCursor = new BoundsCursor(last.routeFraction(), last.id()).encode();
+        }
+
+        logger.debug("Found {} charging locations along a {}-point route", locations.size(),
+                points.size());
+
+        return new ChargingLocationCorridorPageDto(locations, nextCursor);
+    }
+
+    @Override
+    public byte[] getTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_TILE_ZOOM) {
+            throw new ValidationException("z", "doit être compris entre 0 et " + MAX_TILE_ZOOM);
+        }
+        int max = 1 << z;
+        if (x < 0 || x >= max || y < 0 || y >= max) {
+            throw new ValidationException("Tuile hors limites pour le zoom " + z);
         }
 
-        List<ChargingLocation> locations = locationRepository.findAllWithAddressByIdIn(ids);
+        byte[] tile = tileRepository.findTile(z, x, y);
 
-        logger.debug("Found {} charging locations", locations.size());
+        logger.debug("Built tile {}/{}/{} ({} bytes)", z, x, y, tile.length);
 
-        return locations;
+        return tile;
     }
 
     @Override
@@ -91,6 +353,7 @@ public ChargingLocation create(
         location.setOwner(owner);
 
         location = locationRepository.save(location);
+        publishChange(location, ChargingLocationChangedEvent.ChangeType.CREATED);
 
         logger.info(
                 "Charging location {} created for user {}",
@@ -118,6 +381,7 @@ public ChargingLocation update(
 
         checkOwnership(location, principal);
         applyDto(location, dto);
+        publishChange(location, ChargingLocationChangedEvent.ChangeType.UPDATED);
 
         return location;
     }
@@ -136,10 +400,25 @@ public void delete(Long id, UserPrincipal principal) {
         checkOwnership(location, principal);
 
         locationRepository.delete(location);
+        eventPublisher.publishEvent(ChargingLocationChangedEvent.deleted(id));
     }
 
     /* ========== HELPERS ========== */
 
+    // Notifie les index en mémoire (traité après commit)
+    private void publishChange(
+            ChargingLocation location,
+            ChargingLocationChangedEvent.ChangeType type
+    ) {
+        eventPublisher.publishEvent(new ChargingLocationChangedEvent(
+                location.getId(),
+                type,
+                location.getName(),
+                location.getLatitude().doubleValue(),
+                location.getLongitude().doubleValue()
+        ));
+    }
+
     private User loadUser(UserPrincipal principal) {
         return userRepository.findById(principal.getId())
                 .orElseThrow(() ->
@@ -184,4 +463,58 @@ private void applyDto(
 
         location.setAddress(address);
     }
+
+    // Même ordre que la requête PostGIS (distance au centre, puis id). Tas borné : seuls les
+    // limit premiers lieux après le curseur sont gardés, sans trier toute la zone.
+    private static List<MapPointDistance> sortByDistance(
+            List<ChargingLocationMapDto> locations,
+            double centerLat,
+            double centerLon,
+            BoundsCursor after,
+            int limit
+    ) {
+        Comparator<MapPointDistance> order = Comparator
+                .comparingDouble(MapPointDistance::distance)
+                .thenComparing(MapPointDistance::id);
+
+        // Tête du tas : le plus éloigné des lieux gardés
+        PriorityQueue<MapPointDistance> nearest = new PriorityQueue<>(limit + 1, order.reversed());
+        for (ChargingLocationMapDto location : locations) {
+            double distance = BoundsCursor.distance(location.latitude(), location.longitude(),
+                    centerLat, centerLon);
+            if (!after.isBefore(distance, location.id())) {
+                continue;
+            }
+            MapPointDistance point = new MapPointDistance(location.id(), location.name(),
+                    location.latitude(), location.longitude(), distance);
+            if (nearest.size() < limit) {
+                nearest.add(point);
+            } else if (order.compare(point, nearest.peek()) < 0) {
+                nearest.poll();
+                nearest.add(point);
+            }
+        }
+
+        List<MapPointDistance> sorted = new ArrayList<>(nearest);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    private static int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_BOUNDS_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_BOUNDS_LIMIT) {
+            throw new ValidationException("limit", "doit être compris entre 1 et "
+                    + MAX_BOUNDS_LIMIT);
+        }
+        return pageSize;
+    }
+
+    private static void validatePosition(double lat, double lon) {
+        if (!(lat >= -90 && lat <= 90)) {
+            throw new ValidationException("lat", "doit être compris entre -90 et 90");
+        }
+        if (!(lon >= -180 && lon <= 180)) {
+            throw new ValidationException("lon", "doit être compris entre -180 et 180");
+        }
+    }
 }
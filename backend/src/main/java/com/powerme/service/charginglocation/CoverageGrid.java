@@ -0,0 +1,190 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.dto.CoverageCellDto;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Grille de couverture en mémoire : nombre de lieux et de bornes par cellule, à plusieurs
+ * résolutions.
+ *
+ * <p>Grille lat/lon régulière : au niveau l, 2^l colonnes de 360/2^l degrés et 2^l lignes de
+ * 180/2^l degrés. Seul le niveau le plus fin ({@link #MAX_LEVEL}, celui de la table coverage_cell)
+ * est alimenté ; chaque modification est répercutée sur la cellule parente de chaque niveau.</p>
+ *
+ * <p>Modification d'une cellule : O(nombre de niveaux). Requête : O(cellules visibles), quel que
+ * soit le nombre de lieux.</p>
+ */
+public class CoverageGrid {
+
+    /**
+     * Niveau le plus fin (cellule ~ 0.0055° x 0.0027°).
+     */
+    public static final int MAX_LEVEL = 16;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Map<Long, Counts>> levels = new ArrayList<>();
+
+    /**
+     * Compteurs d'une cellule.
+     */
+    private static final class Counts {
+        private int locations;
+        private int stations;
+
+        private boolean isEmpty() {
+            return locations == 0 && stations == 0;
+        }
+    }
+
+    public CoverageGrid() {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Remplace les compteurs d'une cellule du niveau le plus fin (valeurs absolues : rejouer
+     * plusieurs fois la même ligne est sans effet).
+     */
+    public void set(int cellX, int cellY, int locationCount, int stationCount) {
+        lock.writeLock().lock();
+        try {
+            Counts finest = levels.get(MAX_LEVEL).get(key(cellX, cellY));
+            int deltaLocations = locationCount - (finest != null ? finest.locations : 0);
+            int deltaStations = stationCount - (finest != null ? finest.stations : 0);
+            if (deltaLocations == 0 && deltaStations == 0) {
+                return;
+            }
+
+            for (int level = MAX_LEVEL; level >= 0; level--) {
+                int shift = MAX_LEVEL - level;
+                long key = key(cellX >> shift, cellY >> shift);
+                Map<Long, Counts> cells = levels.get(level);
+
+                Counts counts = cells.computeIfAbsent(key, k -> new Counts());
+                counts.locations += deltaLocations;
+                counts.stations += deltaStations;
+                if (counts.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Nombre de cellules (vides comprises) couvrant la zone au niveau demandé.
+     */
+    public static long cellsInView(double north, double south, double east, double west,
+            int level) {
+        long count = 0;
+        for (double[] range : lonRanges(east, west)) {
+            count += (long) (cellX(range[1], level) - cellX(range[0], level) + 1)
+                    * (cellY(north, level) - cellY(south, level) + 1);
+        }
+        return count;
+    }
+
+    /**
+     * Cellules non vides de la zone au niveau demandé (gère l'antiméridien quand west > east).
+     */
+    public List<CoverageCellDto> query(
+            double north,
+            double south,
+            double east,
+            double west,
+            int level
+    ) {
+        int y0 = cellY(south, level);
+        int y1 = cellY(north, level);
+
+        List<CoverageCellDto> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Counts> cells = levels.get(level);
+            for (double[] range : lonRanges(east, west)) {
+                int x0 = cellX(range[0], level);
+                int x1 = cellX(range[1], level);
+
+                // Parcours le plus court : la zone, ou les cellules non vides du niveau
+                long area = (long) (x1 - x0 + 1) * (y1 - y0 + 1);
+                if (area <= cells.size()) {
+                    for (int x = x0; x <= x1; x++) {
+                        for (int y = y0; y <= y1; y++) {
+                            Counts counts = cells.get(key(x, y));
+                            if (counts != null) {
+                                result.add(toDto(x, y, level, counts));
+                            }
+                        }
+                    }
+                } else {
+                    for (Map.Entry<Long, Counts> entry : cells.entrySet()) {
+                        int x = keyX(entry.getKey());
+                        int y = keyY(entry.getKey());
+                        if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+                            result.add(toDto(x, y, level, entry.getValue()));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    /* ========== HELPERS ========== */
+
+    private static List<double[]> lonRanges(double east, double west) {
+        if (west <= east) {
+            return List.of(new double[] {west, east});
+        }
+        return List.of(new double[] {west, 180.0}, new double[] {-180.0, east});
+    }
+
+    private static CoverageCellDto toDto(int x, int y, int level, Counts counts) {
+        double width = 360.0 / (1 << level);
+        double height = 180.0 / (1 << level);
+        return new CoverageCellDto(
+                -90.0 + (y + 1) * height,
+                -90.0 + y * height,
+                -180.0 + (x + 1) * width,
+                -180.0 + x * width,
+                counts.locations,
+                counts.stations
+        );
+    }
+
+    // Même calcul que la fonction SQL add_coverage
+    private static int cellX(double longitude, int level) {
+        int n = 1 << level;
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * n);
+        return Math.clamp(x, 0, n - 1);
+    }
+
+    private static int cellY(double latitude, int level) {
+        int n = 1 << level;
+        int y = (int) Math.floor((latitude + 90.0) / 180.0 * n);
+        return Math.clamp(y, 0, n - 1);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private static int keyX(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int keyY(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,98 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.dto.CoverageCellDto;
+import com.powerme.exception.ValidationException;
+import com.powerme.repository.CoverageCellRepository;
+import com.powerme.repository.CoverageCellRepository.Cell;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Heatmap de couverture (nombre de lieux et de bornes par cellule) servie depuis une
+ * {@link CoverageGrid} en mémoire.
+ *
+ * <p>Les compteurs persistés (table coverage_cell) sont tenus à jour par la base ; la grille ne
+ * relit que les cellules modifiées depuis la dernière lecture : au démarrage, après chaque commit
+ * touchant un lieu, et périodiquement pour les bornes et les écritures hors application.</p>
+ */
+@Service
+public class CoverageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverageService.class);
+
+    // Nombre max de cellules couvrant la zone demandée (borne le coût d'une requête)
+    private static final long MAX_VIEW_CELLS = 20_000;
+
+    private final CoverageCellRepository coverageCellRepository;
+    private final CoverageGrid grid = new CoverageGrid();
+
+    // Plus ancienne transaction active à la lecture précédente : relecture à partir d'elle
+    private long lastVersion;
+
+    public CoverageService(CoverageCellRepository coverageCellRepository) {
+        this.coverageCellRepository = coverageCellRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    // Relecture incrémentale toutes les 30 secondes
+    @Scheduled(fixedDelay = 30, initialDelay = 30, timeUnit = TimeUnit.SECONDS)
+    void scheduledRefresh() {
+        refresh();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onLocationChanged(ChargingLocationChangedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Applique les cellules modifiées depuis la dernière lecture. Les cellules des transactions
+     * encore actives à la lecture précédente sont relues (compteurs absolus : sans effet si
+     * déjà appliqués).
+     */
+    public synchronized void refresh() {
+        // Lue avant les cellules : une transaction commitée entre les deux est relue la fois
+        // suivante
+        long settled = coverageCellRepository.findSettledVersion();
+        List<Cell> cells = coverageCellRepository.findChangedSince(lastVersion);
+        for (Cell cell : cells) {
+            grid.set(cell.cellX(), cell.cellY(), cell.locationCount(), cell.stationCount());
+        }
+        lastVersion = settled;
+
+        if (!cells.isEmpty()) {
+            logger.debug("Coverage grid refreshed: {} cells, version {}", cells.size(),
+                    lastVersion);
+        }
+    }
+
+    public List<CoverageCellDto> getCoverage(
+            double north,
+            double south,
+            double east,
+            double west,
+            int level
+    ) {
+        if (level < 0 || level > CoverageGrid.MAX_LEVEL) {
+            throw new ValidationException("level", "doit être compris entre 0 et "
+                    + CoverageGrid.MAX_LEVEL);
+        }
+        if (CoverageGrid.cellsInView(north, south, east, west, level) > MAX_VIEW_CELLS) {
+            throw new ValidationException("level", "résolution trop fine pour cette zone");
+        }
+
+        return grid.query(north, south, east, west, level);
+    }
+}
@@ -0,0 +1,400 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.dto.ChargingLocationClusterDto;
+import com.powerme.dto.ChargingLocationMapDto;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pyramide de clusters pré-calculée pour la carte.
+ *
+ * <p>Pour chaque niveau de zoom (0 à {@link #MAX_CLUSTER_ZOOM}), l'espace Web Mercator est découpé
+ * en cellules de 64 px (4 x 4 cellules par tuile de 256 px). Chaque cellule mémorise le nombre de
+ * lieux, la somme des coordonnées (barycentre) et l'emprise. Seul le niveau le plus fin garde les
+ * lieux eux-mêmes ; un niveau parent est recalculé à partir de ses 4 cellules enfants.</p>
+ *
+ * <p>Ajout / suppression d'un lieu : O(nombre de niveaux). Requête : O(cellules visibles), quelle
+ * que soit la taille de la zone affichée.</p>
+ */
+public class LocationClusterPyramid {
+
+    /**
+     * Zoom max agrégé : au-delà, les lieux sont renvoyés un par un.
+     */
+    public static final int MAX_CLUSTER_ZOOM = 14;
+
+    // Une tuile de 256 px = 2^2 x 2^2 cellules de 64 px
+    private static final int CELL_BITS = 2;
+
+    // Limite de la projection Web Mercator
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, ChargingLocationMapDto> points = new HashMap<>();
+    private List<Map<Long, Cell>> levels = emptyLevels();
+
+    /**
+     * Reconstruit toute la pyramide (chargement initial).
+     */
+    public void rebuild(Collection<ChargingLocationMapDto> locations) {
+        Map<Long, ChargingLocationMapDto> newPoints = new HashMap<>();
+        List<Map<Long, Cell>> newLevels = emptyLevels();
+
+        // Niveau le plus fin : les lieux eux-mêmes
+        int n = gridSize(MAX_CLUSTER_ZOOM);
+        Map<Long, Cell> finest = newLevels.get(MAX_CLUSTER_ZOOM);
+        for (ChargingLocationMapDto point : locations) {
+            newPoints.put(point.id(), point);
+            long key = key(cellX(point.longitude(), n), cellY(point.latitude(), n));
+            Cell cell = finest.computeIfAbsent(key, k -> new Cell(true));
+            cell.members.put(point.id(), point);
+            cell.add(point);
+        }
+
+        // Niveaux parents : agrégation des enfants
+        for (int z = MAX_CLUSTER_ZOOM - 1; z >= 0; z--) {
+            Map<Long, Cell> parents = newLevels.get(z);
+            for (Map.Entry<Long, Cell> entry : newLevels.get(z + 1).entrySet()) {
+                long parentKey = key(keyX(entry.getKey()) >> 1, keyY(entry.getKey()) >> 1);
+                parents.computeIfAbsent(parentKey, k -> new Cell(false)).merge(entry.getValue());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            points = newPoints;
+            levels = newLevels;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute un lieu ou le déplace s'il existe déjà.
+     */
+    public void upsert(ChargingLocationMapDto point) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(point.id());
+
+            points.put(point.id(), point);
+            int n = gridSize(MAX_CLUSTER_ZOOM);
+            int x = cellX(point.longitude(), n);
+            int y = cellY(point.latitude(), n);
+            Cell cell = levels.get(MAX_CLUSTER_ZOOM).computeIfAbsent(key(x, y), k -> new Cell(true));
+            cell.members.put(point.id(), point);
+            cell.add(point);
+            propagate(x, y);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un lieu (sans effet s'il est inconnu).
+     */
+    public void remove(Long locationId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(locationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Renvoie les clusters visibles dans la zone pour un zoom donné. Au-delà de
+     * {@link #MAX_CLUSTER_ZOOM}, chaque lieu est renvoyé comme un cluster de 1.
+     */
+    public List<ChargingLocationClusterDto> query(
+            double north,
+            double south,
+            double east,
+            double west,
+            int zoom
+    ) {
+        lock.readLock().lock();
+        try {
+            int z = Math.min(Math.max(zoom, 0), MAX_CLUSTER_ZOOM);
+            Map<Long, Cell> level = levels.get(z);
+            List<Cell> cells = cellsInBounds(level, gridSize(z), north, south, east, west);
+
+            List<ChargingLocationClusterDto> result = new ArrayList<>();
+            if (zoom > MAX_CLUSTER_ZOOM) {
+                for (Cell cell : cells) {
+                    for (ChargingLocationMapDto point : cell.members.values()) {
+                        if (contains(north, south, east, west, point)) {
+                            result.add(ChargingLocationClusterDto.ofPoint(point));
+                        }
+                    }
+                }
+                return result;
+            }
+
+            for (Cell cell : cells) {
+                result.add(cell.toDto());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ========== HELPERS ========== */
+
+    private void removeInternal(Long locationId) {
+        ChargingLocationMapDto previous = points.remove(locationId);
+        if (previous == null) {
+            return;
+        }
+
+        int n = gridSize(MAX_CLUSTER_ZOOM);
+        int x = cellX(previous.longitude(), n);
+        int y = cellY(previous.latitude(), n);
+        long key = key(x, y);
+
+        Map<Long, Cell> finest = levels.get(MAX_CLUSTER_ZOOM);
+        Cell cell = finest.get(key);
+        if (cell != null) {
+            cell.members.remove(locationId);
+            cell.recompute();
+            if (cell.count == 0) {
+                finest.remove(key);
+            }
+        }
+        propagate(x, y);
+    }
+
+    // Recalcule les ancêtres d'une cellule du niveau le plus fin à partir de leurs 4 enfants
+    private void propagate(int x, int y) {
+        for (int z = MAX_CLUSTER_ZOOM - 1; z >= 0; z--) {
+            x >>= 1;
+            y >>= 1;
+
+            Map<Long, Cell> children = levels.get(z + 1);
+            Cell parent = new Cell(false);
+            for (int dx = 0; dx <= 1; dx++) {
+                for (int dy = 0; dy <= 1; dy++) {
+                    Cell child = children.get(key(2 * x + dx, 2 * y + dy));
+                    if (child != null) {
+                        parent.merge(child);
+                    }
+                }
+            }
+
+            if (parent.count == 0) {
+                levels.get(z).remove(key(x, y));
+            } else {
+                levels.get(z).put(key(x, y), parent);
+            }
+        }
+    }
+
+    private static List<Cell> cellsInBounds(
+            Map<Long, Cell> level,
+            int n,
+            double north,
+            double south,
+            double east,
+            double west
+    ) {
+        int y0 = cellY(north, n);
+        int y1 = cellY(south, n);
+
+        // Gestion de l'antiméridien (west > east) : deux plages de colonnes
+        List<int[]> xRanges = new ArrayList<>();
+        if (west <= east) {
+            xRanges.add(new int[]{cellX(west, n), cellX(east, n)});
+        } else {
+            xRanges.add(new int[]{cellX(west, n), n - 1});
+            xRanges.add(new int[]{0, cellX(east, n)});
+        }
+
+        long rangeSize = 0;
+        for (int[] range : xRanges) {
+            rangeSize += (long) (range[1] - range[0] + 1) * (y1 - y0 + 1);
+        }
+
+        List<Cell> cells = new ArrayList<>();
+
+        // Zone plus grande que le nombre de cellules occupées : on parcourt les cellules
+        if (rangeSize > level.size()) {
+            for (Map.Entry<Long, Cell> entry : level.entrySet()) {
+                int x = keyX(entry.getKey());
+                int y = keyY(entry.getKey());
+                if (y >= y0 && y <= y1 && inRanges(x, xRanges)) {
+                    cells.add(entry.getValue());
+                }
+            }
+            return cells;
+        }
+
+        for (int[] range : xRanges) {
+            for (int x = range[0]; x <= range[1]; x++) {
+                for (int y = y0; y <= y1; y++) {
+                    Cell cell = level.get(key(x, y));
+                    if (cell != null) {
+                        cells.add(cell);
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static boolean inRanges(int x, List<int[]> ranges) {
+        for (int[] range : ranges) {
+            if (x >= range[0] && x <= range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(
+            double north,
+            double south,
+            double east,
+            double west,
+            ChargingLocationMapDto point
+    ) {
+        if (point.latitude() > north || point.latitude() < south) {
+            return false;
+        }
+        if (west <= east) {
+            return point.longitude() >= west && point.longitude() <= east;
+        }
+        return point.longitude() >= west || point.longitude() <= east;
+    }
+
+    private static List<Map<Long, Cell>> emptyLevels() {
+        List<Map<Long, Cell>> result = new ArrayList<>(MAX_CLUSTER_ZOOM + 1);
+        for (int z = 0; z <= MAX_CLUSTER_ZOOM; z++) {
+            result.add(new HashMap<>());
+        }
+        return result;
+    }
+
+    // Nombre de cellules par axe pour un zoom donné
+    private static int gridSize(int zoom) {
+        return 1 << (zoom + CELL_BITS);
+    }
+
+    private static int cellX(double longitude, int n) {
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * n);
+        return Math.min(Math.max(x, 0), n - 1);
+    }
+
+    private static int cellY(double latitude, int n) {
+        double lat = Math.toRadians(Math.min(Math.max(latitude, -MAX_LATITUDE), MAX_LATITUDE));
+        double mercator = Math.log(Math.tan(lat) + 1.0 / Math.cos(lat));
+        int y = (int) Math.floor((1.0 - mercator / Math.PI) / 2.0 * n);
+        return Math.min(Math.max(y, 0), n - 1);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    private static int keyX(long key) {
+        return (int) (key >>> 32);
+    }
+
+    private static int keyY(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Cellule de la pyramide. Les membres ne sont conservés qu'au niveau le plus fin.
+     */
+    private static final class Cell {
+
+        private final Map<Long, ChargingLocationMapDto> members;
+
+        private int count;
+        private double sumLatitude;
+        private double sumLongitude;
+        private double north = -90.0;
+        private double south = 90.0;
+        private double east = -180.0;
+        private double west = 180.0;
+
+        // Renseigné uniquement quand la cellule ne contient qu'un lieu
+        private ChargingLocationMapDto single;
+
+        private Cell(boolean finest) {
+            this.members = finest ? new HashMap<>() : null;
+        }
+
+        private void add(ChargingLocationMapDto point) {
+            count++;
+            sumLatitude += point.latitude();
+            sumLongitude += point.longitude();
+            north = Math.max(north, point.latitude());
+            south = Math.min(south, point.latitude());
+            east = Math.max(east, point.longitude());
+            west = Math.min(west, point.longitude());
+            single = count == 1 ? point : null;
+        }
+
+        private void merge(Cell other) {
+            if (other.count == 0) {
+                return;
+            }
+            count += other.count;
+            sumLatitude += other.sumLatitude;
+            sumLongitude += other.sumLongitude;
+            north = Math.max(north, other.north);
+            south = Math.min(south, other.south);
+            east = Math.max(east, other.east);
+            west = Math.min(west, other.west);
+            single = count == 1 ? other.single : null;
+        }
+
+        // Recalcul complet après suppression (l'emprise ne se décrémente pas)
+        private void recompute() {
+            count = 0;
+            sumLatitude = 0.0;
+            sumLongitude = 0.0;
+            north = -90.0;
+            south = 90.0;
+            east = -180.0;
+            west = 180.0;
+            single = null;
+            for (ChargingLocationMapDto point : members.values()) {
+                add(point);
+            }
+        }
+
+        private ChargingLocationClusterDto toDto() {
+            if (count == 1) {
+                return ChargingLocationClusterDto.ofPoint(single);
+            }
+            return new ChargingLocationClusterDto(
+                    null,
+                    null,
+                    sumLatitude / count,
+                    sumLongitude / count,
+                    count,
+                    north,
+                    south,
+                    east,
+                    west
+            );
+        }
+    }
+}
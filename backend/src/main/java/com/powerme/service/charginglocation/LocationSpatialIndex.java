@@ -0,0 +1,189 @@
+package com.powerme.service.charginglocation;
+
+import com.powerme.dto.ChargingLocationMapDto;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Index spatial en mémoire des lieux de recharge (points de la carte uniquement).
+ *
+ * <p>Un STRtree (R-tree compacté, immuable une fois construit) contient la photo complète. Les
+ * modifications arrivées depuis sont gardées dans un delta : un Quadtree pour les lieux ajoutés /
+ * déplacés et des "tombstones" qui masquent l'ancienne version présente dans le STRtree. Le delta
+ * est replié dans un nouveau STRtree à chaque reconstruction.</p>
+ */
+public class LocationSpatialIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Numéro de séquence des modifications (pour ne pas perdre celles faites pendant un rebuild)
+    private final AtomicLong sequence = new AtomicLong();
+
+    private STRtree tree = emptyTree();
+    private int treeSize;
+    private Quadtree added = new Quadtree();
+    private Map<Long, Change> changes = new HashMap<>();
+
+    /**
+     * Modification (ajout ou suppression) appliquée par-dessus le STRtree.
+     */
+    private record Change(long sequence, ChargingLocationMapDto point) {}
+
+    /**
+     * Marque le début d'une reconstruction. À appeler AVANT de lire les lieux en base.
+     */
+    public long beginRebuild() {
+        return sequence.get();
+    }
+
+    /**
+     * Remplace le STRtree par une nouvelle photo. Les modifications postérieures à
+     * {@code startSequence} sont conservées dans le delta.
+     */
+    public void rebuild(Collection<ChargingLocationMapDto> locations, long startSequence) {
+        STRtree newTree = new STRtree();
+        for (ChargingLocationMapDto point : locations) {
+            newTree.insert(envelope(point), point);
+        }
+        newTree.build();
+
+        lock.writeLock().lock();
+        try {
+            Quadtree newAdded = new Quadtree();
+            Map<Long, Change> newChanges = new HashMap<>();
+            for (Map.Entry<Long, Change> entry : changes.entrySet()) {
+                Change change = entry.getValue();
+                if (change.sequence() > startSequence) {
+                    newChanges.put(entry.getKey(), change);
+                    if (change.point() != null) {
+                        newAdded.insert(envelope(change.point()), change.point());
+                    }
+                }
+            }
+
+            tree = newTree;
+            treeSize = locations.size();
+            added = newAdded;
+            changes = newChanges;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute un lieu ou remplace sa version précédente.
+     */
+    public void upsert(ChargingLocationMapDto point) {
+        lock.writeLock().lock();
+        try {
+            removeFromDelta(point.id());
+            changes.put(point.id(), new Change(sequence.incrementAndGet(), point));
+            added.insert(envelope(point), point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long locationId) {
+        lock.writeLock().lock();
+        try {
+            removeFromDelta(locationId);
+            changes.put(locationId, new Change(sequence.incrementAndGet(), null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Nombre de modifications en attente de repli dans le STRtree.
+     */
+    public int pendingChanges() {
+        lock.readLock().lock();
+        try {
+            return changes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return treeSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lieux contenus dans la zone (gère l'antiméridien quand west > east).
+     */
+    public List<ChargingLocationMapDto> query(
+            double north,
+            double south,
+            double east,
+            double west
+    ) {
+        List<Envelope> envelopes = new ArrayList<>();
+        if (west <= east) {
+            envelopes.add(new Envelope(west, east, south, north));
+        } else {
+            envelopes.add(new Envelope(west, 180.0, south, north));
+            envelopes.add(new Envelope(-180.0, east, south, north));
+        }
+
+        List<ChargingLocationMapDto> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Envelope envelope : envelopes) {
+                for (Object item : tree.query(envelope)) {
+                    ChargingLocationMapDto point = (ChargingLocationMapDto) item;
+                    // Version masquée par une modification plus récente
+                    if (!changes.containsKey(point.id())) {
+                        result.add(point);
+                    }
+                }
+                // Le Quadtree renvoie des candidats : filtre exact
+                for (Object item : added.query(envelope)) {
+                    ChargingLocationMapDto point = (ChargingLocationMapDto) item;
+                    if (envelope.contains(point.longitude(), point.latitude())) {
+                        result.add(point);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    /* ========== HELPERS ========== */
+
+    private void removeFromDelta(Long locationId) {
+        Change previous = changes.remove(locationId);
+        if (previous != null && previous.point() != null) {
+            added.remove(envelope(previous.point()), previous.point());
+        }
+    }
+
+    private static Envelope envelope(ChargingLocationMapDto point) {
+        return new Envelope(point.longitude(), point.longitude(), point.latitude(),
+                point.latitude());
+    }
+
+    private static STRtree emptyTree() {
+        STRtree empty = new STRtree();
+        empty.build();
+        return empty;
+    }
+}
@@ -0,0 +1,98 @@
+package com.powerme.service.chargingstation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.service.booking.BookingChangedEvent;
+import com.powerme.service.cluster.ClusterTopologyChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.Supplier;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache des créneaux d'une borne pour un jour (endpoint le plus sollicité aux heures de pointe,
+ * alors que les données changent quelques fois par jour et par borne). Réservations seules : les
+ * blocages de créneaux, de quelques minutes, sont appliqués à chaque lecture.
+ *
+ * <p>Taille bornée, éviction W-TinyLFU (Caffeine). Invalidé précisément après chaque réservation
+ * ou changement de statut (jours concernés, écritures des autres instances comprises via
+ * ClusterEventBus) et chaque modification de borne (tous ses jours) ;
+ * l'expiration ne sert que de filet pour les écritures hors application (seed, scripts SQL).
+ * Métriques hits / misses / evictions publiées sous cache.* (cache = "availability").</p>
+ */
+@Component
+public class AvailabilityCache {
+
+    static final String CACHE_NAME = "availability";
+
+    private static final int MAX_ENTRIES = 20_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private record Key(Long stationId, LocalDate date) {}
+
+    private final Cache<Key, ChargingStationAvailabilityDto> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    public AvailabilityCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Valeur en cache, ou calculée par loader (une seule fois par clé en cas d'appels
+     * concurrents).
+     */
+    public ChargingStationAvailabilityDto get(
+            Long stationId,
+            LocalDate date,
+            Supplier<ChargingStationAvailabilityDto> loader
+    ) {
+        return cache.get(new Key(stationId, date), key -> loader.get());
+    }
+
+    /**
+     * Invalide les jours [from, to] de la borne.
+     */
+    public void invalidate(Long stationId, LocalDate from, LocalDate to) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            cache.invalidate(new Key(stationId, date));
+        }
+    }
+
+    /**
+     * Invalide tous les jours de la borne (horaires modifiés, borne supprimée).
+     */
+    public void invalidateStation(Long stationId) {
+        cache.asMap().keySet().removeIf(key -> key.stationId().equals(stationId));
+    }
+
+    // Changements d'autres instances possiblement perdus : tout est relu
+    @EventListener
+    public void onTopologyChanged(ClusterTopologyChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    // Après commit : une lecture concurrente ne peut plus remettre l'ancienne valeur en cache
+    // (avant le flux SSE qui relit les jours couverts)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        ZoneId zone = ZoneId.systemDefault();
+        invalidate(
+                event.stationId(),
+                LocalDate.ofInstant(event.start(), zone),
+                LocalDate.ofInstant(event.end().minusNanos(1), zone)
+        );
+    }
+}
@@ -0,0 +1,250 @@
+package com.powerme.service.chargingstation;
+
+import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.dto.SlotChangeDto;
+import com.powerme.dto.TimeSlotDto;
+import com.powerme.service.booking.BookingChangedEvent;
+import com.powerme.service.booking.SlotHoldChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Flux SSE des changements de créneaux d'une borne pour le jour affiché par la page borne.
+ *
+ * <p>Les connexions sont asynchrones (SseEmitter) : une connexion inactive ne mobilise aucun
+ * thread de requête. Les envois se font sur des threads virtuels, pour ne pas ralentir la
+ * transaction de réservation qui les déclenche ni bloquer sur un client lent.</p>
+ */
+@Service
+public class AvailabilityStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityStreamService.class);
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String SLOTS_EVENT = "slots";
+
+    // Le client (EventSource) se reconnecte seul et reçoit un nouvel état complet
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * Connexion ouverte. Les événements sont envoyés dans l'ordre, un seul envoi à la fois.
+     */
+    private static final class Subscription {
+
+        private final SseEmitter emitter;
+        private final LocalDate date;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        // Dernier état envoyé au client (base des différences), protégé par la connexion
+        private ChargingStationAvailabilityDto sent;
+
+        private Subscription(SseEmitter emitter, LocalDate date) {
+            this.emitter = emitter;
+            this.date = date;
+        }
+    }
+
+    private final ChargingStationAvailabilityService availabilityService;
+
+    // Abonnements par borne
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public AvailabilityStreamService(ChargingStationAvailabilityService availabilityService) {
+        this.availabilityService = availabilityService;
+    }
+
+    /**
+     * Ouvre le flux de la borne pour le jour date. Premier événement "snapshot" : créneaux
+     * complets du jour ; puis, à chaque changement, un événement "slots" (liste de SlotChangeDto,
+     * créneaux dont l'état a réellement changé) ou un nouveau "snapshot" si les créneaux
+     * proposés ont changé.
+     */
+    public SseEmitter subscribe(Long stationId, LocalDate date) {
+        // Lève ChargingStationNotFoundException avant d'ouvrir le flux
+        availabilityService.getAvailability(stationId, date);
+
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+        Subscription subscription = new Subscription(emitter, date);
+        subscriptions.computeIfAbsent(stationId, id -> ConcurrentHashMap.newKeySet())
+                .add(subscription);
+
+        Runnable remove = () -> unsubscribe(stationId, subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        // État relu une fois abonné : un changement commité entre-temps est dans l'un ou
+        // l'autre (au pire les deux)
+        refresh(stationId, subscription, availabilityService.getAvailability(stationId, date));
+        return emitter;
+    }
+
+    // Après invalidation du cache (écouteur d'ordre plus élevé) : jours couverts relus
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate first = LocalDate.ofInstant(event.start(), zone);
+        LocalDate last = LocalDate.ofInstant(event.end().minusNanos(1), zone);
+        refreshDays(event.stationId(), first, last);
+    }
+
+    // Blocage créé, libéré ou expiré : seul son jour change
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHoldChanged(SlotHoldChangedEvent event) {
+        refreshDays(event.stationId(), event.day(), event.day());
+    }
+
+    /**
+     * Créneaux dont la disponibilité a changé entre deux états du même jour. Vide si la liste
+     * des créneaux proposés a changé (horaires, indisponibilité) : l'état complet doit alors
+     * être renvoyé.
+     */
+    public static Optional<List<SlotChangeDto>> diff(
+            ChargingStationAvailabilityDto previous,
+            ChargingStationAvailabilityDto current
+    ) {
+        if (previous.slots().size() != current.slots().size()) {
+            return Optional.empty();
+        }
+        List<SlotChangeDto> changes = new ArrayList<>();
+        for (int i = 0; i < current.slots().size(); i++) {
+            TimeSlotDto before = previous.slots().get(i);
+            TimeSlotDto after = current.slots().get(i);
+            if (before.index() != after.index()) {
+                return Optional.empty();
+            }
+            if (before.available() != after.available()) {
+                changes.add(new SlotChangeDto(after.index(), after.available()));
+            }
+        }
+        return Optional.of(changes);
+    }
+
+    // Commentaire périodique : garde les connexions ouvertes derrière les proxys et détecte
+    // les clients partis
+    @Scheduled(fixedDelay = 25, timeUnit = TimeUnit.SECONDS)
+    void heartbeat() {
+        subscriptions.forEach((stationId, stationSubscriptions) -> {
+            for (Subscription subscription : stationSubscriptions) {
+                send(stationId, subscription, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        subscriptions.values().forEach(stationSubscriptions ->
+                stationSubscriptions.forEach(subscription -> subscription.emitter.complete()));
+        subscriptions.clear();
+    }
+
+    /* ========== HELPERS ========== */
+
+    // État recalculé (cache invalidé avant) de chaque jour affiché compris dans [first, last],
+    // une lecture par jour
+    private void refreshDays(Long stationId, LocalDate first, LocalDate last) {
+        Set<Subscription> stationSubscriptions = subscriptions.get(stationId);
+        if (stationSubscriptions == null || stationSubscriptions.isEmpty()) {
+            return;
+        }
+
+        Map<LocalDate, ChargingStationAvailabilityDto> days = new HashMap<>();
+        for (Subscription subscription : stationSubscriptions) {
+            if (subscription.date.isBefore(first) || subscription.date.isAfter(last)) {
+                continue;       // Changement hors du jour affiché
+            }
+            ChargingStationAvailabilityDto current = days.computeIfAbsent(subscription.date,
+                    date -> availabilityService.getAvailability(stationId, date));
+            refresh(stationId, subscription, current);
+        }
+    }
+
+    // Envoie au client la différence avec le dernier état envoyé (état complet si les créneaux
+    // proposés ont changé ou au premier envoi)
+    private void refresh(Long stationId, Subscription subscription,
+            ChargingStationAvailabilityDto current) {
+        synchronized (subscription) {
+            Optional<List<SlotChangeDto>> changes = subscription.sent == null
+                    ? Optional.empty()
+                    : diff(subscription.sent, current);
+            subscription.sent = current;
+
+            if (changes.isEmpty()) {
+                send(stationId, subscription,
+                        SseEmitter.event().name(SNAPSHOT_EVENT).data(current));
+            } else if (!changes.get().isEmpty()) {
+                send(stationId, subscription,
+                        SseEmitter.event().name(SLOTS_EVENT).data(changes.get()));
+            }
+        }
+    }
+
+    private void send(Long stationId, Subscription subscription,
+            SseEmitter.SseEventBuilder event) {
+        subscription.pending.add(event);
+        if (subscription.sending.compareAndSet(false, true)) {
+            sender.execute(() -> drain(stationId, subscription));
+        }
+    }
+
+    // Vide la file de la connexion ; relance si un événement est arrivé pendant la sortie
+    private void drain(Long stationId, Subscription subscription) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscription.pending.poll()) != null) {
+                try {
+                    subscription.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client déconnecté
+                    logger.debug("Availability stream closed for station {}", stationId);
+                    unsubscribe(stationId, subscription);
+                    subscription.pending.clear();
+                    subscription.emitter.completeWithError(e);
+                    return;
+                }
+            }
+            subscription.sending.set(false);
+        } while (!subscription.pending.isEmpty()
+                && subscription.sending.compareAndSet(false, true));
+    }
+
+    private void unsubscribe(Long stationId, Subscription subscription) {
+        subscriptions.computeIfPresent(stationId, (id, stationSubscriptions) -> {
+            stationSubscriptions.remove(subscription);
+            return stationSubscriptions.isEmpty() ? null : stationSubscriptions;
+        });
+    }
+}
@@ -1,6 +1,9 @@
 package com.powerme.service.chargingstation;
 
+import com.powerme.dto.ChargingLocationAvailabilityDto;
 import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.dto.ChargingStationAvailabilityRangeDto;
+import com.powerme.enums.AvailabilityFormat;
 import java.time.LocalDate;
 
 public interface ChargingStationAvailabilityService {
@@ -8,4 +11,22 @@ ChargingStationAvailabilityDto getAvailability(
             Long stationId,
             LocalDate date
     );
+
+    /**
+     * Disponibilités de la borne du jour from au jour to inclus (31 jours max).
+     */
+    ChargingStationAvailabilityRangeDto getAvailabilityRange(
+            Long stationId,
+            LocalDate from,
+            LocalDate to,
+            AvailabilityFormat format
+    );
+
+    /**
+     * Créneaux du jour de toutes les bornes du lieu.
+     */
+    ChargingLocationAvailabilityDto getLocationAvailability(
+            Long locationId,
+            LocalDate date
+    );
 }
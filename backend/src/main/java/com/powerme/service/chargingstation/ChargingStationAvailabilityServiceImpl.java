@@ -1,133 +1,224 @@
 package com.powerme.service.chargingstation;
 
+import com.powerme.dto.ChargingLocationAvailabilityDto;
 import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.dto.ChargingStationAvailabilityRangeDto;
+import com.powerme.dto.DayAvailabilityDto;
+import com.powerme.dto.StationSlotsDto;
 import com.powerme.dto.TimeSlotDto;
-import com.powerme.entity.Booking;
 import com.powerme.entity.ChargingStation;
+import com.powerme.entity.UnavailabilityPeriod;
+import com.powerme.enums.AvailabilityFormat;
 import com.powerme.exception.ChargingStationNotFoundException;
-import com.powerme.repository.BookingRepository;
+import com.powerme.exception.ValidationException;
 import com.powerme.repository.ChargingStationRepository;
-import java.time.Instant;
+import com.powerme.service.booking.SlotHoldService;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.StationOccupancyService;
+import com.powerme.service.charginglocation.ChargingLocationService;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional(readOnly = true)
 public class ChargingStationAvailabilityServiceImpl implements ChargingStationAvailabilityService {
-    private final BookingRepository bookingRepository;
+
+    // Nombre max de jours d'une requête sur plusieurs jours
+    static final int MAX_RANGE_DAYS = 31;
+
     private final ChargingStationRepository stationRepository;
+    private final ChargingLocationService locationService;
+    private final StationOccupancyService occupancyService;
+    private final AvailabilityCache availabilityCache;
+    private final SlotHoldService slotHoldService;
 
     public ChargingStationAvailabilityServiceImpl(
-            BookingRepository bookingRepository,
-            ChargingStationRepository stationRepository
+            ChargingStationRepository stationRepository,
+            ChargingLocationService locationService,
+            StationOccupancyService occupancyService,
+            AvailabilityCache availabilityCache,
+            SlotHoldService slotHoldService
     ) {
-        this.bookingRepository = bookingRepository;
         this.stationRepository = stationRepository;
+        this.locationService = locationService;
+        this.occupancyService = occupancyService;
+        this.availabilityCache = availabilityCache;
+        this.slotHoldService = slotHoldService;
     }
 
+    // Hors transaction : un hit du cache ne prend pas de connexion (chaque lecture du loader a
+    // la sienne). Blocages appliqués hors du cache : leur vue a sa propre durée (10 secondes)
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ChargingStationAvailabilityDto getAvailability(
             Long stationId,
             LocalDate date
     ) {
+        ChargingStationAvailabilityDto booked =
+                availabilityCache.get(stationId, date, () -> loadAvailability(stationId, date));
+        return withHeldSlots(booked, slotHoldService.getHeldSlots(stationId, date));
+    }
+
+    private ChargingStationAvailabilityDto loadAvailability(Long stationId, LocalDate date) {
         ChargingStation station = stationRepository.findById(stationId)
                 .orElseThrow(() -> new ChargingStationNotFoundException(stationId));
 
-        // Déterminer la plage horaire journalière (option possible du propriétaire)
-        LocalTime stationFrom = station.getAvailableFrom();
-        LocalTime stationTo = station.getAvailableTo();
+        // Créneaux proposés : horaires d'ouverture (option possible du propriétaire), aucun si
+        // la borne est indisponible ce jour-là
+        boolean unavailable =
+                !stationRepository.findUnavailableStationIds(List.of(stationId), date).isEmpty();
+        long open = unavailable
+                ? 0L
+                : SlotMask.openingHours(station.getAvailableFrom(), station.getAvailableTo());
 
-        LocalTime from;
-        LocalTime to;
+        // Créneaux réservés : masque précalculé du jour (blocages ajoutés hors du cache)
+        long occupied = occupancyService.getOccupiedSlots(stationId, date);
 
-        if (stationFrom == null || stationTo == null) {
-            from = LocalTime.of(0, 0);
-            to   = LocalTime.of(23, 59);
-        } else {
-            from = stationFrom;
-            to   = stationTo;
-        }
+        return new ChargingStationAvailabilityDto(date, generateSlots(open, occupied));
+    }
 
-        // Calculer les bornes de la journée en Instant (car Booking en Instant)
-        ZoneId zone = ZoneId.systemDefault();
+    // Créneaux bloqués marqués indisponibles (valeur en cache inchangée)
+    private static ChargingStationAvailabilityDto withHeldSlots(
+            ChargingStationAvailabilityDto availability,
+            long held
+    ) {
+        if (held == 0L) {
+            return availability;
+        }
+        List<TimeSlotDto> slots = availability.slots().stream()
+                .map(slot -> slot.available() && SlotMask.contains(held, slot.index())
+                        ? new TimeSlotDto(slot.index(), slot.start(), slot.end(), false)
+                        : slot)
+                .toList();
+        return new ChargingStationAvailabilityDto(availability.date(), slots);
+    }
 
-        Instant startOfDay = date.atStartOfDay(zone).toInstant();
-        Instant endOfDay = date.plusDays(1).atStartOfDay(zone).toInstant();
+    // Hors transaction, comme getAvailability : la lecture des masques a sa propre transaction
+    // (une transaction englobante garderait une connexion en attendant la seconde)
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ChargingStationAvailabilityRangeDto getAvailabilityRange(
+            Long stationId,
+            LocalDate from,
+            LocalDate to,
+            AvailabilityFormat format
+    ) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("to", "doit être postérieur ou égal à from");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("to", "au plus " + MAX_RANGE_DAYS + " jours");
+        }
 
-        // Récupérer les bookings actifs ce jour-là
-        List<Booking> bookings =
-                bookingRepository.findActiveBookingsForDay(
-                        stationId,
-                        startOfDay,
-                        endOfDay
-                );
+        // Périodes d'indisponibilité chargées avec la borne (pas de session ensuite)
+        ChargingStation station = stationRepository.findByIdWithUnavailabilityPeriods(stationId)
+                .orElseThrow(() -> new ChargingStationNotFoundException(stationId));
 
-        // Générer les slots
-        List<TimeSlotDto> slots =
-                generateSlots(date, from, to, bookings, zone);
+        long openingHours =
+                SlotMask.openingHours(station.getAvailableFrom(), station.getAvailableTo());
+        // Créneaux occupés : réservations et blocages en cours
+        long[] occupied = occupancyService.getOccupiedSlots(stationId, from, to);
+        long[] held = slotHoldService.getHeldSlots(stationId, from, to);
+
+        List<DayAvailabilityDto> days = new ArrayList<>(occupied.length);
+        for (int i = 0; i < occupied.length; i++) {
+            LocalDate date = from.plusDays(i);
+            long open = isUnavailable(station, date) ? 0L : openingHours;
+            days.add(toDayDto(date, open, occupied[i] | held[i], format));
+        }
 
-        return new ChargingStationAvailabilityDto(date, slots);
+        return new ChargingStationAvailabilityRangeDto(
+                from, to, SlotMask.SLOT_MINUTES, format, days
+        );
     }
 
-    private List<TimeSlotDto> generateSlots(
-            LocalDate date,
-            LocalTime from,
-            LocalTime to,
-            List<Booking> bookings,
-            ZoneId zone
+    // Hors transaction (cf. getAvailabilityRange) : lieu et bornes chargés en une requête
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ChargingLocationAvailabilityDto getLocationAvailability(
+            Long locationId,
+            LocalDate date
     ) {
-        List<TimeSlotDto> slots = new ArrayList<>();
-
-        long totalMinutes = java.time.Duration.between(from, to).toMinutes();
+        // Lieu et bornes en une requête
+        List<ChargingStation> stations = locationService.getByIdWithStations(locationId)
+                .getChargingStations().stream()
+                .sorted(Comparator.comparing(ChargingStation::getId))
+                .toList();
+        List<Long> stationIds = stations.stream()
+                .map(ChargingStation::getId)
+                .toList();
+
+        // Une requête pour les indisponibilités, une (ou deux) pour les réservations
+        Set<Long> unavailable = stationIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(stationRepository.findUnavailableStationIds(stationIds, date));
+        Map<Long, Long> occupied = occupancyService.getOccupiedSlots(stationIds, date);
+        Map<Long, Long> held = slotHoldService.getHeldSlots(stationIds, date);
+
+        List<StationSlotsDto> stationSlots = new ArrayList<>(stations.size());
+        for (ChargingStation station : stations) {
+            long open = unavailable.contains(station.getId())
+                    ? 0L
+                    : SlotMask.openingHours(station.getAvailableFrom(), station.getAvailableTo());
+            stationSlots.add(new StationSlotsDto(
+                    station.getId(),
+                    station.getName(),
+                    generateSlots(open, occupied.getOrDefault(station.getId(), 0L)
+                            | held.getOrDefault(station.getId(), 0L))
+            ));
+        }
 
-        for (long minutes = 0; minutes + 30 <= totalMinutes; minutes += 30) {
-            LocalTime slotStart = from.plusMinutes(minutes);
-            LocalTime slotEnd = slotStart.plusMinutes(30);
+        return new ChargingLocationAvailabilityDto(locationId, date, stationSlots);
+    }
 
-            int slotIndex = (int) (
-                    java.time.Duration.between(
-                            LocalTime.MIDNIGHT,
-                            slotStart
-                    ).toMinutes() / 30
+    private static DayAvailabilityDto toDayDto(
+            LocalDate date,
+            long open,
+            long occupied,
+            AvailabilityFormat format
+    ) {
+        return switch (format) {
+            case MASK -> new DayAvailabilityDto(date, open, open & ~occupied, null, null);
+            case RLE -> new DayAvailabilityDto(
+                    date, null, null, SlotMask.encodeRuns(open, occupied), null
             );
-
-            // Définit pour le slot si y'a un booking : retourne "true" si dispo
-            boolean available = bookings.stream().noneMatch(
-                    booking -> overlapsBooking(date, slotStart, slotEnd, booking, zone)
+            case SLOTS -> new DayAvailabilityDto(
+                    date, null, null, null, generateSlots(open, occupied)
             );
+        };
+    }
+
+    private static List<TimeSlotDto> generateSlots(long open, long occupied) {
+        List<TimeSlotDto> slots = new ArrayList<>(SlotMask.count(open));
 
+        for (long rest = open; rest != 0; rest &= rest - 1) {
+            int slotIndex = Long.numberOfTrailingZeros(rest);
             slots.add(new TimeSlotDto(
                     slotIndex,
-                    slotStart.toString(),
-                    slotEnd.toString(),
-                    available
+                    SlotMask.label(slotIndex),
+                    SlotMask.label(slotIndex + 1),
+                    !SlotMask.contains(occupied, slotIndex)
             ));
         }
 
         return slots;
     }
 
-
-    // Retourne "true" si le slot chevauche un booking existant.
-    private boolean overlapsBooking(
-            LocalDate date,
-            LocalTime slotStart,
-            LocalTime slotEnd,
-            Booking booking,
-            ZoneId zone
-    ) {
-        Instant slotStartInstant =
-                date.atTime(slotStart).atZone(zone).toInstant();
-
-        Instant slotEndInstant =
-                date.atTime(slotEnd).atZone(zone).toInstant();
-
-        return slotStartInstant.isBefore(booking.getEndTime())
-                && slotEndInstant.isAfter(booking.getStartTime());
+    private static boolean isUnavailable(ChargingStation station, LocalDate date) {
+        for (UnavailabilityPeriod period : station.getUnavailabilityPeriods()) {
+            if (period.includes(date)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
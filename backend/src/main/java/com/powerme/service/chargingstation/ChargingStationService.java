@@ -4,6 +4,8 @@
 import com.powerme.entity.ChargingStation;
 import com.powerme.enums.StationStatus;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
 
 public interface ChargingStationService {
 
@@ -11,6 +13,12 @@ public interface ChargingStationService {
 
     StationStatus computeStatus(ChargingStation station, Instant now);
 
+    /**
+     * Statut de plusieurs bornes (clé = id de la borne) : lu dans le modèle de lecture
+     * station_status, calculé à l'instant now pour les bornes qui n'y sont pas encore.
+     */
+    Map<Long, StationStatus> computeStatuses(Collection<ChargingStation> stations, Instant now);
+
     ChargingStation create(Long locationId, ChargingStationUpsertDto dto);
 
     ChargingStation update(Long id, ChargingStationUpsertDto dto);
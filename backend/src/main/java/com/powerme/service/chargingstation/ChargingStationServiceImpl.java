@@ -11,6 +11,12 @@
 import com.powerme.repository.ChargingStationRepository;
 import com.powerme.service.charginglocation.ChargingLocationService;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -24,12 +30,16 @@ public class ChargingStationServiceImpl implements ChargingStationService {
     private final ChargingStationRepository chargingStationRepository;
     private final ChargingLocationService chargingLocationService;
     private final ChargingStationMapper chargingStationMapper;
+    private final StationStatusService stationStatusService;
+    private final AvailabilityCache availabilityCache;
 
-    public ChargingStationServiceImpl(BookingRepository bookingRepository, ChargingStationRepository chargingStationRepository, ChargingLocationService chargingLocationService, ChargingStationMapper chargingStationMapper) {
+    public ChargingStationServiceImpl(BookingRepository bookingRepository, ChargingStationRepository chargingStationRepository, ChargingLocationService chargingLocationService, ChargingStationMapper chargingStationMapper, StationStatusService stationStatusService, AvailabilityCache availabilityCache) {
         this.bookingRepository = bookingRepository;
         this.chargingStationRepository = chargingStationRepository;
         this.chargingLocationService = chargingLocationService;
         this.chargingStationMapper = chargingStationMapper;
+        this.stationStatusService = stationStatusService;
+        this.availabilityCache = availabilityCache;
     }
 
     @Override
@@ -40,8 +50,44 @@ public ChargingStation getById(Long id) {
 
     @Override
     public StationStatus computeStatus(ChargingStation station, Instant now){
-        boolean isBooked = bookingRepository.existsActiveBookingAt(station.getId(), now);
+        return computeStatuses(List.of(station), now).get(station.getId());
+    }
+
+    @Override
+    public Map<Long, StationStatus> computeStatuses(
+            Collection<ChargingStation> stations,
+            Instant now
+    ) {
+        if (stations.isEmpty()) {
+            return Map.of();
+        }
 
+        // Statut précalculé (station_status)
+        List<Long> stationIds = stations.stream()
+                .map(ChargingStation::getId)
+                .toList();
+        Map<Long, StationStatus> statuses =
+                new HashMap<>(stationStatusService.findStatuses(stationIds));
+
+        // Bornes pas encore dans le modèle de lecture : calcul direct, en une requête
+        List<Long> missingIds = stationIds.stream()
+                .filter(id -> !statuses.containsKey(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            Set<Long> booked = new HashSet<>(
+                    bookingRepository.findStationIdsBookedAt(missingIds, now)
+            );
+            for (ChargingStation station : stations) {
+                if (!statuses.containsKey(station.getId())) {
+                    statuses.put(station.getId(),
+                            statusOf(station, booked.contains(station.getId())));
+                }
+            }
+        }
+        return statuses;
+    }
+
+    private static StationStatus statusOf(ChargingStation station, boolean isBooked) {
         if (isBooked) {
             return StationStatus.OCCUPIED;
         }
@@ -69,6 +115,8 @@ public ChargingStation create(
         ChargingStation saved =
                 chargingStationRepository.save(station);
 
+        stationStatusService.refreshStations(List.of(saved.getId()));
+
         logger.info(
                 "Charging station {} created for location {}",
                 saved.getId(),
@@ -98,6 +146,10 @@ public ChargingStation update(
         ChargingStation updated =
                 chargingStationRepository.save(station);
 
+        stationStatusService.refreshStations(List.of(id));
+        // Horaires d'ouverture éventuellement modifiés
+        availabilityCache.invalidateStation(id);
+
         logger.info("Charging station {} updated", id);
 
         return updated;
@@ -119,7 +171,10 @@ public void delete(Long id) {
             );
         }
 
+        Long locationId = station.getChargingLocation().getId();
         chargingStationRepository.delete(station);
+        stationStatusService.refreshLocation(locationId);
+        availabilityCache.invalidateStation(id);
 
         logger.info("Charging station {} deleted", id);
     }
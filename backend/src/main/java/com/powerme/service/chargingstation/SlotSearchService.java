@@ -0,0 +1,217 @@
+package com.powerme.service.chargingstation;
+
+import com.powerme.dto.ChargingLocationFilterDto;
+import com.powerme.dto.EarliestSlotDto;
+import com.powerme.exception.ValidationException;
+import com.powerme.repository.ChargingStationRepository;
+import com.powerme.repository.ChargingStationRepository.SlotCandidate;
+import com.powerme.service.booking.SlotHoldService;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.StationOccupancyService;
+import com.powerme.service.pricing.PricingService;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recherche des premiers créneaux libres autour d'une position : "à partir de T, les N créneaux
+ * consécutifs les plus tôt sur une borne à moins de R km".
+ *
+ * <p>Bornes candidates en une requête spatiale, puis parcours jour par jour des masques
+ * d'occupation de toutes les bornes restantes (une lecture par jour, plus une pour les blocages
+ * absents de leur vue mémoire : un créneau bloqué n'est pas proposé). Seuls les k meilleurs
+ * résultats sont gardés (tas borné) ; dès que le tas est plein à la fin d'un jour, les jours
+ * suivants ne peuvent plus rien apporter.</p>
+ */
+@Service
+public class SlotSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotSearchService.class);
+
+    static final int DEFAULT_RESULTS = 10;
+    static final int MAX_RESULTS = 50;
+    static final int MAX_SEARCH_DAYS = 7;
+    static final double MAX_RADIUS_METERS = 50_000;
+
+    // Bornes candidates examinées au plus (les plus proches)
+    private static final int MAX_CANDIDATES = 500;
+
+    // Classement : début, puis distance, puis prix
+    static final Comparator<EarliestSlotDto> RANKING =
+            Comparator.comparing(EarliestSlotDto::start)
+                    .thenComparingDouble(EarliestSlotDto::distanceMeters)
+                    .thenComparing(EarliestSlotDto::totalPrice)
+                    .thenComparing(EarliestSlotDto::stationId);
+
+    private final ChargingStationRepository stationRepository;
+    private final StationOccupancyService occupancyService;
+    private final SlotHoldService slotHoldService;
+    private final PricingService pricingService;
+
+    public SlotSearchService(
+            ChargingStationRepository stationRepository,
+            StationOccupancyService occupancyService,
+            SlotHoldService slotHoldService,
+            PricingService pricingService
+    ) {
+        this.stationRepository = stationRepository;
+        this.occupancyService = occupancyService;
+        this.slotHoldService = slotHoldService;
+        this.pricingService = pricingService;
+    }
+
+    /**
+     * Au plus k bornes (défaut 10, max 50) avec leur premier créneau de slotCount x 30 min libre
+     * commençant à partir de from (défaut : maintenant), sur les 7 jours suivants.
+     */
+    public List<EarliestSlotDto> findEarliest(
+            double lat,
+            double lon,
+            double radiusMeters,
+            Instant from,
+            int slotCount,
+            ChargingLocationFilterDto filter,
+            Integer k
+    ) {
+        validate(lat, lon, radiusMeters, slotCount);
+        filter.validate();
+        int limit = k == null ? DEFAULT_RESULTS : k;
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new ValidationException("k", "doit être compris entre 1 et " + MAX_RESULTS);
+        }
+
+        // Bornes encore sans créneau trouvé, les plus proches d'abord
+        Map<Long, SlotCandidate> remaining = new LinkedHashMap<>();
+        for (SlotCandidate candidate : stationRepository.findSlotCandidates(
+                lat, lon, radiusMeters,
+                filter.socketTypeNames(), filter.powerNames(), filter.maxHourlyRate(),
+                MAX_CANDIDATES
+        )) {
+            remaining.put(candidate.stationId(), candidate);
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        Instant now = Instant.now();
+        LocalDateTime start = LocalDateTime.ofInstant(
+                from == null || from.isBefore(now) ? now : from, zone
+        );
+        LocalDate firstDay = start.toLocalDate();
+        int firstSlot = Math.ceilDiv(
+                start.toLocalTime().toSecondOfDay(), SlotMask.SLOT_MINUTES * 60
+        );
+
+        // Tas "pire en tête" : le premier retiré quand un meilleur résultat arrive
+        PriorityQueue<EarliestSlotDto> best = new PriorityQueue<>(RANKING.reversed());
+
+        for (int offset = 0; offset < MAX_SEARCH_DAYS && !remaining.isEmpty(); offset++) {
+            LocalDate day = firstDay.plusDays(offset);
+            long notBefore = offset == 0 ? SlotMask.range(firstSlot, SlotMask.SLOTS_PER_DAY)
+                    : SlotMask.FULL_DAY;
+
+            List<Long> stationIds = List.copyOf(remaining.keySet());
+            Map<Long, Long> occupied = occupancyService.getOccupiedSlots(stationIds, day);
+            Map<Long, Long> held = slotHoldService.getHeldSlots(stationIds, day);
+            Set<Long> unavailable = new HashSet<>(
+                    stationRepository.findUnavailableStationIds(stationIds, day)
+            );
+
+            Iterator<SlotCandidate> candidates = remaining.values().iterator();
+            while (candidates.hasNext()) {
+                SlotCandidate candidate = candidates.next();
+                if (unavailable.contains(candidate.stationId())) {
+                    continue;
+                }
+                long free = SlotMask.openingHours(candidate.availableFrom(),
+                        candidate.availableTo())
+                        & ~occupied.getOrDefault(candidate.stationId(), 0L)
+                        & ~held.getOrDefault(candidate.stationId(), 0L)
+                        & notBefore;
+                int slot = SlotMask.firstRun(free, slotCount);
+                if (slot < 0) {
+                    continue;
+                }
+
+                offer(best, toDto(candidate, day, slot, slotCount, zone), limit);
+                candidates.remove();
+            }
+
+            // Tout créneau d'un jour suivant commencerait plus tard que ceux déjà retenus
+            if (best.size() == limit) {
+                break;
+            }
+        }
+
+        List<EarliestSlotDto> result = new ArrayList<>(best);
+        result.sort(RANKING);
+
+        logger.debug("Earliest slot search: {} results, {} stations without slot",
+                result.size(), remaining.size());
+
+        return result;
+    }
+
+    private static void offer(PriorityQueue<EarliestSlotDto> best, EarliestSlotDto slot,
+            int limit) {
+        if (best.size() < limit) {
+            best.add(slot);
+        } else if (RANKING.compare(slot, best.peek()) < 0) {
+            best.poll();
+            best.add(slot);
+        }
+    }
+
+    private EarliestSlotDto toDto(
+            SlotCandidate candidate,
+            LocalDate day,
+            int slot,
+            int slotCount,
+            ZoneId zone
+    ) {
+        long slots = SlotMask.range(slot, slot + slotCount);
+        LocalDateTime dayStart = day.atStartOfDay();
+
+        return new EarliestSlotDto(
+                candidate.stationId(),
+                candidate.stationName(),
+                candidate.locationId(),
+                candidate.locationName(),
+                dayStart.plusMinutes((long) slot * SlotMask.SLOT_MINUTES)
+                        .atZone(zone).toInstant(),
+                dayStart.plusMinutes((long) (slot + slotCount) * SlotMask.SLOT_MINUTES)
+                        .atZone(zone).toInstant(),
+                candidate.distanceMeters(),
+                candidate.hourlyRate(),
+                pricingService.computePrice(candidate.hourlyRate(), SlotMask.toList(slots))
+        );
+    }
+
+    private static void validate(double lat, double lon, double radiusMeters, int slotCount) {
+        if (!(lat >= -90 && lat <= 90)) {
+            throw new ValidationException("lat", "doit être compris entre -90 et 90");
+        }
+        if (!(lon >= -180 && lon <= 180)) {
+            throw new ValidationException("lon", "doit être compris entre -180 et 180");
+        }
+        if (!(radiusMeters > 0) || radiusMeters > MAX_RADIUS_METERS) {
+            throw new ValidationException("radius", "doit être compris entre 0 et "
+                    + (int) MAX_RADIUS_METERS + " mètres");
+        }
+        if (slotCount < 1 || slotCount > SlotMask.SLOTS_PER_DAY) {
+            throw new ValidationException("slots", "doit être compris entre 1 et "
+                    + SlotMask.SLOTS_PER_DAY);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.powerme.service.chargingstation;
+
+import com.powerme.dto.LocationAvailabilityDto;
+import com.powerme.enums.StationStatus;
+import com.powerme.exception.ValidationException;
+import com.powerme.repository.StationStatusRepository;
+import com.powerme.service.booking.BookingChangedEvent;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tient à jour le statut précalculé des bornes (station_status) et le nombre de bornes libres par
+ * lieu (location_availability).
+ *
+ * <p>Recalcul ciblé après chaque réservation créée ou modifiée et chaque modification de borne ;
+ * le scheduler traite les bornes dont une réservation commence ou se termine. Un recalcul complet
+ * au démarrage et périodiquement rattrape les écritures hors application (seed, scripts SQL).</p>
+ */
+@Service
+public class StationStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationStatusService.class);
+
+    // Nombre max de lieux par requête de compteurs (une carte affiche au plus une page /bounds)
+    static final int MAX_LOCATION_IDS = 500;
+
+    private final StationStatusRepository statusRepository;
+
+    public StationStatusService(StationStatusRepository statusRepository) {
+        this.statusRepository = statusRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void refreshAll() {
+        Set<Long> locationIds = statusRepository.refreshAllStations(Instant.now());
+        statusRepository.refreshLocations(locationIds);
+
+        logger.info("Station statuses rebuilt for {} charging locations", locationIds.size());
+    }
+
+    // Filet de sécurité : recalcul complet toutes les 10 minutes
+    @Scheduled(fixedDelay = 10, initialDelay = 10, timeUnit = TimeUnit.MINUTES)
+    @Transactional
+    public void scheduledRefreshAll() {
+        refreshAll();
+    }
+
+    // Passage des débuts / fins de réservation
+    @Scheduled(fixedDelay = 15, timeUnit = TimeUnit.SECONDS)
+    @Transactional
+    public void refreshDue() {
+        Set<Long> locationIds = statusRepository.refreshDueStations(Instant.now());
+        statusRepository.refreshLocations(locationIds);
+
+        if (!locationIds.isEmpty()) {
+            logger.debug("Station statuses updated for {} charging locations",
+                    locationIds.size());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingChanged(BookingChangedEvent event) {
+        refreshStationsInternal(List.of(event.stationId()));
+    }
+
+    /**
+     * Recalcule le statut des bornes données (borne créée ou modifiée).
+     */
+    @Transactional
+    public void refreshStations(Collection<Long> stationIds) {
+        refreshStationsInternal(stationIds);
+    }
+
+    /**
+     * Recompte les bornes libres d'un lieu (borne supprimée).
+     */
+    @Transactional
+    public void refreshLocation(Long locationId) {
+        statusRepository.refreshLocations(List.of(locationId));
+    }
+
+    /**
+     * Statut précalculé des bornes (bornes absentes du modèle de lecture : pas de clé).
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, StationStatus> findStatuses(Collection<Long> stationIds) {
+        if (stationIds.isEmpty()) {
+            return Map.of();
+        }
+        return statusRepository.findStatuses(stationIds);
+    }
+
+    /**
+     * Bornes libres des lieux donnés (lieux sans borne ou inconnus : absents de la réponse).
+     */
+    @Transactional(readOnly = true)
+    public List<LocationAvailabilityDto> findLocationAvailabilities(
+            Collection<Long> locationIds
+    ) {
+        if (locationIds.isEmpty()) {
+            return List.of();
+        }
+        if (locationIds.size() > MAX_LOCATION_IDS) {
+            throw new ValidationException(
+                    "ids", "au plus " + MAX_LOCATION_IDS + " lieux par requête"
+            );
+        }
+        return statusRepository.findLocationAvailabilities(locationIds);
+    }
+
+    private void refreshStationsInternal(Collection<Long> stationIds) {
+        Set<Long> locationIds = statusRepository.refreshStations(stationIds, Instant.now());
+        statusRepository.refreshLocations(locationIds);
+    }
+}
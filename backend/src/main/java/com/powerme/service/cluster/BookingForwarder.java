@@ -0,0 +1,262 @@
+package com.powerme.service.cluster;
+
+import com.powerme.dto.BookingCreateRequestDto;
+import com.powerme.dto.BookingDto;
+import com.powerme.dto.SlotHoldDto;
+import com.powerme.dto.SlotHoldRequestDto;
+import com.powerme.exception.BookingConflictException;
+import com.powerme.exception.ClusterForwardException;
+import com.powerme.exception.StationBusyException;
+import com.powerme.exception.UnauthorizedAccessException;
+import com.powerme.repository.BookingRepository;
+import com.powerme.repository.ClusterNodeRepository.ClusterNode;
+import com.powerme.repository.SlotHoldRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+/**
+ * Transfert des écritures d'une borne (création et annulation de réservation, blocage et
+ * libération de créneaux) à l'instance propriétaire de la borne.
+ *
+ * <p>La requête est rejouée telle quelle (même jeton d'accès) avec les en-têtes
+ * {@link #FORWARDED_HEADER} et {@link #CLUSTER_SECRET_HEADER} : l'instance cible la traite sans
+ * la retransférer, même si sa vue du cluster diffère. Seul le secret partagé (app.cluster.secret)
+ * authentifie un transfert : sans lui, l'en-tête est refusé (403) et le transfert est désactivé.
+ * </p>
+ *
+ * <p>Les erreurs du propriétaire sont renvoyées avec leur statut (409, 401, 404, 503 avec
+ * Retry-After...). Propriétaire injoignable ou en erreur serveur : vide, la requête est traitée
+ * localement (la base garantit l'absence de chevauchement).</p>
+ */
+@Service
+public class BookingForwarder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingForwarder.class);
+
+    /**
+     * En-tête posé sur une requête transférée (valeur : instance d'origine).
+     */
+    public static final String FORWARDED_HEADER = "X-PowerMe-Forwarded-By";
+
+    /**
+     * En-tête portant le secret partagé du cluster sur une requête transférée.
+     */
+    public static final String CLUSTER_SECRET_HEADER = "X-PowerMe-Cluster-Secret";
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(15);
+
+    // Retry-After absent ou illisible sur un 503 du propriétaire
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final ClusterProperties properties;
+    private final ClusterMembershipService membershipService;
+    private final BookingRepository bookingRepository;
+    private final SlotHoldRepository holdRepository;
+    private final RestClient restClient;
+
+    public BookingForwarder(
+            ClusterProperties properties,
+            ClusterMembershipService membershipService,
+            BookingRepository bookingRepository,
+            SlotHoldRepository holdRepository,
+            RestClient.Builder restClientBuilder
+    ) {
+        this.properties = properties;
+        this.membershipService = membershipService;
+        this.bookingRepository = bookingRepository;
+        this.holdRepository = holdRepository;
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(CONNECT_TIMEOUT);
+        requestFactory.setReadTimeout(READ_TIMEOUT);
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+
+        if (properties.isEnabled() && !hasSecret()) {
+            logger.warn("Cluster enabled without app.cluster.secret: booking forwarding disabled");
+        }
+    }
+
+    /**
+     * Réservation créée par l'instance propriétaire, vide si elle doit être traitée ici.
+     *
+     * @param headers en-têtes de la requête d'origine (Authorization, Idempotency-Key : rejeux
+     *                gérés par le propriétaire)
+     */
+    public Optional<BookingDto> forwardIfRemote(
+            BookingCreateRequestDto request,
+            HttpHeaders headers
+    ) {
+        if (!shouldForward(headers)) {
+            return Optional.empty();
+        }
+        return exchange(request.stationId(), HttpMethod.POST, "/api/bookings", request,
+                BookingDto.class, headers)
+                .map(ResponseEntity::getBody);
+    }
+
+    /**
+     * Réservation annulée par l'instance propriétaire, vide si elle doit être traitée ici
+     * (réservation inconnue comprise : l'erreur est levée localement).
+     */
+    public Optional<BookingDto> forwardCancelIfRemote(
+            Long bookingId,
+            Long userId,
+            HttpHeaders headers
+    ) {
+        if (!shouldForward(headers)) {
+            return Optional.empty();
+        }
+        return bookingRepository.findStationIdByIdAndUserId(bookingId, userId)
+                .flatMap(stationId -> exchange(stationId, HttpMethod.POST,
+                        "/api/bookings/" + bookingId + "/cancel", null, BookingDto.class,
+                        headers))
+                .map(ResponseEntity::getBody);
+    }
+
+    /**
+     * Blocage créé par l'instance propriétaire, vide s'il doit être traité ici.
+     */
+    public Optional<SlotHoldDto> forwardHoldIfRemote(
+            SlotHoldRequestDto request,
+            HttpHeaders headers
+    ) {
+        if (!shouldForward(headers)) {
+            return Optional.empty();
+        }
+        return exchange(request.stationId(), HttpMethod.POST, "/api/bookings/holds", request,
+                SlotHoldDto.class, headers)
+                .map(ResponseEntity::getBody);
+    }
+
+    /**
+     * Libère le blocage sur l'instance propriétaire ; false s'il doit être libéré ici.
+     */
+    public boolean forwardReleaseIfRemote(UUID token, Long userId, HttpHeaders headers) {
+        if (!shouldForward(headers)) {
+            return false;
+        }
+        return holdRepository.findStationId(token, userId)
+                .flatMap(stationId -> exchange(stationId, HttpMethod.DELETE,
+                        "/api/bookings/holds/" + token, null, Void.class, headers))
+                .isPresent();
+    }
+
+    // Requête transférée (authentifiée par le secret) : traitée ici, sans retransfert
+    private boolean shouldForward(HttpHeaders headers) {
+        String forwardedBy = headers.getFirst(FORWARDED_HEADER);
+        if (forwardedBy != null) {
+            if (!hasSecret() || !sameSecret(headers.getFirst(CLUSTER_SECRET_HEADER))) {
+                logger.warn("Untrusted forwarded request rejected: forwardedBy={}", forwardedBy);
+                throw new UnauthorizedAccessException("Transfert entre instances non autorisé");
+            }
+            return false;
+        }
+        return properties.isEnabled() && hasSecret();
+    }
+
+    private <T> Optional<ResponseEntity<T>> exchange(
+            Long stationId,
+            HttpMethod method,
+            String path,
+            Object body,
+            Class<T> responseType,
+            HttpHeaders headers
+    ) {
+        Optional<ClusterNode> owner = membershipService.remoteOwner(stationId);
+        if (owner.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            RestClient.RequestBodySpec spec = restClient.method(method)
+                    .uri(owner.get().baseUrl() + path)
+                    .header(FORWARDED_HEADER, membershipService.nodeId())
+                    .header(CLUSTER_SECRET_HEADER, properties.getSecret())
+                    .headers(forwarded -> {
+                        copyHeader(headers, forwarded, HttpHeaders.AUTHORIZATION);
+                        copyHeader(headers, forwarded, IDEMPOTENCY_KEY_HEADER);
+                    });
+            if (body != null) {
+                spec.body(body);
+            }
+            ResponseEntity<T> response = spec.retrieve().toEntity(responseType);
+
+            logger.debug("Booking request forwarded: {} {}, stationId={}, owner={}", method, path,
+                    stationId, owner.get().nodeId());
+            return Optional.of(response);
+        } catch (RestClientResponseException e) {
+            int status = e.getStatusCode().value();
+            String retryAfter = e.getResponseHeaders() != null
+                    ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)
+                    : null;
+            // Borne saturée chez le propriétaire : le client réessaie plus tard
+            if (status == HttpStatus.SERVICE_UNAVAILABLE.value() && retryAfter != null) {
+                throw new StationBusyException(parseRetryAfter(retryAfter));
+            }
+            if (e.getStatusCode().is5xxServerError()) {
+                logger.warn("Booking forward failed, handling locally: owner={}, status={}",
+                        owner.get().nodeId(), status);
+                return Optional.empty();
+            }
+            // Erreur métier du propriétaire : renvoyée avec son statut
+            if (status == HttpStatus.CONFLICT.value()) {
+                throw new BookingConflictException();
+            }
+            ProblemBody problem = e.getResponseBodyAs(ProblemBody.class);
+            throw new ClusterForwardException(status, problem != null && problem.detail() != null
+                    ? problem.detail()
+                    : "Requête refusée");
+        } catch (RestClientException e) {
+            logger.warn("Booking forward failed, handling locally: owner={}, error={}",
+                    owner.get().nodeId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static Duration parseRetryAfter(String retryAfter) {
+        try {
+            return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER;
+        }
+    }
+
+    private boolean hasSecret() {
+        return properties.getSecret() != null && !properties.getSecret().isBlank();
+    }
+
+    // Comparaison à temps constant
+    private boolean sameSecret(String secret) {
+        return secret != null && MessageDigest.isEqual(
+                secret.getBytes(StandardCharsets.UTF_8),
+                properties.getSecret().getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    private static void copyHeader(HttpHeaders from, HttpHeaders to, String name) {
+        String value = from.getFirst(name);
+        if (value != null) {
+            to.set(name, value);
+        }
+    }
+
+    // Corps ProblemDetail d'une erreur du propriétaire (seul le détail est repris)
+    record ProblemBody(String detail) {}
+}
@@ -0,0 +1,234 @@
+package com.powerme.service.cluster;
+
+import com.powerme.enums.BookingStatus;
+import com.powerme.repository.ClusterEventRepository;
+import com.powerme.service.booking.BookingChangedEvent;
+import com.powerme.service.booking.SlotHoldChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Diffusion des changements de réservations et de blocages aux autres instances du cluster.
+ *
+ * <p>Chaque {@link BookingChangedEvent} / {@link SlotHoldChangedEvent} local est notifié sur le
+ * canal PostgreSQL {@link #CHANNEL} dans sa transaction (NOTIFY : envoyé au commit, jamais en
+ * cas d'annulation). Les autres instances l'écoutent (LISTEN, une connexion du pool réservée) et
+ * le republient localement dans une transaction vide : leurs écouteurs "après commit" (cache des
+ * disponibilités, vues du sérialiseur et des blocages, flux SSE) réagissent comme pour une
+ * écriture locale, sans rediffusion.</p>
+ *
+ * <p>Connexion d'écoute perdue : notifications manquées, un {@link ClusterTopologyChangedEvent}
+ * fait relire tout l'état en mémoire à la reconnexion. Cluster désactivé : rien n'est diffusé.</p>
+ */
+@Service
+public class ClusterEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterEventBus.class);
+
+    static final String CHANNEL = "powerme_cluster_events";
+
+    private static final String BOOKING = "B";
+    private static final String HOLD = "H";
+    private static final String SEPARATOR = "|";
+
+    // Attente maximale d'une notification (arrêt), pause avant reconnexion
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    // Événements reçus d'une autre instance : republiés sans être rediffusés
+    private final ThreadLocal<Boolean> relaying = ThreadLocal.withInitial(() -> false);
+
+    private final ClusterProperties properties;
+    private final ClusterMembershipService membershipService;
+    private final ClusterEventRepository eventRepository;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ClusterEventBus(
+            ClusterProperties properties,
+            ClusterMembershipService membershipService,
+            ClusterEventRepository eventRepository,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.properties = properties;
+        this.membershipService = membershipService;
+        this.eventRepository = eventRepository;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cluster-events");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    // Dans la transaction de la réservation : notifiée au commit
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        broadcast(String.join(SEPARATOR,
+                BOOKING,
+                String.valueOf(event.bookingId()),
+                String.valueOf(event.stationId()),
+                event.start().toString(),
+                event.end().toString(),
+                event.status().name()
+        ));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onHoldChanged(SlotHoldChangedEvent event) {
+        broadcast(String.join(SEPARATOR,
+                HOLD,
+                String.valueOf(event.stationId()),
+                event.day().toString()
+        ));
+    }
+
+    /**
+     * Republie localement une notification reçue (ignorée si elle vient de cette instance ou est
+     * illisible).
+     */
+    public void receive(String payload) {
+        int originEnd = payload.indexOf(SEPARATOR);
+        if (originEnd < 0 || payload.substring(0, originEnd).equals(properties.getNodeId())) {
+            return;
+        }
+        Optional<Object> event = parse(payload.substring(originEnd + 1));
+        if (event.isEmpty()) {
+            logger.warn("Unreadable cluster event ignored: {}", payload);
+            return;
+        }
+
+        relaying.set(true);
+        try {
+            // Transaction vide : déclenche les écouteurs "après commit"
+            transactionTemplate.executeWithoutResult(
+                    status -> eventPublisher.publishEvent(event.get())
+            );
+        } finally {
+            relaying.remove();
+        }
+    }
+
+    private void broadcast(String event) {
+        if (!properties.isEnabled() || relaying.get()) {
+            return;
+        }
+        eventRepository.notify(CHANNEL, properties.getNodeId() + SEPARATOR + event);
+    }
+
+    private static Optional<Object> parse(String event) {
+        String[] fields = event.split("\\" + SEPARATOR);
+        try {
+            if (fields[0].equals(BOOKING) && fields.length == 6) {
+                return Optional.of(new BookingChangedEvent(
+                        Long.valueOf(fields[1]),
+                        Long.valueOf(fields[2]),
+                        Instant.parse(fields[3]),
+                        Instant.parse(fields[4]),
+                        BookingStatus.valueOf(fields[5])
+                ));
+            }
+            if (fields[0].equals(HOLD) && fields.length == 3) {
+                return Optional.of(new SlotHoldChangedEvent(
+                        Long.valueOf(fields[1]),
+                        LocalDate.parse(fields[2])
+                ));
+            }
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                logger.info("Listening to cluster events: nodeId={}", properties.getNodeId());
+                if (reconnecting) {
+                    resync();
+                }
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received =
+                            notifications.getNotifications((int) POLL_TIMEOUT.toMillis());
+                    if (received == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : received) {
+                        relay(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cluster event listener failed, reconnecting: {}", e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void relay(String payload) {
+        try {
+            receive(payload);
+        } catch (RuntimeException e) {
+            logger.warn("Cluster event relay failed: {}", e.getMessage());
+        }
+    }
+
+    // Notifications manquées pendant la coupure : état en mémoire relu
+    private void resync() {
+        eventPublisher.publishEvent(new ClusterTopologyChangedEvent(membershipService.nodes()));
+    }
+}
@@ -0,0 +1,169 @@
+package com.powerme.service.cluster;
+
+import com.powerme.repository.ClusterNodeRepository;
+import com.powerme.repository.ClusterNodeRepository.ClusterNode;
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Membres du cluster backend et propriétaire de chaque borne.
+ *
+ * <p>Chaque instance inscrit un battement de cœur dans cluster_node toutes les 5 secondes et
+ * relit les instances actives (battement de moins de 15 secondes) ; l'anneau de hachage cohérent
+ * est reconstruit quand la liste change (arrivée, départ propre ou instance silencieuse) et un
+ * {@link ClusterTopologyChangedEvent} est publié. Les écritures d'une borne (réservations) sont
+ * traitées par son propriétaire, seul à tenir son état en mémoire.</p>
+ *
+ * <p>Cluster désactivé (par défaut) ou base injoignable au démarrage : l'instance possède toutes
+ * les bornes.</p>
+ */
+@Service
+public class ClusterMembershipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembershipService.class);
+
+    static final long HEARTBEAT_SECONDS = 5;
+    static final long NODE_TTL_SECONDS = 15;
+
+    // Instances silencieuses supprimées de la table au-delà de ce délai
+    private static final long STALE_NODE_SECONDS = 3600;
+
+    private final ClusterProperties properties;
+    private final ClusterNodeRepository nodeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, ClusterNode> members = Map.of();
+
+    public ClusterMembershipService(
+            ClusterProperties properties,
+            ClusterNodeRepository nodeRepository,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.properties = properties;
+        this.nodeRepository = nodeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.ring = new ConsistentHashRing(List.of(properties.getNodeId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        logger.info("Joining cluster: nodeId={}, baseUrl={}", properties.getNodeId(),
+                properties.getBaseUrl());
+        heartbeat();
+    }
+
+    @Scheduled(fixedDelay = HEARTBEAT_SECONDS, initialDelay = HEARTBEAT_SECONDS,
+            timeUnit = TimeUnit.SECONDS)
+    void scheduledHeartbeat() {
+        if (properties.isEnabled()) {
+            heartbeat();
+        }
+    }
+
+    /**
+     * Renouvelle le battement de cœur et reconstruit l'anneau si les membres ont changé. En cas
+     * d'erreur, l'anneau précédent est conservé.
+     */
+    public synchronized void heartbeat() {
+        List<ClusterNode> alive;
+        try {
+            alive = transactionTemplate.execute(status -> {
+                nodeRepository.heartbeat(properties.getNodeId(), properties.getBaseUrl());
+                nodeRepository.deleteStale(STALE_NODE_SECONDS);
+                return nodeRepository.findAlive(NODE_TTL_SECONDS);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Cluster heartbeat failed: {}", e.getMessage());
+            return;
+        }
+        update(alive);
+    }
+
+    // Départ propre : les autres instances reprennent nos bornes au prochain battement
+    @PreDestroy
+    public void leave() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> nodeRepository.delete(properties.getNodeId())
+            );
+            logger.info("Left cluster: nodeId={}", properties.getNodeId());
+        } catch (RuntimeException e) {
+            logger.warn("Cluster leave failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Instance propriétaire de la borne si ce n'est pas celle-ci, vide sinon.
+     */
+    public Optional<ClusterNode> remoteOwner(Long stationId) {
+        String owner = ring.owner(stationId);
+        if (owner == null || owner.equals(properties.getNodeId())) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(members.get(owner));
+    }
+
+    public boolean isLocal(Long stationId) {
+        return remoteOwner(stationId).isEmpty();
+    }
+
+    public String nodeId() {
+        return properties.getNodeId();
+    }
+
+    /**
+     * Instances actives (celle-ci comprise).
+     */
+    public Set<String> nodes() {
+        return ring.nodes();
+    }
+
+    private void update(List<ClusterNode> alive) {
+        Map<String, ClusterNode> current = alive.stream()
+                .collect(Collectors.toMap(ClusterNode::nodeId, Function.identity()));
+        // Notre propre battement a pu échouer à être relu : on reste membre
+        if (!current.containsKey(properties.getNodeId())) {
+            current = new HashMap<>(current);
+            current.put(properties.getNodeId(),
+                    new ClusterNode(properties.getNodeId(), properties.getBaseUrl()));
+        }
+
+        if (current.keySet().equals(ring.nodes())) {
+            members = Map.copyOf(current);
+            return;
+        }
+
+        ConsistentHashRing previous = ring;
+        members = Map.copyOf(current);
+        ring = new ConsistentHashRing(current.keySet());
+
+        logger.info("Cluster topology changed: {} -> {}", previous.nodes(), ring.nodes());
+        eventPublisher.publishEvent(new ClusterTopologyChangedEvent(ring.nodes()));
+    }
+}
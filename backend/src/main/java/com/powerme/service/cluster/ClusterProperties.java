@@ -0,0 +1,55 @@
+package com.powerme.service.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration du cluster backend (app.cluster.*). Désactivé par défaut : instance unique,
+ * propriétaire de toutes les bornes.
+ */
+@ConfigurationProperties(prefix = "app.cluster")
+public class ClusterProperties {
+
+    private boolean enabled;
+
+    // Identifiant unique de l'instance (ex. nom d'hôte du conteneur)
+    private String nodeId;
+
+    // URL à laquelle les autres instances joignent celle-ci (ex. http://backend-2:8080)
+    private String baseUrl;
+
+    // Secret partagé par les instances : seules les requêtes qui le portent sont traitées comme
+    // transférées (transfert désactivé s'il est vide)
+    private String secret;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+}
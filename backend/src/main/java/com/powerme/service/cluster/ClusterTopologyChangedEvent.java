@@ -0,0 +1,17 @@
+package com.powerme.service.cluster;
+
+import java.util.Set;
+
+/**
+ * Événement publié quand les membres du cluster changent : les bornes possédées par cette
+ * instance ont pu changer, l'état en mémoire des bornes reprises doit être relu. Publié aussi
+ * quand des changements diffusés par les autres instances ont pu être perdus
+ * ({@link ClusterEventBus}).
+ *
+ * @param nodes instances actives
+ */
+public record ClusterTopologyChangedEvent(
+        Set<String> nodes
+) {
+
+}
@@ -0,0 +1,63 @@
+package com.powerme.service.cluster;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Anneau de hachage cohérent : attribue chaque borne à une instance.
+ *
+ * <p>Chaque instance occupe VIRTUAL_NODES positions sur l'anneau ; une borne appartient à la
+ * première position qui suit son propre hachage. L'arrivée ou le départ d'une instance ne
+ * déplace que les bornes de ses positions (environ 1/n des bornes), les autres gardent leur
+ * propriétaire. Immuable : reconstruit à chaque changement de membres.</p>
+ */
+public final class ConsistentHashRing {
+
+    static final int VIRTUAL_NODES = 128;
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final Set<String> nodes;
+
+    public ConsistentHashRing(Collection<String> nodeIds) {
+        this.nodes = Set.copyOf(new TreeSet<>(nodeIds));
+        for (String nodeId : nodes) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash(nodeId + "#" + i), nodeId);
+            }
+        }
+    }
+
+    /**
+     * Instance propriétaire de la borne, null si l'anneau est vide.
+     */
+    public String owner(Long stationId) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash("station:" + stationId));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    // 64 premiers bits du MD5 : bien répartis, identiques sur toutes les instances
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 unavailable", e);
+        }
+    }
+}
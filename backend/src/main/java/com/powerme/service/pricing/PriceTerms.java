@@ -0,0 +1,21 @@
+package com.powerme.service.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prix d'une réservation en fonction du taux horaire de la borne : taux x heures + frais,
+ * arrondi au centime (demi supérieur). Forme linéaire : le même calcul peut être fait en SQL à
+ * partir du taux lu dans la requête d'insertion (cf. BookingInsertRepository).
+ *
+ * @param hours durée réservée en heures
+ * @param fee   frais fixes de la réservation
+ */
+public record PriceTerms(BigDecimal hours, BigDecimal fee) {
+
+    public BigDecimal apply(BigDecimal hourlyRate) {
+        return hourlyRate.multiply(hours)
+                .add(fee)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
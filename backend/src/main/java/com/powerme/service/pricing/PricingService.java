@@ -8,4 +8,9 @@ BigDecimal computePrice(
             BigDecimal hourlyRate,
             List<Integer> slots
     );
+
+    /**
+     * Termes du prix de ces créneaux, à appliquer au taux horaire de la borne.
+     */
+    PriceTerms termsFor(List<Integer> slots);
 }
@@ -1,7 +1,6 @@
 package com.powerme.service.pricing;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +18,11 @@ public BigDecimal computePrice(
             BigDecimal hourlyRate,
             List<Integer> slots
     ) {
+        return termsFor(slots).apply(hourlyRate);
+    }
+
+    @Override
+    public PriceTerms termsFor(List<Integer> slots) {
         if (slots == null || slots.isEmpty()) {
             throw new IllegalArgumentException("Slots cannot be empty");
         }
@@ -26,13 +30,6 @@ public BigDecimal computePrice(
         BigDecimal durationHours = HALF_HOUR_FACTOR
                 .multiply(BigDecimal.valueOf(slots.size()));
 
-        BigDecimal basePrice = hourlyRate
-                .multiply(durationHours);
-
-        BigDecimal totalPrice = basePrice
-                .add(SERVICE_FEE)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        return totalPrice;
+        return new PriceTerms(durationHours, SERVICE_FEE);
     }
 }
@@ -96,6 +96,8 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                         // Carte / bornes consultables sans compte
                         .requestMatchers(HttpMethod.GET, "/api/charging-locations/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/charging-stations/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/charging-locations/corridor")
+                        .permitAll()
 
                         // Routes protégées
                         .requestMatchers("/api/booking/**").authenticated()
@@ -142,10 +144,12 @@ public CorsConfigurationSource corsConfigurationSource() {
         configuration.setAllowedHeaders(List.of("*"));
         // Important pour les cookies HttpOnly
         configuration.setAllowCredentials(true);
-        // Permet au navigateur de lire les headers Set-Cookie
+        // Permet au navigateur de lire les headers Set-Cookie (et le curseur / la version carte)
         configuration.setExposedHeaders(List.of(
                 "Set-Cookie",
-                "Authorization"
+                "Authorization",
+                "X-Next-Cursor",
+                "ETag"
         ));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
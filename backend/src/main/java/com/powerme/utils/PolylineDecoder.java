@@ -0,0 +1,70 @@
+package com.powerme.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Décodage des polylignes encodées (format Google "Encoded Polyline", précision 5 : utilisé par
+ * les services d'itinéraire).
+ */
+public class PolylineDecoder {
+
+    private static final double PRECISION = 1e5;
+
+    /**
+     * Point décodé (degrés).
+     */
+    public record LatLon(double latitude, double longitude) {}
+
+    private PolylineDecoder() {
+    }
+
+    /**
+     * Décode la polyligne en liste de points.
+     *
+     * @param encoded polyligne encodée
+     * @return Les points, dans l'ordre du tracé
+     * @throws IllegalArgumentException si la chaîne est tronquée ou contient un caractère invalide
+     */
+    public static List<LatLon> decode(String encoded) {
+        List<LatLon> points = new ArrayList<>();
+        int index = 0;
+        long lat = 0;
+        long lon = 0;
+
+        while (index < encoded.length()) {
+            long[] latDelta = readValue(encoded, index);
+            long[] lonDelta = readValue(encoded, (int) latDelta[1]);
+            index = (int) lonDelta[1];
+
+            lat += latDelta[0];
+            lon += lonDelta[0];
+            points.add(new LatLon(lat / PRECISION, lon / PRECISION));
+        }
+
+        return points;
+    }
+
+    /**
+     * Lit une valeur à partir de index : renvoie {valeur, index suivant}.
+     */
+    private static long[] readValue(String encoded, int index) {
+        long result = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            if (index >= encoded.length()) {
+                throw new IllegalArgumentException("Polyligne tronquée");
+            }
+            chunk = encoded.charAt(index++) - 63;
+            if (chunk < 0 || chunk > 63 || shift > 30) {
+                throw new IllegalArgumentException("Polyligne invalide");
+            }
+            result |= (long) (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+
+        long value = (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+        return new long[] {value, index};
+    }
+}
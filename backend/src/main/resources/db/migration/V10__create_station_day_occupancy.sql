@@ -0,0 +1,20 @@
+-- Migration V10: Occupation journalière des bornes sous forme de masque de créneaux
+
+-- Bit i du masque = créneau de 30 min n° i de la journée (heure locale) réservé par une
+-- réservation active (PENDING / ACCEPTED). Ligne créée à la première lecture ou réservation du
+-- jour (à partir des réservations existantes), puis modifiée par compare-and-set à chaque
+-- réservation et changement de statut.
+CREATE TABLE station_day_occupancy
+(
+    station_id BIGINT NOT NULL,
+    day        DATE   NOT NULL,
+    mask       BIGINT NOT NULL DEFAULT 0,
+    version    BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_station_day_occupancy PRIMARY KEY (station_id, day),
+    CONSTRAINT fk_station_day_occupancy_station FOREIGN KEY (station_id)
+        REFERENCES charging_station (id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE station_day_occupancy IS 'Créneaux réservés par borne et par jour (masque de bits)';
+COMMENT ON COLUMN station_day_occupancy.version IS 'Incrémentée à chaque modification du masque';
@@ -0,0 +1,46 @@
+-- Migration V11: Non-chevauchement des réservations actives garanti par la base
+
+-- btree_gist : égalité sur charging_station_id dans un index GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Prérequis : aucune paire de réservations actives qui se chevauchent déjà (la contrainte
+-- ci-dessous échouerait avec une erreur peu explicite). Aucune correction automatique : annuler
+-- ou refuser une réservation client relève d'une décision métier. En cas d'échec, lister les
+-- paires avec la requête du message, passer l'une des deux réservations de chaque paire à
+-- CANCELLED ou REJECTED, puis relancer la migration (Flyway rejoue V11 en entier).
+DO $$
+DECLARE
+    overlaps BIGINT;
+BEGIN
+    SELECT COUNT(*)
+    INTO overlaps
+    FROM booking a
+    JOIN booking b
+      ON b.charging_station_id = a.charging_station_id
+     AND b.id > a.id
+     AND tstzrange(b.start_time, b.end_time, '[)') && tstzrange(a.start_time, a.end_time, '[)')
+    WHERE a.booking_status IN ('PENDING', 'ACCEPTED')
+      AND b.booking_status IN ('PENDING', 'ACCEPTED');
+
+    IF overlaps > 0 THEN
+        RAISE EXCEPTION 'V11: % paire(s) de réservations actives se chevauchent sur une même borne', overlaps
+            USING HINT = 'Lister : SELECT a.id, b.id, a.charging_station_id FROM booking a '
+                || 'JOIN booking b ON b.charging_station_id = a.charging_station_id AND b.id > a.id '
+                || 'AND tstzrange(b.start_time, b.end_time, ''[)'') && tstzrange(a.start_time, a.end_time, ''[)'') '
+                || 'WHERE a.booking_status IN (''PENDING'', ''ACCEPTED'') '
+                || 'AND b.booking_status IN (''PENDING'', ''ACCEPTED''); '
+                || 'puis annuler ou refuser une réservation de chaque paire et relancer la migration.';
+    END IF;
+END $$;
+
+-- Deux réservations actives (PENDING / ACCEPTED) d'une même borne ne peuvent pas se chevaucher.
+-- Vérifié à l'insertion, y compris entre transactions concurrentes (la seconde attend la
+-- première puis échoue en exclusion_violation, SQLSTATE 23P01) : pas besoin d'isolation
+-- SERIALIZABLE ni de verrou applicatif.
+ALTER TABLE booking
+    ADD CONSTRAINT excl_booking_station_overlap
+        EXCLUDE USING gist (
+            charging_station_id WITH =,
+            tstzrange(start_time, end_time, '[)') WITH &&
+        )
+        WHERE (booking_status IN ('PENDING', 'ACCEPTED'));
@@ -0,0 +1,15 @@
+-- Migration V12: Membres du cluster backend (plusieurs instances derrière nginx)
+
+-- Une ligne par instance active, mise à jour par battement de cœur. Une instance dont le
+-- dernier battement est trop ancien est considérée partie : les bornes qu'elle possédait sont
+-- réparties sur les autres (hachage cohérent).
+CREATE TABLE cluster_node
+(
+    node_id        VARCHAR(100) PRIMARY KEY,
+    base_url       VARCHAR(255) NOT NULL,
+    started_at     TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    last_heartbeat TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+COMMENT ON TABLE cluster_node IS 'Instances backend actives (battements de cœur)';
+COMMENT ON COLUMN cluster_node.base_url IS 'URL interne de l''instance (transfert des réservations)';
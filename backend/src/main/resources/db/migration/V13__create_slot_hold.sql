@@ -0,0 +1,29 @@
+-- Migration V13: Blocages temporaires de créneaux pendant la confirmation d'une réservation
+
+-- UNLOGGED : données éphémères (quelques minutes), pas de WAL ; la table est vidée après un
+-- arrêt brutal de PostgreSQL, ce qui ne fait que libérer les créneaux bloqués.
+-- Un seul blocage par utilisateur ; deux blocages d'une même borne ne peuvent pas se chevaucher
+-- (les blocages expirés sont supprimés avant chaque insertion).
+CREATE UNLOGGED TABLE slot_hold
+(
+    token      UUID PRIMARY KEY,
+    user_id    BIGINT      NOT NULL,
+    station_id BIGINT      NOT NULL,
+    day        DATE        NOT NULL,
+    mask       BIGINT      NOT NULL,
+    period     TSTZRANGE   NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+
+    CONSTRAINT fk_slot_hold_user FOREIGN KEY (user_id)
+        REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_slot_hold_station FOREIGN KEY (station_id)
+        REFERENCES charging_station (id) ON DELETE CASCADE,
+    CONSTRAINT excl_slot_hold_overlap
+        EXCLUDE USING gist (station_id WITH =, period WITH &&)
+);
+
+CREATE INDEX idx_slot_hold_station_day ON slot_hold (station_id, day);
+CREATE INDEX idx_slot_hold_user ON slot_hold (user_id);
+CREATE INDEX idx_slot_hold_expires_at ON slot_hold (expires_at);
+
+COMMENT ON TABLE slot_hold IS 'Créneaux bloqués quelques minutes pendant la confirmation d''une réservation';
@@ -0,0 +1,22 @@
+-- Migration V14: Clés d'idempotence des créations de réservation (en-tête Idempotency-Key)
+
+-- Une clé par utilisateur, enregistrée dans la transaction de la réservation : une requête
+-- rejouée renvoie la réservation d'origine au lieu d'en créer une autre. Clés purgées après
+-- 24 heures.
+CREATE TABLE booking_idempotency
+(
+    user_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    booking_id      BIGINT       NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_booking_idempotency PRIMARY KEY (user_id, idempotency_key),
+    CONSTRAINT fk_booking_idempotency_booking FOREIGN KEY (booking_id)
+        REFERENCES booking (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_booking_idempotency_created_at ON booking_idempotency (created_at);
+
+COMMENT ON TABLE booking_idempotency IS 'Clés d''idempotence des créations de réservation';
+COMMENT ON COLUMN booking_idempotency.request_hash IS 'SHA-256 de la requête (même clé, autre requête : refusée)';
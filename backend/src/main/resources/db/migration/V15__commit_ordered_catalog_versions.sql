@@ -0,0 +1,93 @@
+-- Migration V15: Versions du catalogue et de la couverture sans verrou global par transaction
+
+-- V7 / V8 prenaient pg_advisory_xact_lock(hashtext('catalog_change')) à la première écriture
+-- d'un lieu, d'une borne ou d'une cellule : toutes les transactions touchant le catalogue
+-- (seed et imports compris) passaient une par une, du premier trigger jusqu'au commit.
+
+-- 1) catalog_change : version attribuée au commit.
+-- Les triggers marquent le lieu (version NULL) ; un trigger de contrainte différé lui attribue
+-- sa version juste avant le commit. Le verrou n'est plus tenu que de cette attribution à la fin
+-- du commit : les versions restent dans l'ordre des commits (un client qui a lu la version N ne
+-- voit jamais apparaître plus tard une version < N), sans sérialiser le reste des transactions.
+ALTER TABLE catalog_change
+    ALTER COLUMN version DROP NOT NULL,
+    ALTER COLUMN created_version DROP NOT NULL;
+
+COMMENT ON COLUMN catalog_change.version IS 'Version de la dernière modification (NULL jusqu''au commit)';
+
+CREATE OR REPLACE FUNCTION record_catalog_change(p_location_id BIGINT, p_deleted BOOLEAN)
+    RETURNS VOID AS
+$$
+BEGIN
+    INSERT INTO catalog_change (location_id, version, created_version, deleted)
+    VALUES (p_location_id, NULL, NULL, p_deleted)
+    ON CONFLICT (location_id) DO UPDATE
+        SET version         = NULL,
+            created_version = CASE
+                                  WHEN catalog_change.deleted AND NOT EXCLUDED.deleted
+                                      THEN NULL
+                                  ELSE catalog_change.created_version
+                END,
+            deleted         = EXCLUDED.deleted,
+            changed_at      = NOW();
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION trg_catalog_change_version() RETURNS TRIGGER AS
+$$
+DECLARE
+    v_version BIGINT;
+BEGIN
+    -- Tenu jusqu'à la fin du commit (réentrant pour les lignes suivantes)
+    PERFORM pg_advisory_xact_lock(hashtext('catalog_change'));
+    v_version := nextval('catalog_version_seq');
+
+    -- Lieu déjà numéroté par un événement précédent de la transaction : rien à faire
+    UPDATE catalog_change
+    SET version         = v_version,
+        created_version = COALESCE(created_version, v_version)
+    WHERE location_id = NEW.location_id
+      AND version IS NULL;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE CONSTRAINT TRIGGER catalog_change_version
+    AFTER INSERT OR UPDATE
+    ON catalog_change
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    WHEN (NEW.version IS NULL)
+EXECUTE FUNCTION trg_catalog_change_version();
+
+-- 2) coverage_cell : version = transaction d'écriture, sans verrou.
+-- La grille en mémoire (CoverageService) relit les cellules écrites par les transactions
+-- postérieures au plus ancien identifiant encore actif lors de la lecture précédente
+-- (pg_snapshot_xmin) : une cellule commitée hors ordre est relue, au pire deux fois.
+CREATE OR REPLACE FUNCTION add_coverage(p_lat NUMERIC, p_lon NUMERIC, p_locations INTEGER,
+                                        p_stations INTEGER) RETURNS VOID AS
+$$
+BEGIN
+    IF p_locations = 0 AND p_stations = 0 THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO coverage_cell (cell_x, cell_y, location_count, station_count, version)
+    VALUES (LEAST(FLOOR((p_lon + 180) / 360 * 65536), 65535)::INTEGER,
+            LEAST(FLOOR((p_lat + 90) / 180 * 65536), 65535)::INTEGER,
+            p_locations,
+            p_stations,
+            pg_current_xact_id()::TEXT::BIGINT)
+    ON CONFLICT (cell_x, cell_y) DO UPDATE
+        SET location_count = coverage_cell.location_count + EXCLUDED.location_count,
+            station_count  = coverage_cell.station_count + EXCLUDED.station_count,
+            version        = EXCLUDED.version;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON COLUMN coverage_cell.version IS 'Transaction de la dernière modification (pg_current_xact_id)';
+
+-- Versions existantes (séquence) ramenées à 0 : lues au premier chargement, jamais relues
+UPDATE coverage_cell SET version = 0;
+
+DROP SEQUENCE coverage_version_seq;
@@ -0,0 +1,14 @@
+-- Migration V5: Colonne geometry indexable pour les recherches par zone (carte)
+
+-- Le cast location::geometry dans les requêtes empêche l'utilisation de l'index GIST posé sur
+-- la colonne geography : chaque recherche par zone parcourait toute la table.
+-- Colonne générée : toujours synchronisée avec location (écrite par ChargingLocation.createPoint)
+ALTER TABLE charging_location
+    ADD COLUMN location_geom GEOMETRY(Point, 4326)
+        GENERATED ALWAYS AS (location::geometry) STORED;
+
+COMMENT ON COLUMN charging_location.location_geom IS 'Copie geometry de location (générée), pour && / <-> indexés';
+
+-- Index GIST pour les recherches par rectangle (&&) et les tris par distance (<->)
+CREATE INDEX idx_charging_location_geom_gist
+    ON charging_location USING GIST (location_geom);
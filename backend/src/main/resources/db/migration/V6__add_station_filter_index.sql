@@ -0,0 +1,8 @@
+-- Migration V6: Index pour les filtres de la carte (type de prise, puissance, tarif)
+
+-- Les recherches filtrées testent, pour chaque lieu de la zone, l'existence d'une borne active
+-- correspondant aux filtres. idx_charging_station_active (active seul) ne permet pas ce test par
+-- lieu : index partiel sur les mêmes bornes actives, clé = lieu + colonnes filtrées (index-only).
+CREATE INDEX idx_charging_station_active_filters
+    ON charging_station (charging_location_id, socket_type, power, hourly_rate)
+    WHERE active = TRUE;
@@ -0,0 +1,91 @@
+-- Migration V7: Version du catalogue (lieux + bornes) pour ETag et synchro différentielle
+
+-- Une ligne par lieu : dernière version où le lieu (ou une de ses bornes) a changé.
+-- Tenue à jour par triggers : couvre aussi les écritures hors application (seed, scripts SQL).
+CREATE SEQUENCE catalog_version_seq;
+
+CREATE TABLE catalog_change
+(
+    location_id     BIGINT PRIMARY KEY, -- Pas de FK : garde la trace des lieux supprimés
+    version         BIGINT      NOT NULL,
+    created_version BIGINT      NOT NULL,
+    deleted         BOOLEAN     NOT NULL DEFAULT FALSE,
+    changed_at      TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE catalog_change IS 'Dernière version de modification de chaque lieu (synchro carte)';
+COMMENT ON COLUMN catalog_change.created_version IS 'Version de création (ou de recréation) du lieu';
+
+-- Version courante (MAX) et "modifications depuis la version N"
+CREATE INDEX idx_catalog_change_version ON catalog_change (version);
+
+-- Enregistre une modification du lieu.
+-- Le verrou (tenu jusqu'au commit) sérialise les écritures du catalogue : les versions sont
+-- attribuées dans l'ordre des commits, un client qui a lu la version N ne peut pas voir apparaître
+-- plus tard une version < N.
+CREATE FUNCTION record_catalog_change(p_location_id BIGINT, p_deleted BOOLEAN) RETURNS VOID AS
+$$
+DECLARE
+    v_version BIGINT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('catalog_change'));
+    v_version := nextval('catalog_version_seq');
+
+    INSERT INTO catalog_change (location_id, version, created_version, deleted)
+    VALUES (p_location_id, v_version, v_version, p_deleted)
+    ON CONFLICT (location_id) DO UPDATE
+        SET version         = EXCLUDED.version,
+            created_version = CASE
+                                  WHEN catalog_change.deleted AND NOT EXCLUDED.deleted
+                                      THEN EXCLUDED.version
+                                  ELSE catalog_change.created_version
+                END,
+            deleted         = EXCLUDED.deleted,
+            changed_at      = NOW();
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION trg_charging_location_catalog() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM record_catalog_change(OLD.id, TRUE);
+    ELSE
+        PERFORM record_catalog_change(NEW.id, FALSE);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER charging_location_catalog
+    AFTER INSERT OR UPDATE OR DELETE
+    ON charging_location
+    FOR EACH ROW
+EXECUTE FUNCTION trg_charging_location_catalog();
+
+-- Une borne modifiée = son lieu modifié (sauf suppression en cascade du lieu lui-même)
+CREATE FUNCTION trg_charging_station_catalog() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE')
+        AND EXISTS (SELECT 1 FROM charging_location WHERE id = OLD.charging_location_id) THEN
+        PERFORM record_catalog_change(OLD.charging_location_id, FALSE);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE')
+        AND (TG_OP = 'INSERT' OR NEW.charging_location_id <> OLD.charging_location_id) THEN
+        PERFORM record_catalog_change(NEW.charging_location_id, FALSE);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER charging_station_catalog
+    AFTER INSERT OR UPDATE OR DELETE
+    ON charging_station
+    FOR EACH ROW
+EXECUTE FUNCTION trg_charging_station_catalog();
+
+-- Point de départ : lieux existants
+INSERT INTO catalog_change (location_id, version, created_version)
+SELECT id, version, version
+FROM (SELECT id, nextval('catalog_version_seq') AS version FROM charging_location) existing;
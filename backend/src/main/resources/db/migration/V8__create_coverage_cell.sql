@@ -0,0 +1,121 @@
+-- Migration V8: Compteurs de couverture (heatmap) par cellule de grille
+
+-- Grille lat/lon régulière au niveau le plus fin (16) : 2^16 colonnes x 2^16 lignes
+-- (cellule ~ 0.0055° x 0.0027°). Les niveaux plus grossiers sont agrégés en mémoire.
+-- Compteurs tenus à jour par triggers (couvre aussi seed et scripts SQL).
+CREATE SEQUENCE coverage_version_seq;
+
+CREATE TABLE coverage_cell
+(
+    cell_x         INTEGER NOT NULL,
+    cell_y         INTEGER NOT NULL,
+    location_count INTEGER NOT NULL DEFAULT 0,
+    station_count  INTEGER NOT NULL DEFAULT 0,
+    version        BIGINT  NOT NULL, -- Dernière modification (relecture incrémentale)
+
+    CONSTRAINT pk_coverage_cell PRIMARY KEY (cell_x, cell_y)
+);
+
+COMMENT ON TABLE coverage_cell IS 'Nombre de lieux et de bornes par cellule (heatmap de couverture)';
+
+CREATE INDEX idx_coverage_cell_version ON coverage_cell (version);
+
+-- Ajoute des lieux / bornes à la cellule contenant (lat, lon).
+-- Même verrou que record_catalog_change : versions attribuées dans l'ordre des commits.
+CREATE FUNCTION add_coverage(p_lat NUMERIC, p_lon NUMERIC, p_locations INTEGER,
+                             p_stations INTEGER) RETURNS VOID AS
+$$
+BEGIN
+    IF p_locations = 0 AND p_stations = 0 THEN
+        RETURN;
+    END IF;
+    PERFORM pg_advisory_xact_lock(hashtext('catalog_change'));
+
+    INSERT INTO coverage_cell (cell_x, cell_y, location_count, station_count, version)
+    VALUES (LEAST(FLOOR((p_lon + 180) / 360 * 65536), 65535)::INTEGER,
+            LEAST(FLOOR((p_lat + 90) / 180 * 65536), 65535)::INTEGER,
+            p_locations,
+            p_stations,
+            nextval('coverage_version_seq'))
+    ON CONFLICT (cell_x, cell_y) DO UPDATE
+        SET location_count = coverage_cell.location_count + EXCLUDED.location_count,
+            station_count  = coverage_cell.station_count + EXCLUDED.station_count,
+            version        = EXCLUDED.version;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Lieux : suppression en BEFORE pour retirer aussi ses bornes (supprimées ensuite en cascade,
+-- quand le lieu n'existe plus)
+CREATE FUNCTION trg_charging_location_coverage() RETURNS TRIGGER AS
+$$
+DECLARE
+    v_stations INTEGER;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM add_coverage(NEW.latitude, NEW.longitude, 1, 0);
+        RETURN NULL;
+    END IF;
+
+    SELECT COUNT(*) INTO v_stations FROM charging_station WHERE charging_location_id = OLD.id;
+
+    IF TG_OP = 'DELETE' THEN
+        PERFORM add_coverage(OLD.latitude, OLD.longitude, -1, -v_stations);
+        RETURN OLD;
+    END IF;
+
+    IF NEW.latitude <> OLD.latitude OR NEW.longitude <> OLD.longitude THEN
+        PERFORM add_coverage(OLD.latitude, OLD.longitude, -1, -v_stations);
+        PERFORM add_coverage(NEW.latitude, NEW.longitude, 1, v_stations);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER charging_location_coverage_delete
+    BEFORE DELETE
+    ON charging_location
+    FOR EACH ROW
+EXECUTE FUNCTION trg_charging_location_coverage();
+
+CREATE TRIGGER charging_location_coverage
+    AFTER INSERT OR UPDATE
+    ON charging_location
+    FOR EACH ROW
+EXECUTE FUNCTION trg_charging_location_coverage();
+
+-- Bornes : comptées dans la cellule de leur lieu
+CREATE FUNCTION trg_charging_station_coverage() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        IF TG_OP = 'DELETE' OR NEW.charging_location_id <> OLD.charging_location_id THEN
+            PERFORM add_coverage(cl.latitude, cl.longitude, 0, -1)
+            FROM charging_location cl
+            WHERE cl.id = OLD.charging_location_id;
+        END IF;
+    END IF;
+    IF TG_OP = 'INSERT'
+        OR (TG_OP = 'UPDATE' AND NEW.charging_location_id <> OLD.charging_location_id) THEN
+        PERFORM add_coverage(cl.latitude, cl.longitude, 0, 1)
+        FROM charging_location cl
+        WHERE cl.id = NEW.charging_location_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER charging_station_coverage
+    AFTER INSERT OR UPDATE OR DELETE
+    ON charging_station
+    FOR EACH ROW
+EXECUTE FUNCTION trg_charging_station_coverage();
+
+-- Point de départ : lieux et bornes existants
+INSERT INTO coverage_cell (cell_x, cell_y, location_count, station_count, version)
+SELECT c.cell_x, c.cell_y, COUNT(*), SUM(c.stations), nextval('coverage_version_seq')
+FROM (SELECT LEAST(FLOOR((cl.longitude + 180) / 360 * 65536), 65535)::INTEGER AS cell_x,
+             LEAST(FLOOR((cl.latitude + 90) / 180 * 65536), 65535)::INTEGER   AS cell_y,
+             (SELECT COUNT(*) FROM charging_station cs
+              WHERE cs.charging_location_id = cl.id)                          AS stations
+      FROM charging_location cl) c
+GROUP BY c.cell_x, c.cell_y;
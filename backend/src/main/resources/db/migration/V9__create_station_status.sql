@@ -0,0 +1,39 @@
+-- Migration V9: Statut temps réel des bornes (modèle de lecture) et compteurs par lieu
+
+-- Statut courant de chaque borne et instant de son prochain changement (début ou fin de
+-- réservation). Recalculé par l'application à chaque réservation et au passage des échéances.
+CREATE TABLE station_status
+(
+    station_id         BIGINT PRIMARY KEY,
+    location_id        BIGINT      NOT NULL,
+    status             VARCHAR(20) NOT NULL
+        CHECK (status IN ('AVAILABLE', 'OCCUPIED', 'UNAVAILABLE')),
+    next_transition_at TIMESTAMPTZ,
+    updated_at         TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_station_status_station FOREIGN KEY (station_id)
+        REFERENCES charging_station (id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE station_status IS 'Statut courant des bornes (modèle de lecture)';
+COMMENT ON COLUMN station_status.next_transition_at IS 'Prochain début / fin de réservation active';
+
+CREATE INDEX idx_station_status_location ON station_status (location_id);
+-- Échéances à traiter par le scheduler
+CREATE INDEX idx_station_status_next_transition
+    ON station_status (next_transition_at)
+    WHERE next_transition_at IS NOT NULL;
+
+-- Nombre de bornes et de bornes libres par lieu (badge "3/5 libres" de la carte)
+CREATE TABLE location_availability
+(
+    location_id   BIGINT PRIMARY KEY,
+    station_count INTEGER     NOT NULL,
+    free_count    INTEGER     NOT NULL,
+    updated_at    TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_location_availability_location FOREIGN KEY (location_id)
+        REFERENCES charging_location (id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE location_availability IS 'Bornes libres par lieu (modèle de lecture)';
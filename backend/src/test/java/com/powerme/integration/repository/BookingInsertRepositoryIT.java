@@ -0,0 +1,200 @@
+package com.powerme.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.powerme.config.AbstractIntegrationTest;
+import com.powerme.dto.BookingCreateRequestDto;
+import com.powerme.entity.Booking;
+import com.powerme.exception.BookingConflictException;
+import com.powerme.exception.ChargingStationNotFoundException;
+import com.powerme.service.booking.BookingService;
+import com.powerme.service.booking.SlotMask;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Création de réservation en une requête (BookingInsertRepository) contre PostGIS : contrainte
+ * d'exclusion, prix et snapshots lus sur la borne, création et mise à jour du masque
+ * d'occupation, erreurs d'intégrité non liées au chevauchement.
+ *
+ * <p>Pas de rollback automatique : la création commite sa propre transaction ; les données du
+ * test sont supprimées après chaque test.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BookingInsertRepositoryIT extends AbstractIntegrationTest {
+
+    private static final String EMAIL = "booking-insert@test.com";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    BookingService bookingService;
+
+    private final LocalDate day = LocalDate.now().plusDays(30);
+
+    private Long addressId;
+    private Long userId;
+    private Long stationId;
+
+    // Nouvelle borne à chaque test : pas de vue mémoire (BookingSerializer) d'un test précédent
+    @BeforeEach
+    void setUp() {
+        addressId = jdbcTemplate.queryForObject("""
+                INSERT INTO address (street_address, city, postal_code, country)
+                VALUES ('1 rue du Test', 'Lyon', '69001', 'France')
+                RETURNING id
+                """, Long.class);
+        userId = jdbcTemplate.queryForObject("""
+                INSERT INTO users (email, password, is_activated)
+                VALUES (?, 'x', TRUE)
+                RETURNING id
+                """, Long.class, EMAIL);
+        Long locationId = jdbcTemplate.queryForObject("""
+                INSERT INTO charging_location (name, latitude, longitude, location, owner_id,
+                                               address_id)
+                VALUES ('Lieu', 45.76, 4.83,
+                        ST_SetSRID(ST_MakePoint(4.83, 45.76), 4326)::geography,
+                        ?, ?)
+                RETURNING id
+                """, Long.class, userId, addressId);
+        stationId = jdbcTemplate.queryForObject("""
+                INSERT INTO charging_station (name, socket_type, power, hourly_rate,
+                                              charging_location_id)
+                VALUES ('Borne', 'TYPE_2', 'AC_22', 2.50, ?)
+                RETURNING id
+                """, Long.class, locationId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM booking WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM charging_location WHERE owner_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        jdbcTemplate.update("DELETE FROM address WHERE id = ?", addressId);
+    }
+
+    @Test
+    void overlappingInsertShouldKeepOneRowAndRaiseConflict() {
+        // Réservation 10:00 - 11:00 écrite par une autre instance (vue mémoire ignorante)
+        ZoneId zone = ZoneId.systemDefault();
+        jdbcTemplate.update("""
+                INSERT INTO booking (created_at, updated_at, start_time, end_time, total_price,
+                                     booking_status, user_id, charging_station_id,
+                                     station_name_snapshot, station_address_snapshot,
+                                     hourly_rate_snapshot)
+                VALUES (NOW(), NOW(), ?, ?, 2.50, 'ACCEPTED', ?, ?, 'Borne', 'Lyon', 2.50)
+                """,
+                Timestamp.from(day.atTime(10, 0).atZone(zone).toInstant()),
+                Timestamp.from(day.atTime(11, 0).atZone(zone).toInstant()),
+                userId, stationId);
+
+        // 10:30 - 11:30 : chevauche
+        assertThrows(BookingConflictException.class, () -> bookingService.createBooking(
+                new BookingCreateRequestDto(stationId, day, List.of(21, 22), null), userId));
+
+        assertEquals(1, activeBookings());
+    }
+
+    @Test
+    void insertShouldAddSlotsToDayOccupancy() {
+        bookingService.createBooking(
+                new BookingCreateRequestDto(stationId, day, List.of(20, 21), null), userId);
+        bookingService.createBooking(
+                new BookingCreateRequestDto(stationId, day, List.of(30), null), userId);
+
+        Long mask = jdbcTemplate.queryForObject("""
+                SELECT mask FROM station_day_occupancy WHERE station_id = ? AND day = ?
+                """, Long.class, stationId, day);
+        assertEquals(SlotMask.range(20, 22) | SlotMask.range(30, 31), mask);
+        assertEquals(2, activeBookings());
+    }
+
+    @Test
+    void insertShouldReadPriceAndSnapshotsFromStation() {
+        Booking booking = bookingService.createBooking(
+                new BookingCreateRequestDto(stationId, day, List.of(20, 21, 22), null), userId);
+
+        // 2,50 €/h x 1,5 h + 0,50 € de frais
+        assertEquals(0, new BigDecimal("4.25").compareTo(booking.getTotalPrice()));
+        assertEquals("Borne", booking.getStationNameSnapshot());
+        assertEquals("1 rue du Test, 69001 Lyon", booking.getStationAddressSnapshot());
+        assertEquals(0, new BigDecimal("2.50").compareTo(booking.getHourlyRateSnapshot()));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("""
+                SELECT total_price, station_name_snapshot, station_address_snapshot
+                FROM booking WHERE id = ?
+                """, booking.getId());
+        assertEquals(0, new BigDecimal("4.25").compareTo((BigDecimal) row.get("total_price")));
+        assertEquals("Borne", row.get("station_name_snapshot"));
+        assertEquals("1 rue du Test, 69001 Lyon", row.get("station_address_snapshot"));
+    }
+
+    @Test
+    void firstInsertOfTheDayShouldCreateOccupancyFromExistingBookings() {
+        // Réservation 08:00 - 09:30 écrite sans ligne d'occupation (autre instance, import...)
+        ZoneId zone = ZoneId.systemDefault();
+        jdbcTemplate.update("""
+                INSERT INTO booking (created_at, updated_at, start_time, end_time, total_price,
+                                     booking_status, user_id, charging_station_id,
+                                     station_name_snapshot, station_address_snapshot,
+                                     hourly_rate_snapshot)
+                VALUES (NOW(), NOW(), ?, ?, 4.25, 'ACCEPTED', ?, ?, 'Borne', 'Lyon', 2.50)
+                """,
+                Timestamp.from(day.atTime(8, 0).atZone(zone).toInstant()),
+                Timestamp.from(day.atTime(9, 30).atZone(zone).toInstant()),
+                userId, stationId);
+
+        bookingService.createBooking(
+                new BookingCreateRequestDto(stationId, day, List.of(30), null), userId);
+
+        Long mask = jdbcTemplate.queryForObject("""
+                SELECT mask FROM station_day_occupancy WHERE station_id = ? AND day = ?
+                """, Long.class, stationId, day);
+        assertEquals(SlotMask.range(16, 19) | SlotMask.range(30, 31), mask);
+    }
+
+    @Test
+    void unknownStationShouldBeReportedWithoutInsert() {
+        assertThrows(ChargingStationNotFoundException.class, () -> bookingService.createBooking(
+                new BookingCreateRequestDto(-1L, day, List.of(20), null), userId));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM booking WHERE user_id = ?", Integer.class, userId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM station_day_occupancy WHERE station_id = -1",
+                Integer.class));
+    }
+
+    @Test
+    void otherIntegrityErrorsShouldNotBeReportedAsConflicts() {
+        // Utilisateur inexistant : violation de clé étrangère (23503), pas d'exclusion
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBooking(
+                new BookingCreateRequestDto(stationId, day, List.of(20), null), -1L));
+
+        assertEquals(0, activeBookings());
+    }
+
+    private int activeBookings() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM booking
+                WHERE charging_station_id = ? AND booking_status IN ('PENDING', 'ACCEPTED')
+                """, Integer.class, stationId);
+    }
+}
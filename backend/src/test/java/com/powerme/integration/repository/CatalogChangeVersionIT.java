@@ -0,0 +1,133 @@
+package com.powerme.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.config.AbstractIntegrationTest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Versions du catalogue (catalog_change) attribuées au commit : deux transactions modifiant des
+ * lieux différents ne s'attendent pas, et les versions suivent l'ordre des commits.
+ *
+ * <p>Pas de rollback automatique : les transactions concurrentes passent par leurs propres
+ * connexions ; les données du test sont supprimées après chaque test.</p>
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class CatalogChangeVersionIT extends AbstractIntegrationTest {
+
+    private static final String EMAIL = "catalog-version@test.com";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    private Long addressId;
+    private Long userId;
+    private Long firstLocationId;
+    private Long secondLocationId;
+
+    @BeforeEach
+    void setUp() {
+        addressId = jdbcTemplate.queryForObject("""
+                INSERT INTO address (street_address, city, postal_code, country)
+                VALUES ('1 rue du Test', 'Lyon', '69001', 'France')
+                RETURNING id
+                """, Long.class);
+        userId = jdbcTemplate.queryForObject("""
+                INSERT INTO users (email, password, is_activated)
+                VALUES (?, 'x', TRUE)
+                RETURNING id
+                """, Long.class, EMAIL);
+        firstLocationId = insertLocation("Premier");
+        secondLocationId = insertLocation("Second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM charging_location WHERE owner_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        jdbcTemplate.update("DELETE FROM address WHERE id = ?", addressId);
+    }
+
+    @Test
+    void insertedLocationShouldBeVersionedAtCommit() {
+        Map<String, Object> change = jdbcTemplate.queryForMap("""
+                SELECT version, created_version FROM catalog_change WHERE location_id = ?
+                """, firstLocationId);
+
+        assertNotNull(change.get("version"));
+        assertEquals(change.get("version"), change.get("created_version"));
+    }
+
+    @Test
+    void concurrentWritersShouldNotWaitAndVersionsShouldFollowCommitOrder() throws SQLException {
+        try (Connection first = dataSource.getConnection();
+                Connection second = dataSource.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+
+            // Première transaction ouverte sur un lieu, non commitée
+            rename(first, firstLocationId, "Premier modifié");
+
+            // La seconde ne l'attend pas (l'ancien verrou global la bloquait jusqu'au commit)
+            execute(second, "SET LOCAL lock_timeout = '2s'");
+            rename(second, secondLocationId, "Second modifié");
+            second.commit();
+
+            first.commit();
+        }
+
+        // Commitée en dernier : version la plus récente
+        assertTrue(version(firstLocationId) > version(secondLocationId));
+    }
+
+    private Long insertLocation(String name) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO charging_location (name, latitude, longitude, location, owner_id,
+                                               address_id)
+                VALUES (?, 45.76, 4.83, ST_SetSRID(ST_MakePoint(4.83, 45.76), 4326)::geography,
+                        ?, ?)
+                RETURNING id
+                """, Long.class, name, userId, addressId);
+    }
+
+    private long version(Long locationId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT version FROM catalog_change WHERE location_id = ?", Long.class,
+                locationId);
+    }
+
+    private static void rename(Connection connection, Long locationId, String name)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE charging_location SET name = ? WHERE id = ?")) {
+            statement.setString(1, name);
+            statement.setLong(2, locationId);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.execute();
+        }
+    }
+}
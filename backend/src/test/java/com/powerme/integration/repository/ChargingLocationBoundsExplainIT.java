@@ -0,0 +1,110 @@
+package com.powerme.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.config.AbstractIntegrationTest;
+import com.powerme.repository.ChargingLocationRepository;
+import java.sql.Types;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Vérifie que la recherche par zone de la carte passe par l'index GIST (pas de scan complet).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional  // Rollback automatique après chaque test
+public class ChargingLocationBoundsExplainIT extends AbstractIntegrationTest {
+
+    private static final int LOCATION_COUNT = 1_000_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO address (street_address, city, postal_code, country)
+                VALUES ('1 rue du Test', 'Lyon', '69001', 'France')
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO users (email, password, is_activated)
+                VALUES ('explain@test.com', 'x', TRUE)
+                """);
+
+        // Points répartis sur la France métropolitaine
+        jdbcTemplate.update("""
+                INSERT INTO charging_location (name, latitude, longitude, location, owner_id,
+                                               address_id)
+                SELECT 'Lieu ' || p.g, p.lat, p.lon,
+                       ST_SetSRID(ST_MakePoint(p.lon, p.lat), 4326)::geography,
+                       (SELECT id FROM users WHERE email = 'explain@test.com'),
+                       (SELECT MAX(id) FROM address)
+                FROM (
+                    SELECT g,
+                           round((42 + random() * 9)::numeric, 6) AS lat,
+                           round((-5 + random() * 13)::numeric, 6) AS lon
+                    FROM generate_series(1, ?) AS g
+                ) p
+                """, LOCATION_COUNT);
+
+        jdbcTemplate.execute("ANALYZE charging_location");
+    }
+
+    @Test
+    void boundsQueryShouldUseGeometryIndex() {
+        // Requête exécutée par ChargingLocationRepository.findMapPointsInBounds (zone ~ Lyon)
+        String planText = explain(45.78, 45.74, 4.87, 4.80);
+
+        assertTrue(planText.contains("idx_charging_location_geom_gist"), planText);
+        assertFalse(planText.contains("Seq Scan on charging_location"), planText);
+    }
+
+    @Test
+    void wideBoundsShouldBeOrderedByTheIndex() {
+        // Toute la France : tri KNN par l'index (pas de tri du million de lieux pour 201 lignes)
+        String planText = explain(51.0, 42.0, 8.0, -5.0);
+
+        assertTrue(planText.contains("idx_charging_location_geom_gist"), planText);
+        assertTrue(planText.contains("Order By:"), planText);
+        assertFalse(planText.contains("Seq Scan on charging_location"), planText);
+    }
+
+    private String explain(double north, double south, double east, double west) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("north", north)
+                .addValue("south", south)
+                .addValue("east", east)
+                .addValue("west", west)
+                .addValue("centerLat", (north + south) / 2)
+                .addValue("centerLon", (east + west) / 2)
+                .addValue("filtered", false)
+                .addValue("socketTypes", List.of("TYPE_2"))
+                .addValue("powers", List.of("AC_22"))
+                .addValue("maxHourlyRate", null, Types.NUMERIC)
+                .addValue("lastDistance", -1.0)
+                .addValue("lastId", 0L)
+                .addValue("limit", 201);
+
+        List<String> plan = namedJdbcTemplate.queryForList(
+                "EXPLAIN " + ChargingLocationRepository.MAP_POINTS_IN_BOUNDS_QUERY,
+                params,
+                String.class
+        );
+        return String.join("\n", plan);
+    }
+}
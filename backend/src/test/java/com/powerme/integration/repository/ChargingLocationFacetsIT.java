@@ -0,0 +1,133 @@
+package com.powerme.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.powerme.config.AbstractIntegrationTest;
+import com.powerme.dto.ChargingLocationFilterDto;
+import com.powerme.enums.SocketType;
+import com.powerme.repository.ChargingLocationRepository;
+import com.powerme.repository.ChargingLocationRepository.FacetCount;
+import com.powerme.repository.ChargingLocationRepository.MapPointDistance;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Vérifie que les facettes de la carte comptent les mêmes lieux que la recherche filtrée.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional  // Rollback automatique après chaque test
+public class ChargingLocationFacetsIT extends AbstractIntegrationTest {
+
+    // Zone ~ Lyon
+    private static final double NORTH = 45.78;
+    private static final double SOUTH = 45.74;
+    private static final double EAST = 4.87;
+    private static final double WEST = 4.80;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ChargingLocationRepository locationRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO address (street_address, city, postal_code, country)
+                VALUES ('1 rue du Test', 'Lyon', '69001', 'France')
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO users (email, password, is_activated)
+                VALUES ('facets@test.com', 'x', TRUE)
+                """);
+
+        // Type 2 actif, Type 2 inactif seulement, CCS actif, Type 2 actif trop cher
+        insertLocation("Actif", 45.75, 4.82, "TYPE_2", "AC_22", "2.50", true);
+        insertLocation("Inactif", 45.76, 4.83, "TYPE_2", "AC_22", "2.50", false);
+        insertLocation("Rapide", 45.77, 4.84, "CCS", "DC_50", "6.00", true);
+        insertLocation("Cher", 45.76, 4.85, "TYPE_2", "AC_22", "9.00", true);
+    }
+
+    @Test
+    void socketTypeFacetShouldMatchFilteredItems() {
+        ChargingLocationFilterDto type2 =
+                new ChargingLocationFilterDto(SocketType.TYPE_2, null, null, null);
+
+        assertEquals(items(type2).size(),
+                facet("SOCKET_TYPE", "TYPE_2", ChargingLocationFilterDto.NONE));
+        assertEquals(2, items(type2).size());
+    }
+
+    @Test
+    void facetsShouldApplyOtherFiltersLikeItems() {
+        ChargingLocationFilterDto type2Cheap = new ChargingLocationFilterDto(
+                SocketType.TYPE_2, null, new BigDecimal("5.00"), null);
+        ChargingLocationFilterDto cheap = new ChargingLocationFilterDto(
+                null, null, new BigDecimal("5.00"), null);
+
+        assertEquals(items(type2Cheap).size(), facet("SOCKET_TYPE", "TYPE_2", cheap));
+        assertEquals(1, items(type2Cheap).size());
+    }
+
+    @Test
+    void unfilteredItemsShouldIncludeLocationsWithoutActiveStation() {
+        assertEquals(4, items(ChargingLocationFilterDto.NONE).size());
+    }
+
+    private List<MapPointDistance> items(ChargingLocationFilterDto filter) {
+        return locationRepository.findMapPointsInBounds(
+                NORTH, SOUTH, EAST, WEST,
+                (NORTH + SOUTH) / 2, (EAST + WEST) / 2,
+                !filter.isEmpty(), filter.socketTypeNames(), filter.powerNames(),
+                filter.maxHourlyRate(),
+                -1.0, 0L,
+                100
+        );
+    }
+
+    // Compte de la facette avec les autres filtres de la recherche
+    private long facet(String facet, String value, ChargingLocationFilterDto filter) {
+        List<FacetCount> counts = locationRepository.countFacetsInBounds(
+                NORTH, SOUTH, EAST, WEST,
+                filter.socketTypeNames(), filter.powerNames(), filter.maxHourlyRate()
+        );
+        return counts.stream()
+                .filter(count -> count.facet().equals(facet) && count.value().equals(value))
+                .mapToLong(FacetCount::count)
+                .sum();
+    }
+
+    private void insertLocation(
+            String name,
+            double lat,
+            double lon,
+            String socketType,
+            String power,
+            String hourlyRate,
+            boolean active
+    ) {
+        Long locationId = jdbcTemplate.queryForObject("""
+                INSERT INTO charging_location (name, latitude, longitude, location, owner_id,
+                                               address_id)
+                VALUES (?, ?, ?, ST_SetSRID(ST_MakePoint(?, ?), 4326)::geography,
+                        (SELECT id FROM users WHERE email = 'facets@test.com'),
+                        (SELECT MAX(id) FROM address))
+                RETURNING id
+                """, Long.class, name, lat, lon, lon, lat);
+        jdbcTemplate.update("""
+                INSERT INTO charging_station (name, socket_type, power, hourly_rate, active,
+                                              charging_location_id)
+                VALUES (?, ?, ?, ?::numeric, ?, ?)
+                """, name + " 1", socketType, power, hourlyRate, active, locationId);
+    }
+}
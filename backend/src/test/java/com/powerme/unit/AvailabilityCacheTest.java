@@ -0,0 +1,85 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.enums.BookingStatus;
+import com.powerme.service.booking.BookingChangedEvent;
+import com.powerme.service.chargingstation.AvailabilityCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AvailabilityCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    private SimpleMeterRegistry registry;
+    private AvailabilityCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new AvailabilityCache(registry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getShouldLoadOnceAndRecordHits() {
+        load(1L, DAY);
+        load(1L, DAY);
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("cache.gets")
+                .tags("cache", "availability", "result", "hit")
+                .functionCounter()
+                .count());
+    }
+
+    @Test
+    void bookingChangeShouldInvalidateOnlyCoveredDays() {
+        load(1L, DAY);
+        load(1L, DAY.plusDays(1));
+        load(2L, DAY);
+
+        ZoneId zone = ZoneId.systemDefault();
+        cache.onBookingChanged(new BookingChangedEvent(
+                10L,
+                1L,
+                DAY.atTime(10, 0).atZone(zone).toInstant(),
+                DAY.atTime(11, 0).atZone(zone).toInstant(),
+                BookingStatus.PENDING
+        ));
+        load(1L, DAY);
+        load(1L, DAY.plusDays(1));
+        load(2L, DAY);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidateStationShouldDropAllItsDays() {
+        load(1L, DAY);
+        load(1L, DAY.plusDays(1));
+        load(2L, DAY);
+
+        cache.invalidateStation(1L);
+        load(1L, DAY);
+        load(1L, DAY.plusDays(1));
+        load(2L, DAY);
+
+        assertEquals(5, loads.get());
+    }
+
+    private void load(Long stationId, LocalDate date) {
+        cache.get(stationId, date, () -> {
+            loads.incrementAndGet();
+            return new ChargingStationAvailabilityDto(date, List.of());
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.dto.SlotChangeDto;
+import com.powerme.dto.TimeSlotDto;
+import com.powerme.enums.BookingStatus;
+import com.powerme.exception.ChargingStationNotFoundException;
+import com.powerme.service.booking.BookingChangedEvent;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.chargingstation.AvailabilityStreamService;
+import com.powerme.service.chargingstation.ChargingStationAvailabilityService;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityStreamServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private ChargingStationAvailabilityService availabilityService;
+
+    @InjectMocks
+    private AvailabilityStreamService streamService;
+
+    @Test
+    void subscribeShouldRegisterConnection() {
+        when(availabilityService.getAvailability(1L, DAY))
+                .thenReturn(new ChargingStationAvailabilityDto(DAY, List.of()));
+
+        assertNotNull(streamService.subscribe(1L, DAY));
+        assertNotNull(streamService.subscribe(1L, DAY));
+
+        assertEquals(2, streamService.subscriberCount());
+    }
+
+    @Test
+    void subscribeShouldRejectUnknownStationBeforeOpeningStream() {
+        when(availabilityService.getAvailability(99L, DAY))
+                .thenThrow(new ChargingStationNotFoundException(99L));
+
+        assertThrows(ChargingStationNotFoundException.class,
+                () -> streamService.subscribe(99L, DAY));
+        assertEquals(0, streamService.subscriberCount());
+    }
+
+    @Test
+    void diffShouldReportOnlySlotsWhoseStateChanged() {
+        ChargingStationAvailabilityDto before = new ChargingStationAvailabilityDto(DAY, List.of(
+                slot(20, false), slot(21, false), slot(22, true)
+        ));
+        ChargingStationAvailabilityDto after = new ChargingStationAvailabilityDto(DAY, List.of(
+                slot(20, true), slot(21, false), slot(22, true)
+        ));
+
+        assertEquals(Optional.of(List.of(new SlotChangeDto(20, true))),
+                AvailabilityStreamService.diff(before, after));
+    }
+
+    @Test
+    void diffShouldAskForSnapshotWhenOfferedSlotsChange() {
+        // Créneau 21 retiré (période d'indisponibilité, horaires) : pas une simple libération
+        ChargingStationAvailabilityDto before = new ChargingStationAvailabilityDto(DAY, List.of(
+                slot(20, false), slot(21, false)
+        ));
+        ChargingStationAvailabilityDto after = new ChargingStationAvailabilityDto(DAY, List.of(
+                slot(20, true), slot(22, true)
+        ));
+
+        assertEquals(Optional.empty(), AvailabilityStreamService.diff(before, after));
+    }
+
+    @Test
+    void cancelledBookingShouldReloadDisplayedDay() {
+        when(availabilityService.getAvailability(1L, DAY))
+                .thenReturn(new ChargingStationAvailabilityDto(DAY, List.of(slot(20, false))));
+        streamService.subscribe(1L, DAY);
+
+        ZoneId zone = ZoneId.systemDefault();
+        streamService.onBookingChanged(new BookingChangedEvent(
+                5L, 1L,
+                DAY.atTime(10, 0).atZone(zone).toInstant(),
+                DAY.atTime(11, 0).atZone(zone).toInstant(),
+                BookingStatus.CANCELLED
+        ));
+        streamService.onBookingChanged(new BookingChangedEvent(
+                6L, 1L,
+                DAY.plusDays(1).atTime(10, 0).atZone(zone).toInstant(),
+                DAY.plusDays(1).atTime(11, 0).atZone(zone).toInstant(),
+                BookingStatus.CANCELLED
+        ));
+
+        // Abonnement (2 lectures) puis une relecture du jour affiché, aucune pour le lendemain
+        verify(availabilityService, times(3)).getAvailability(1L, DAY);
+        verify(availabilityService, never()).getAvailability(1L, DAY.plusDays(1));
+    }
+
+    private static TimeSlotDto slot(int index, boolean available) {
+        return new TimeSlotDto(index, SlotMask.label(index), SlotMask.label(index + 1), available);
+    }
+}
@@ -0,0 +1,86 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.powerme.dto.BookingCreateRequestDto;
+import com.powerme.exception.UnauthorizedAccessException;
+import com.powerme.repository.BookingRepository;
+import com.powerme.repository.SlotHoldRepository;
+import com.powerme.service.cluster.BookingForwarder;
+import com.powerme.service.cluster.ClusterMembershipService;
+import com.powerme.service.cluster.ClusterProperties;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClient;
+
+@ExtendWith(MockitoExtension.class)
+class BookingForwarderTest {
+
+    private static final BookingCreateRequestDto REQUEST = new BookingCreateRequestDto(
+            1L, LocalDate.of(2026, 3, 10), List.of(20, 21), null
+    );
+
+    @Mock
+    private ClusterMembershipService membershipService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private SlotHoldRepository holdRepository;
+
+    private ClusterProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId("node-a");
+        properties.setSecret("cluster-secret");
+    }
+
+    @Test
+    void forwardedRequestWithSecretShouldBeHandledHere() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(BookingForwarder.FORWARDED_HEADER, "node-b");
+        headers.set(BookingForwarder.CLUSTER_SECRET_HEADER, "cluster-secret");
+
+        assertTrue(forwarder().forwardIfRemote(REQUEST, headers).isEmpty());
+        verify(membershipService, never()).remoteOwner(any());
+    }
+
+    @Test
+    void forwardedHeaderWithoutSecretShouldBeRejected() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(BookingForwarder.FORWARDED_HEADER, "node-b");
+        headers.set(BookingForwarder.CLUSTER_SECRET_HEADER, "guess");
+
+        assertThrows(UnauthorizedAccessException.class,
+                () -> forwarder().forwardIfRemote(REQUEST, headers));
+    }
+
+    @Test
+    void clusterWithoutSecretShouldNotForward() {
+        properties.setSecret(null);
+        HttpHeaders headers = new HttpHeaders();
+
+        assertTrue(forwarder().forwardCancelIfRemote(100L, 10L, headers).isEmpty());
+        verify(bookingRepository, never()).findStationIdByIdAndUserId(any(), any());
+        verify(membershipService, never()).remoteOwner(any());
+    }
+
+    private BookingForwarder forwarder() {
+        return new BookingForwarder(properties, membershipService, bookingRepository,
+                holdRepository, RestClient.builder());
+    }
+}
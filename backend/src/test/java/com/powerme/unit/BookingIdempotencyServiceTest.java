@@ -0,0 +1,146 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.dto.BookingCreateRequestDto;
+import com.powerme.dto.BookingDto;
+import com.powerme.entity.Booking;
+import com.powerme.exception.BookingConflictException;
+import com.powerme.exception.ValidationException;
+import com.powerme.mapper.BookingMapper;
+import com.powerme.repository.BookingIdempotencyRepository;
+import com.powerme.repository.BookingIdempotencyRepository.IdempotentBooking;
+import com.powerme.repository.BookingRepository;
+import com.powerme.service.booking.BookingIdempotencyService;
+import com.powerme.service.booking.BookingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIdempotencyServiceTest {
+
+    private static final Long USER_ID = 10L;
+    private static final String KEY = "retry-key";
+    private static final BookingCreateRequestDto REQUEST = new BookingCreateRequestDto(
+            1L, LocalDate.of(2026, 3, 10), List.of(20, 21), null
+    );
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingIdempotencyRepository idempotencyRepository;
+
+    @Mock
+    private BookingMapper bookingMapper;
+
+    private SimpleMeterRegistry registry;
+    private BookingIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        idempotencyService = new BookingIdempotencyService(
+                bookingService,
+                bookingRepository,
+                idempotencyRepository,
+                bookingMapper,
+                registry
+        );
+    }
+
+    @Test
+    void retryShouldReplayCurrentBookingFromMemoryWithoutCreating() {
+        Booking booking = new Booking();
+        Booking cancelled = new Booking();
+        BookingDto current = dto(100L);
+        when(idempotencyRepository.find(USER_ID, KEY)).thenReturn(Optional.empty());
+        when(bookingService.createBooking(REQUEST, USER_ID, KEY)).thenReturn(booking);
+        when(bookingMapper.toDto(booking)).thenReturn(dto(100L));
+        when(bookingRepository.findByIdAndUserId(100L, USER_ID))
+                .thenReturn(Optional.of(cancelled));
+        when(bookingMapper.toDto(cancelled)).thenReturn(current);
+
+        idempotencyService.createBooking(REQUEST, USER_ID, KEY);
+        BookingDto retry = idempotencyService.createBooking(REQUEST, USER_ID, KEY);
+
+        // Comme un rejeu depuis la base : état actuel de la réservation
+        assertSame(current, retry);
+        verify(bookingService, times(1)).createBooking(REQUEST, USER_ID, KEY);
+        verify(idempotencyRepository, times(1)).find(USER_ID, KEY);
+        assertEquals(1.0, replays("memory"));
+    }
+
+    @Test
+    void concurrentDuplicateShouldReplayFromDatabase() {
+        Booking booking = new Booking();
+        BookingDto dto = dto(100L);
+        String hash = BookingIdempotencyService.requestHash(REQUEST);
+        when(idempotencyRepository.find(USER_ID, KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new IdempotentBooking(100L, hash)));
+        when(bookingService.createBooking(REQUEST, USER_ID, KEY))
+                .thenThrow(new BookingConflictException());
+        when(bookingRepository.findByIdAndUserId(100L, USER_ID)).thenReturn(Optional.of(booking));
+        when(bookingMapper.toDto(booking)).thenReturn(dto);
+
+        assertSame(dto, idempotencyService.createBooking(REQUEST, USER_ID, KEY));
+        assertEquals(1.0, replays("database"));
+    }
+
+    @Test
+    void keyReusedForAnotherRequestShouldBeRejected() {
+        when(idempotencyRepository.find(USER_ID, KEY))
+                .thenReturn(Optional.of(new IdempotentBooking(100L, "other-request")));
+
+        assertThrows(ValidationException.class,
+                () -> idempotencyService.createBooking(REQUEST, USER_ID, KEY));
+        verify(bookingService, never()).createBooking(any(), any(), any());
+    }
+
+    @Test
+    void requestWithoutKeyShouldCreateDirectly() {
+        Booking booking = new Booking();
+        when(bookingService.createBooking(REQUEST, USER_ID)).thenReturn(booking);
+        when(bookingMapper.toDto(booking)).thenReturn(dto(100L));
+
+        idempotencyService.createBooking(REQUEST, USER_ID, null);
+
+        verify(idempotencyRepository, never()).find(any(), any());
+    }
+
+    @Test
+    void requestHashShouldIgnoreSlotOrder() {
+        BookingCreateRequestDto reordered = new BookingCreateRequestDto(
+                1L, LocalDate.of(2026, 3, 10), List.of(21, 20), null
+        );
+
+        assertEquals(BookingIdempotencyService.requestHash(REQUEST),
+                BookingIdempotencyService.requestHash(reordered));
+    }
+
+    private double replays(String source) {
+        return registry.get("booking.idempotency.replays").tag("source", source).counter().count();
+    }
+
+    private static BookingDto dto(Long id) {
+        return new BookingDto(id, null, null, null, null, null, null, null, null);
+    }
+}
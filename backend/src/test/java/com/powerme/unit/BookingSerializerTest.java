@@ -0,0 +1,163 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.enums.BookingStatus;
+import com.powerme.exception.BookingConflictException;
+import com.powerme.exception.StationBusyException;
+import com.powerme.service.booking.BookingChangedEvent;
+import com.powerme.service.booking.BookingSerializer;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.StationOccupancyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookingSerializerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    private StationOccupancyService occupancyService;
+    private SimpleMeterRegistry registry;
+    private BookingSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        occupancyService = mock(StationOccupancyService.class);
+        registry = new SimpleMeterRegistry();
+        serializer = new BookingSerializer(occupancyService, registry);
+    }
+
+    @Test
+    void submitShouldRejectKnownConflictWithoutAttempt() {
+        when(occupancyService.findOccupiedSlots(1L, DAY))
+                .thenReturn(Optional.of(SlotMask.range(20, 22)));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(BookingConflictException.class, () ->
+                serializer.submit(1L, DAY, SlotMask.range(21, 23), attempts::incrementAndGet));
+
+        assertEquals(0, attempts.get());
+        assertEquals(1.0, registry.get("booking.serializer.rejected").counter().count());
+        assertEquals(0, serializer.activeStations());
+    }
+
+    @Test
+    void submitShouldRunAttemptOnFreeSlotsAndTrackCommit() {
+        when(occupancyService.findOccupiedSlots(1L, DAY))
+                .thenReturn(Optional.of(SlotMask.range(20, 22)));
+
+        assertEquals(7, serializer.submit(1L, DAY, SlotMask.range(22, 24), () -> 7));
+
+        // Réservation commitée : la vue la connaît sans relire la base
+        ZoneId zone = ZoneId.systemDefault();
+        serializer.onBookingChanged(new BookingChangedEvent(
+                10L,
+                1L,
+                DAY.atTime(11, 0).atZone(zone).toInstant(),
+                DAY.atTime(12, 0).atZone(zone).toInstant(),
+                BookingStatus.PENDING
+        ));
+        assertThrows(BookingConflictException.class, () ->
+                serializer.submit(1L, DAY, SlotMask.range(23, 24), () -> 8));
+        verify(occupancyService, times(1)).findOccupiedSlots(1L, DAY);
+    }
+
+    @Test
+    void submitShouldNotFilterDayWithoutOccupancyRow() {
+        when(occupancyService.findOccupiedSlots(1L, DAY)).thenReturn(Optional.empty());
+
+        assertEquals(1, serializer.submit(1L, DAY, SlotMask.FULL_DAY, () -> 1));
+    }
+
+    @Test
+    void otherStationsShouldNotWaitForBusyStation() throws Exception {
+        when(occupancyService.findOccupiedSlots(1L, DAY)).thenReturn(Optional.empty());
+        when(occupancyService.findOccupiedSlots(2L, DAY)).thenReturn(Optional.empty());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> busy = CompletableFuture.supplyAsync(() ->
+                serializer.submit(1L, DAY, SlotMask.range(0, 1), () -> {
+                    started.countDown();
+                    await(release);
+                    return 1;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Borne 2 : exécutée pendant que la borne 1 est occupée
+        assertEquals(2, serializer.submit(2L, DAY, SlotMask.range(0, 1), () -> 2));
+        assertEquals(1, serializer.activeStations());
+
+        release.countDown();
+        assertEquals(1, busy.get(5, TimeUnit.SECONDS));
+        assertEquals(0, serializer.activeStations());
+    }
+
+    @Test
+    void knownConflictShouldBeRejectedWithoutWaitingForBusyStation() throws Exception {
+        when(occupancyService.findOccupiedSlots(1L, DAY))
+                .thenReturn(Optional.of(SlotMask.range(20, 22)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> busy = CompletableFuture.supplyAsync(() ->
+                serializer.submit(1L, DAY, SlotMask.range(0, 1), () -> {
+                    started.countDown();
+                    await(release);
+                    return 1;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Rejet par la vue, sans entrer dans la file de la borne occupée
+        assertThrows(BookingConflictException.class, () ->
+                serializer.submit(1L, DAY, SlotMask.range(21, 23), () -> 2));
+
+        release.countDown();
+        assertEquals(1, busy.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waitTimeoutShouldReportBusyStation() throws Exception {
+        when(occupancyService.findOccupiedSlots(1L, DAY)).thenReturn(Optional.empty());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> busy = CompletableFuture.supplyAsync(() ->
+                serializer.submit(1L, DAY, SlotMask.range(0, 1), () -> {
+                    started.countDown();
+                    await(release);
+                    return 1;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        StationBusyException e = assertThrows(StationBusyException.class, () ->
+                serializer.submit(1L, DAY, SlotMask.range(2, 3), () -> 2));
+        assertTrue(e.getRetryAfter().toSeconds() > 0);
+
+        release.countDown();
+        assertEquals(1, busy.get(5, TimeUnit.SECONDS));
+        assertEquals(0, serializer.activeStations());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
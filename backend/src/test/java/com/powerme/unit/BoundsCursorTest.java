@@ -0,0 +1,49 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.exception.ValidationException;
+import com.powerme.service.charginglocation.BoundsCursor;
+import org.junit.jupiter.api.Test;
+
+class BoundsCursorTest {
+
+    @Test
+    void encodeDecodeShouldRoundTripExactly() {
+        BoundsCursor cursor = new BoundsCursor(0.012345678901234567, 42L);
+
+        assertEquals(cursor, BoundsCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void missingCursorShouldStartAtFirstPage() {
+        assertEquals(BoundsCursor.START, BoundsCursor.decode(null));
+        assertTrue(BoundsCursor.START.isBefore(0.0, 1L));
+    }
+
+    @Test
+    void isBeforeShouldBreakTiesById() {
+        BoundsCursor cursor = new BoundsCursor(0.5, 10L);
+
+        assertTrue(cursor.isBefore(0.5, 11L));
+        assertFalse(cursor.isBefore(0.5, 10L));
+        assertFalse(cursor.isBefore(0.4, 99L));
+    }
+
+    @Test
+    void invalidCursorShouldBeRejected() {
+        assertThrows(ValidationException.class, () -> BoundsCursor.decode("pas-un-curseur"));
+        assertThrows(ValidationException.class, () -> BoundsCursor.decode("%%%"));
+    }
+
+    @Test
+    void distanceShouldMatchPostgisPlanarDistance() {
+        assertEquals(5.0, BoundsCursor.distance(3.0, 176.0, 0.0, 180.0), 1e-12);
+        assertEquals(10.0, BoundsCursor.distance(0.0, 5.0, 0.0, -5.0), 1e-12);
+        // Comme ST_Distance / <-> en SRID 4326 : pas de repli à l'antiméridien
+        assertEquals(355.0, BoundsCursor.distance(0.0, -175.0, 0.0, 180.0), 1e-12);
+    }
+}
@@ -0,0 +1,46 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.powerme.dto.ChargingLocationChangesDto;
+import com.powerme.repository.CatalogChangeRepository;
+import com.powerme.repository.CatalogChangeRepository.Change;
+import com.powerme.service.charginglocation.CatalogVersionService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionServiceTest {
+
+    @Mock
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @InjectMocks
+    private CatalogVersionService catalogVersionService;
+
+    @Test
+    void changesSinceShouldClassifyLocations() {
+        // GIVEN
+        when(catalogChangeRepository.findCurrentVersion()).thenReturn(20L);
+        when(catalogChangeRepository.findChangesSince(10L)).thenReturn(List.of(
+                new Change(1L, 3L, false),   // modifié
+                new Change(2L, 15L, false),  // créé
+                new Change(3L, 4L, true),    // supprimé
+                new Change(4L, 12L, true)    // créé puis supprimé : jamais vu par le client
+        ));
+
+        // WHEN
+        ChargingLocationChangesDto changes = catalogVersionService.getChangesSince(10L);
+
+        // THEN
+        assertEquals(20L, changes.version());
+        assertEquals(List.of(2L), changes.inserted());
+        assertEquals(List.of(1L), changes.updated());
+        assertEquals(List.of(3L), changes.deleted());
+    }
+}
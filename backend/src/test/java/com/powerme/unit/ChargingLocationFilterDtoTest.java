@@ -0,0 +1,49 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.dto.ChargingLocationFilterDto;
+import com.powerme.enums.ChargingPower;
+import com.powerme.enums.SocketType;
+import com.powerme.exception.ValidationException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChargingLocationFilterDtoTest {
+
+    @Test
+    void emptyFilterShouldAcceptEveryValue() {
+        ChargingLocationFilterDto filter = ChargingLocationFilterDto.NONE;
+
+        assertTrue(filter.isEmpty());
+        assertEquals(SocketType.values().length, filter.socketTypeNames().size());
+        assertEquals(ChargingPower.values().length, filter.powerNames().size());
+    }
+
+    @Test
+    void minPowerShouldKeepEqualOrHigherPowers() {
+        ChargingLocationFilterDto filter =
+                new ChargingLocationFilterDto(SocketType.CCS, ChargingPower.DC_150, null, null);
+
+        assertFalse(filter.isEmpty());
+        assertEquals(List.of("CCS"), filter.socketTypeNames());
+        assertEquals(List.of("DC_150", "DC_350"), filter.powerNames());
+    }
+
+    @Test
+    void inactiveFilterShouldBeRejectedInsteadOfIgnored() {
+        ChargingLocationFilterDto inactive =
+                new ChargingLocationFilterDto(null, null, null, false);
+        ChargingLocationFilterDto active =
+                new ChargingLocationFilterDto(null, null, null, true);
+
+        assertThrows(ValidationException.class, inactive::validate);
+        assertDoesNotThrow(active::validate);
+        assertDoesNotThrow(ChargingLocationFilterDto.NONE::validate);
+        assertFalse(active.isEmpty());
+    }
+}
@@ -0,0 +1,177 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.powerme.dto.ChargingLocationCorridorDto;
+import com.powerme.dto.ChargingLocationCorridorPageDto;
+import com.powerme.dto.ChargingLocationFilterDto;
+import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.dto.ChargingLocationMapPageDto;
+import com.powerme.dto.ChargingLocationNearbyDto;
+import com.powerme.dto.ChargingLocationNearbyPageDto;
+import com.powerme.exception.ValidationException;
+import com.powerme.repository.AddressRepository;
+import com.powerme.repository.ChargingLocationRepository;
+import com.powerme.repository.ChargingLocationTileRepository;
+import com.powerme.repository.UserRepository;
+import com.powerme.service.charginglocation.BoundsCursor;
+import com.powerme.service.charginglocation.ChargingLocationIndexService;
+import com.powerme.service.charginglocation.ChargingLocationServiceImpl;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class ChargingLocationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ChargingLocationRepository locationRepository;
+
+    @Mock
+    private AddressRepository addressRepository;
+
+    @Mock
+    private ChargingLocationTileRepository tileRepository;
+
+    @Mock
+    private ChargingLocationIndexService indexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ChargingLocationServiceImpl locationService;
+
+    @BeforeEach
+    void setUp() {
+        locationService = new ChargingLocationServiceImpl(
+                userRepository,
+                locationRepository,
+                addressRepository,
+                tileRepository,
+                indexService,
+                eventPublisher
+        );
+    }
+
+    @Test
+    void indexedBoundsShouldPageAcrossAntimeridianInPostgisOrder() {
+        // Zone 170°E -> 170°W, centre sur l'antiméridien ; index renvoyé dans le désordre.
+        // Distance plane de PostGIS (<->) : l'autre côté de l'antiméridien vient après
+        List<ChargingLocationMapDto> points = List.of(
+                point(1L, 0.0, 171.0),
+                point(2L, 0.0, -179.0),
+                point(3L, 0.0, -172.0),
+                point(4L, 0.0, 179.5),
+                point(5L, 0.0, 175.0)
+        );
+        when(indexService.findInBounds(1.0, -1.0, -170.0, 170.0))
+                .thenReturn(Optional.of(points));
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            ChargingLocationMapPageDto page = locationService.getLocationsInBounds(
+                    1.0, -1.0, -170.0, 170.0, ChargingLocationFilterDto.NONE, 2, cursor);
+            page.items().forEach(item -> ids.add(item.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(4L, 5L, 1L, 3L, 2L), ids);
+    }
+
+    @Test
+    void lastIndexedPageShouldHaveNoCursor() {
+        when(indexService.findInBounds(1.0, -1.0, 1.0, -1.0))
+                .thenReturn(Optional.of(List.of(point(1L, 0.5, 0.5), point(2L, 0.0, 0.0))));
+
+        ChargingLocationMapPageDto page = locationService.getLocationsInBounds(
+                1.0, -1.0, 1.0, -1.0, ChargingLocationFilterDto.NONE, 2, null);
+
+        assertEquals(List.of(2L, 1L),
+                page.items().stream().map(ChargingLocationMapDto::id).toList());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void withinRadiusShouldReturnCursorInsteadOfTruncating() {
+        ChargingLocationFilterDto filter = ChargingLocationFilterDto.NONE;
+        when(locationRepository.findWithinRadius(45.0, 4.0, 1_000.0,
+                false, filter.socketTypeNames(), filter.powerNames(), null, -1.0, 0L, 3))
+                .thenReturn(List.of(nearby(1L, 10.0), nearby(2L, 20.0), nearby(3L, 30.0)));
+        when(locationRepository.findWithinRadius(45.0, 4.0, 1_000.0,
+                false, filter.socketTypeNames(), filter.powerNames(), null, 20.0, 2L, 3))
+                .thenReturn(List.of(nearby(3L, 30.0)));
+
+        ChargingLocationNearbyPageDto first =
+                locationService.getWithinRadius(45.0, 4.0, 1_000.0, filter, 2, null);
+        ChargingLocationNearbyPageDto second = locationService.getWithinRadius(
+                45.0, 4.0, 1_000.0, filter, 2, first.nextCursor());
+
+        assertEquals(List.of(1L, 2L),
+                first.items().stream().map(ChargingLocationNearbyDto::id).toList());
+        assertNotNull(first.nextCursor());
+        assertEquals(List.of(3L),
+                second.items().stream().map(ChargingLocationNearbyDto::id).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void corridorShouldPageToTheEndOfTheRoute() {
+        // Exemple de la documentation du format : 3 points
+        String polyline = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+        when(locationRepository.findAlongRoute(any(), anyDouble(), anyBoolean(), any(), any(),
+                any(), eq(-1.0), eq(0L), eq(3)))
+                .thenReturn(List.of(corridor(7L, 0.1), corridor(3L, 0.4), corridor(5L, 0.9)));
+
+        ChargingLocationCorridorPageDto page = locationService.getAlongRoute(
+                polyline, 1_000.0, ChargingLocationFilterDto.NONE, 2, null);
+
+        assertEquals(List.of(7L, 3L),
+                page.items().stream().map(ChargingLocationCorridorDto::id).toList());
+        assertEquals(new BoundsCursor(0.4, 3L), BoundsCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void inactiveFilterShouldBeRejectedBeforeAnyQuery() {
+        ChargingLocationFilterDto inactive =
+                new ChargingLocationFilterDto(null, null, null, false);
+
+        assertThrows(ValidationException.class, () -> locationService.getLocationsInBounds(
+                1.0, -1.0, 1.0, -1.0, inactive, 2, null));
+        assertThrows(ValidationException.class,
+                () -> locationService.getNearest(45.0, 4.0, inactive, 5));
+
+        verifyNoInteractions(locationRepository, indexService);
+    }
+
+    private static ChargingLocationCorridorDto corridor(Long id, double routeFraction) {
+        return new ChargingLocationCorridorDto(id, "Lieu " + id, 40.0, -120.0, 100.0,
+                routeFraction);
+    }
+
+    private static ChargingLocationNearbyDto nearby(Long id, double distanceMeters) {
+        return new ChargingLocationNearbyDto(id, "Lieu " + id, 45.0, 4.0, distanceMeters);
+    }
+
+    private static ChargingLocationMapDto point(Long id, double latitude, double longitude) {
+        return new ChargingLocationMapDto(id, "Lieu " + id, latitude, longitude);
+    }
+}
@@ -0,0 +1,137 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.dto.ChargingLocationAvailabilityDto;
+import com.powerme.dto.ChargingStationAvailabilityDto;
+import com.powerme.dto.ChargingStationAvailabilityRangeDto;
+import com.powerme.dto.TimeSlotDto;
+import com.powerme.entity.ChargingLocation;
+import com.powerme.entity.ChargingStation;
+import com.powerme.enums.AvailabilityFormat;
+import com.powerme.repository.ChargingStationRepository;
+import com.powerme.service.booking.SlotHoldService;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.StationOccupancyService;
+import com.powerme.service.charginglocation.ChargingLocationService;
+import com.powerme.service.chargingstation.AvailabilityCache;
+import com.powerme.service.chargingstation.ChargingStationAvailabilityServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ChargingStationAvailabilityServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private ChargingStationRepository stationRepository;
+
+    @Mock
+    private ChargingLocationService locationService;
+
+    @Mock
+    private StationOccupancyService occupancyService;
+
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    private ChargingStationAvailabilityServiceImpl availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        availabilityService = new ChargingStationAvailabilityServiceImpl(
+                stationRepository,
+                locationService,
+                occupancyService,
+                new AvailabilityCache(new SimpleMeterRegistry()),
+                slotHoldService
+        );
+    }
+
+    @Test
+    void heldSlotsShouldBeAppliedOutsideCachedDay() {
+        when(stationRepository.findById(1L)).thenReturn(Optional.of(new ChargingStation()));
+        when(stationRepository.findUnavailableStationIds(List.of(1L), DAY)).thenReturn(List.of());
+        when(occupancyService.getOccupiedSlots(1L, DAY)).thenReturn(SlotMask.range(10, 12));
+        when(slotHoldService.getHeldSlots(1L, DAY))
+                .thenReturn(SlotMask.range(20, 22))
+                .thenReturn(0L);
+
+        assertFalse(slot(availabilityService.getAvailability(1L, DAY), 20));
+
+        // Blocage libéré : créneau de nouveau libre sans relire le jour en cache
+        ChargingStationAvailabilityDto released = availabilityService.getAvailability(1L, DAY);
+        assertTrue(slot(released, 20));
+        assertFalse(slot(released, 10));
+        verify(occupancyService, times(1)).getOccupiedSlots(1L, DAY);
+    }
+
+    @Test
+    void rangeShouldMarkHeldSlotsAsTaken() {
+        when(stationRepository.findByIdWithUnavailabilityPeriods(1L))
+                .thenReturn(Optional.of(new ChargingStation()));
+        when(occupancyService.getOccupiedSlots(1L, DAY, DAY.plusDays(1)))
+                .thenReturn(new long[] {SlotMask.range(10, 12), 0L});
+        when(slotHoldService.getHeldSlots(1L, DAY, DAY.plusDays(1)))
+                .thenReturn(new long[] {0L, SlotMask.range(20, 22)});
+
+        ChargingStationAvailabilityRangeDto range = availabilityService.getAvailabilityRange(
+                1L, DAY, DAY.plusDays(1), AvailabilityFormat.MASK
+        );
+
+        assertEquals(SlotMask.FULL_DAY & ~SlotMask.range(10, 12), range.days().get(0).free());
+        assertEquals(SlotMask.FULL_DAY & ~SlotMask.range(20, 22), range.days().get(1).free());
+    }
+
+    @Test
+    void locationShouldMarkHeldSlotsAsTaken() {
+        ChargingStation first = station(1L);
+        ChargingStation second = station(2L);
+        ChargingLocation location = new ChargingLocation();
+        location.setChargingStations(List.of(first, second));
+        when(locationService.getByIdWithStations(5L)).thenReturn(location);
+        when(stationRepository.findUnavailableStationIds(List.of(1L, 2L), DAY))
+                .thenReturn(List.of());
+        when(occupancyService.getOccupiedSlots(List.of(1L, 2L), DAY)).thenReturn(Map.of());
+        when(slotHoldService.getHeldSlots(List.of(1L, 2L), DAY))
+                .thenReturn(Map.of(2L, SlotMask.range(20, 22)));
+
+        ChargingLocationAvailabilityDto availability =
+                availabilityService.getLocationAvailability(5L, DAY);
+
+        assertTrue(slot(availability.stations().get(0).slots(), 20));
+        assertFalse(slot(availability.stations().get(1).slots(), 20));
+    }
+
+    private static ChargingStation station(Long id) {
+        ChargingStation station = new ChargingStation();
+        station.setId(id);
+        return station;
+    }
+
+    private static boolean slot(ChargingStationAvailabilityDto availability, int index) {
+        return slot(availability.slots(), index);
+    }
+
+    private static boolean slot(List<TimeSlotDto> slots, int index) {
+        return slots.stream()
+                .filter(slot -> slot.index() == index)
+                .findFirst()
+                .orElseThrow()
+                .available();
+    }
+}
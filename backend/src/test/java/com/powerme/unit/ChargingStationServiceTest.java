@@ -0,0 +1,100 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.entity.ChargingStation;
+import com.powerme.enums.StationStatus;
+import com.powerme.repository.BookingRepository;
+import com.powerme.service.chargingstation.ChargingStationServiceImpl;
+import com.powerme.service.chargingstation.StationStatusService;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ChargingStationServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private StationStatusService stationStatusService;
+
+    @InjectMocks
+    private ChargingStationServiceImpl stationService;
+
+    @Test
+    void computeStatusesShouldResolveAllStationsInOneQuery() {
+        // GIVEN
+        ChargingStation booked = station(1L, true);
+        ChargingStation free = station(2L, true);
+        ChargingStation inactive = station(3L, false);
+        when(stationStatusService.findStatuses(anyCollection())).thenReturn(Map.of());
+        when(bookingRepository.findStationIdsBookedAt(anyCollection(), any(Instant.class)))
+                .thenReturn(List.of(1L));
+
+        // WHEN
+        Map<Long, StationStatus> statuses =
+                stationService.computeStatuses(List.of(booked, free, inactive), Instant.now());
+
+        // THEN
+        assertEquals(StationStatus.OCCUPIED, statuses.get(1L));
+        assertEquals(StationStatus.AVAILABLE, statuses.get(2L));
+        assertEquals(StationStatus.UNAVAILABLE, statuses.get(3L));
+        verify(bookingRepository, times(1))
+                .findStationIdsBookedAt(anyCollection(), any(Instant.class));
+    }
+
+    @Test
+    void computeStatusesShouldReadPrecomputedStatusesFirst() {
+        // GIVEN
+        ChargingStation known = station(1L, true);
+        ChargingStation unknown = station(2L, true);
+        when(stationStatusService.findStatuses(anyCollection()))
+                .thenReturn(Map.of(1L, StationStatus.OCCUPIED));
+        when(bookingRepository.findStationIdsBookedAt(anyCollection(), any(Instant.class)))
+                .thenReturn(List.of());
+
+        // WHEN
+        Map<Long, StationStatus> statuses =
+                stationService.computeStatuses(List.of(known, unknown), Instant.now());
+
+        // THEN
+        assertEquals(StationStatus.OCCUPIED, statuses.get(1L));
+        assertEquals(StationStatus.AVAILABLE, statuses.get(2L));
+        verify(bookingRepository).findStationIdsBookedAt(eq(List.of(2L)), any(Instant.class));
+    }
+
+    @Test
+    void computeStatusesShouldSkipBookingQueryWhenAllStatusesArePrecomputed() {
+        ChargingStation known = station(1L, false);
+        when(stationStatusService.findStatuses(anyCollection()))
+                .thenReturn(Map.of(1L, StationStatus.UNAVAILABLE));
+
+        Map<Long, StationStatus> statuses =
+                stationService.computeStatuses(List.of(known), Instant.now());
+
+        assertEquals(StationStatus.UNAVAILABLE, statuses.get(1L));
+        verify(bookingRepository, never())
+                .findStationIdsBookedAt(anyCollection(), any(Instant.class));
+    }
+
+    private static ChargingStation station(Long id, boolean active) {
+        ChargingStation station = new ChargingStation();
+        station.setId(id);
+        station.setActive(active);
+        return station;
+    }
+}
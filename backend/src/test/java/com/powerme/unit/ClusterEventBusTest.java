@@ -0,0 +1,106 @@
+package com.powerme.unit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.powerme.enums.BookingStatus;
+import com.powerme.repository.ClusterEventRepository;
+import com.powerme.service.booking.BookingChangedEvent;
+import com.powerme.service.booking.SlotHoldChangedEvent;
+import com.powerme.service.cluster.ClusterEventBus;
+import com.powerme.service.cluster.ClusterMembershipService;
+import com.powerme.service.cluster.ClusterProperties;
+import java.time.Instant;
+import java.time.LocalDate;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterEventBusTest {
+
+    @Mock
+    private ClusterMembershipService membershipService;
+
+    @Mock
+    private ClusterEventRepository eventRepository;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void bookingChangeShouldBeRepublishedOnOtherNodes() {
+        BookingChangedEvent event = new BookingChangedEvent(
+                100L,
+                1L,
+                Instant.parse("2026-03-10T10:00:00Z"),
+                Instant.parse("2026-03-10T11:30:00Z"),
+                BookingStatus.CANCELLED
+        );
+
+        bus("node-a").onBookingChanged(event);
+        bus("node-b").receive(broadcastPayload());
+
+        verify(eventPublisher).publishEvent(event);
+    }
+
+    @Test
+    void holdChangeShouldBeRepublishedOnOtherNodes() {
+        SlotHoldChangedEvent event = new SlotHoldChangedEvent(1L, LocalDate.of(2026, 3, 10));
+
+        bus("node-a").onHoldChanged(event);
+        bus("node-b").receive(broadcastPayload());
+
+        verify(eventPublisher).publishEvent(event);
+    }
+
+    @Test
+    void ownNotificationShouldBeIgnored() {
+        ClusterEventBus bus = bus("node-a");
+
+        bus.onHoldChanged(new SlotHoldChangedEvent(1L, LocalDate.of(2026, 3, 10)));
+        bus.receive(broadcastPayload());
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void disabledClusterShouldNotBroadcast() {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setNodeId("node-a");
+        ClusterEventBus bus = new ClusterEventBus(properties, membershipService, eventRepository,
+                dataSource, transactionManager, eventPublisher);
+
+        bus.onHoldChanged(new SlotHoldChangedEvent(1L, LocalDate.of(2026, 3, 10)));
+
+        verify(eventRepository, never()).notify(anyString(), anyString());
+    }
+
+    private String broadcastPayload() {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(eventRepository).notify(eq("powerme_cluster_events"), payload.capture());
+        return payload.getValue();
+    }
+
+    private ClusterEventBus bus(String nodeId) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setNodeId(nodeId);
+        return new ClusterEventBus(properties, membershipService, eventRepository, dataSource,
+                transactionManager, eventPublisher);
+    }
+}
@@ -0,0 +1,66 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.service.cluster.ConsistentHashRing;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTest {
+
+    private static final int STATIONS = 10_000;
+
+    @Test
+    void ownerShouldNotDependOnNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"));
+        ConsistentHashRing other = new ConsistentHashRing(List.of("c", "a", "b"));
+
+        for (long id = 1; id <= 1000; id++) {
+            assertEquals(ring.owner(id), other.owner(id));
+        }
+    }
+
+    @Test
+    void stationsShouldBeSpreadAcrossNodes() {
+        Map<String, Integer> counts = owners(new ConsistentHashRing(List.of("a", "b", "c")))
+                .values().stream()
+                .collect(HashMap::new, (map, node) -> map.merge(node, 1, Integer::sum),
+                        HashMap::putAll);
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > STATIONS / 5, "count=" + count));
+    }
+
+    @Test
+    void joiningNodeShouldOnlyTakeStationsFromOthers() {
+        Map<Long, String> before = owners(new ConsistentHashRing(List.of("a", "b", "c")));
+        Map<Long, String> after = owners(new ConsistentHashRing(List.of("a", "b", "c", "d")));
+
+        int moved = 0;
+        for (long id = 1; id <= STATIONS; id++) {
+            if (!before.get(id).equals(after.get(id))) {
+                // Seules les bornes reprises par la nouvelle instance changent de propriétaire
+                assertEquals("d", after.get(id));
+                moved++;
+            }
+        }
+        assertTrue(moved > STATIONS / 8 && moved < STATIONS / 2, "moved=" + moved);
+    }
+
+    @Test
+    void emptyRingShouldHaveNoOwner() {
+        assertNull(new ConsistentHashRing(List.of()).owner(1L));
+    }
+
+    private static Map<Long, String> owners(ConsistentHashRing ring) {
+        Map<Long, String> owners = new HashMap<>();
+        for (long id = 1; id <= STATIONS; id++) {
+            owners.put(id, ring.owner(id));
+        }
+        return owners;
+    }
+}
@@ -0,0 +1,51 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.dto.CoverageCellDto;
+import com.powerme.service.charginglocation.CoverageGrid;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CoverageGridTest {
+
+    private static final int N = 1 << CoverageGrid.MAX_LEVEL;
+
+    @Test
+    void coarseLevelsShouldAggregateFinestCells() {
+        CoverageGrid grid = new CoverageGrid();
+        grid.set(cellX(4.835659), cellY(45.764043), 2, 5);   // Lyon
+        grid.set(cellX(2.352222), cellY(48.856613), 1, 3);   // Paris
+
+        // Vue France, cellules de 45° : une seule cellule
+        List<CoverageCellDto> cells = grid.query(51.0, 42.0, 8.0, -5.0, 3);
+
+        assertEquals(1, cells.size());
+        assertEquals(3, cells.getFirst().locationCount());
+        assertEquals(8, cells.getFirst().stationCount());
+        assertEquals(2, grid.query(51.0, 42.0, 8.0, -5.0, CoverageGrid.MAX_LEVEL).size());
+    }
+
+    @Test
+    void setShouldReplaceCountsAndDropEmptyCells() {
+        CoverageGrid grid = new CoverageGrid();
+        int x = cellX(4.835659);
+        int y = cellY(45.764043);
+
+        grid.set(x, y, 2, 5);
+        grid.set(x, y, 2, 5);   // Même ligne relue : sans effet
+        assertEquals(2, grid.query(90.0, -90.0, 180.0, -180.0, 0).getFirst().locationCount());
+
+        grid.set(x, y, 0, 0);
+        assertTrue(grid.query(90.0, -90.0, 180.0, -180.0, 0).isEmpty());
+    }
+
+    private static int cellX(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / 360.0 * N);
+    }
+
+    private static int cellY(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / 180.0 * N);
+    }
+}
@@ -0,0 +1,55 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import com.powerme.dto.CoverageCellDto;
+import com.powerme.repository.CoverageCellRepository;
+import com.powerme.repository.CoverageCellRepository.Cell;
+import com.powerme.service.charginglocation.CoverageService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CoverageServiceTest {
+
+    @Mock
+    private CoverageCellRepository coverageCellRepository;
+
+    @InjectMocks
+    private CoverageService coverageService;
+
+    @Test
+    void refreshShouldRereadFromOldestActiveTransaction() {
+        // GIVEN : transaction 120 encore active lors de la première lecture
+        when(coverageCellRepository.findSettledVersion()).thenReturn(120L, 150L);
+        when(coverageCellRepository.findChangedSince(0L)).thenReturn(List.of(
+                new Cell(100, 200, 1, 2)
+        ));
+        when(coverageCellRepository.findChangedSince(120L)).thenReturn(List.of(
+                new Cell(100, 200, 2, 3)
+        ));
+
+        // WHEN
+        coverageService.refresh();
+        coverageService.refresh();
+
+        // THEN : watermark lu avant les cellules, cellule commitée hors ordre relue
+        InOrder order = inOrder(coverageCellRepository);
+        order.verify(coverageCellRepository).findSettledVersion();
+        order.verify(coverageCellRepository).findChangedSince(0L);
+        order.verify(coverageCellRepository).findSettledVersion();
+        order.verify(coverageCellRepository).findChangedSince(120L);
+
+        List<CoverageCellDto> coverage = coverageService.getCoverage(90, -90, 180, -180, 0);
+        assertEquals(1, coverage.size());
+        assertEquals(2, coverage.getFirst().locationCount());
+        assertEquals(3, coverage.getFirst().stationCount());
+    }
+}
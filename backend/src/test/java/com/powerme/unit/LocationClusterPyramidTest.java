@@ -0,0 +1,66 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.dto.ChargingLocationClusterDto;
+import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.service.charginglocation.LocationClusterPyramid;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LocationClusterPyramidTest {
+
+    private LocationClusterPyramid pyramid;
+
+    @BeforeEach
+    void setUp() {
+        pyramid = new LocationClusterPyramid();
+        pyramid.rebuild(List.of(
+                new ChargingLocationMapDto(1L, "Lyon A", 45.764043, 4.835659),
+                new ChargingLocationMapDto(2L, "Lyon B", 45.757933, 4.832324),
+                new ChargingLocationMapDto(3L, "Paris", 48.856613, 2.352222)
+        ));
+    }
+
+    @Test
+    void lowZoomShouldAggregateNearbyLocations() {
+        // Vue France entière
+        List<ChargingLocationClusterDto> clusters =
+                pyramid.query(51.0, 42.0, 8.0, -5.0, 5);
+
+        assertEquals(2, clusters.size());
+        ChargingLocationClusterDto lyon = clusters.stream()
+                .filter(c -> c.count() == 2)
+                .findFirst()
+                .orElseThrow();
+        assertNull(lyon.id());
+        assertEquals((45.764043 + 45.757933) / 2, lyon.latitude(), 1e-9);
+        assertEquals(45.764043, lyon.north(), 1e-9);
+        assertEquals(4.832324, lyon.west(), 1e-9);
+    }
+
+    @Test
+    void highZoomShouldReturnSingleLocations() {
+        List<ChargingLocationClusterDto> clusters =
+                pyramid.query(45.77, 45.75, 4.84, 4.83, 17);
+
+        assertEquals(2, clusters.size());
+        assertTrue(clusters.stream().allMatch(c -> c.count() == 1 && c.id() != null));
+    }
+
+    @Test
+    void upsertAndRemoveShouldUpdateAllLevels() {
+        pyramid.upsert(new ChargingLocationMapDto(4L, "Lyon C", 45.760055, 4.861921));
+        pyramid.remove(3L);
+
+        List<ChargingLocationClusterDto> clusters =
+                pyramid.query(51.0, 42.0, 8.0, -5.0, 3);
+
+        assertEquals(1, clusters.size());
+        assertEquals(3, clusters.getFirst().count());
+        assertEquals(3, pyramid.size());
+    }
+}
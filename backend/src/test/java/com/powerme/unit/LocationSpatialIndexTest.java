@@ -0,0 +1,49 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.dto.ChargingLocationMapDto;
+import com.powerme.service.charginglocation.LocationSpatialIndex;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LocationSpatialIndexTest {
+
+    private static final ChargingLocationMapDto LYON =
+            new ChargingLocationMapDto(1L, "Lyon", 45.764043, 4.835659);
+    private static final ChargingLocationMapDto PARIS =
+            new ChargingLocationMapDto(2L, "Paris", 48.856613, 2.352222);
+
+    @Test
+    void queryShouldApplyChangesOnTopOfTree() {
+        LocationSpatialIndex index = new LocationSpatialIndex();
+        index.rebuild(List.of(LYON, PARIS), index.beginRebuild());
+
+        // Paris déplacé à Lyon, Lyon supprimé
+        index.upsert(new ChargingLocationMapDto(2L, "Paris", 45.75, 4.85));
+        index.remove(1L);
+
+        List<ChargingLocationMapDto> result = index.query(46.0, 45.0, 5.0, 4.0);
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.getFirst().id());
+        assertTrue(index.query(49.0, 48.0, 3.0, 2.0).isEmpty());
+    }
+
+    @Test
+    void rebuildShouldKeepChangesMadeWhileLoading() {
+        LocationSpatialIndex index = new LocationSpatialIndex();
+
+        long start = index.beginRebuild();
+        // Suppression commitée pendant la lecture en base
+        index.remove(1L);
+        index.rebuild(List.of(LYON, PARIS), start);
+
+        assertTrue(index.query(46.0, 45.0, 5.0, 4.0).isEmpty());
+        assertEquals(1, index.pendingChanges());
+
+        index.rebuild(List.of(PARIS), index.beginRebuild());
+        assertEquals(0, index.pendingChanges());
+    }
+}
@@ -0,0 +1,28 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.powerme.utils.PolylineDecoder;
+import com.powerme.utils.PolylineDecoder.LatLon;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PolylineDecoderTest {
+
+    @Test
+    void decodeShouldReturnPointsInOrder() {
+        // Exemple de la documentation du format
+        List<LatLon> points = PolylineDecoder.decode("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+
+        assertEquals(3, points.size());
+        assertEquals(new LatLon(38.5, -120.2), points.get(0));
+        assertEquals(new LatLon(40.7, -120.95), points.get(1));
+        assertEquals(new LatLon(43.252, -126.453), points.get(2));
+    }
+
+    @Test
+    void truncatedPolylineShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PolylineDecoder.decode("_p~iF"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.exception.BookingConflictException;
+import com.powerme.repository.ChargingStationRepository;
+import com.powerme.repository.SlotHoldRepository;
+import com.powerme.repository.SlotHoldRepository.DayHold;
+import com.powerme.repository.SlotHoldRepository.Hold;
+import com.powerme.repository.SlotHoldRepository.HeldDay;
+import com.powerme.service.booking.BookingSerializer;
+import com.powerme.service.booking.SlotHoldChangedEvent;
+import com.powerme.service.booking.SlotHoldService;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.SlotService;
+import com.powerme.service.booking.StationOccupancyService;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class SlotHoldServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private SlotHoldRepository holdRepository;
+
+    @Mock
+    private ChargingStationRepository stationRepository;
+
+    @Mock
+    private StationOccupancyService occupancyService;
+
+    @Mock
+    private BookingSerializer bookingSerializer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SlotHoldService holdService;
+
+    @BeforeEach
+    void setUp() {
+        holdService = new SlotHoldService(
+                holdRepository,
+                stationRepository,
+                new SlotService(),
+                occupancyService,
+                bookingSerializer,
+                transactionManager,
+                eventPublisher
+        );
+    }
+
+    @Test
+    void getHeldSlotsShouldIgnoreExpiredHoldsAndReadOnce() {
+        Instant now = Instant.now();
+        when(holdRepository.findActive(1L, DAY)).thenReturn(List.of(
+                new Hold(UUID.randomUUID(), 10L, SlotMask.range(20, 22), now.plusSeconds(60)),
+                new Hold(UUID.randomUUID(), 11L, SlotMask.range(30, 32), now.minusSeconds(1))
+        ));
+
+        assertEquals(SlotMask.range(20, 22), holdService.getHeldSlots(1L, DAY));
+        assertEquals(SlotMask.range(20, 22), holdService.getHeldSlots(1L, DAY));
+
+        verify(holdRepository, times(1)).findActive(1L, DAY);
+    }
+
+    @Test
+    void stationsOfADayShouldBeLoadedInOneQuery() {
+        Instant now = Instant.now();
+        when(holdRepository.findActive(Set.of(1L, 2L), DAY, DAY)).thenReturn(List.of(
+                new DayHold(2L, DAY, new Hold(
+                        UUID.randomUUID(), 10L, SlotMask.range(20, 22), now.plusSeconds(60)
+                ))
+        ));
+
+        assertEquals(Map.of(2L, SlotMask.range(20, 22)),
+                holdService.getHeldSlots(List.of(1L, 2L), DAY));
+        assertEquals(SlotMask.range(20, 22), holdService.getHeldSlots(2L, DAY));
+        assertEquals(0L, holdService.getHeldSlots(1L, DAY));
+
+        verify(holdRepository, times(1)).findActive(Set.of(1L, 2L), DAY, DAY);
+        verify(holdRepository, never()).findActive(any(Long.class), any(LocalDate.class));
+    }
+
+    @Test
+    void holdChangeShouldRefreshView() {
+        when(holdRepository.findActive(1L, DAY)).thenReturn(List.of());
+
+        holdService.getHeldSlots(1L, DAY);
+        holdService.onHoldChanged(new SlotHoldChangedEvent(1L, DAY));
+        holdService.getHeldSlots(1L, DAY);
+
+        verify(holdRepository, times(2)).findActive(1L, DAY);
+    }
+
+    @Test
+    void claimShouldConsumeOwnHold() {
+        UUID token = UUID.randomUUID();
+        when(holdRepository.deleteByToken(token, 10L))
+                .thenReturn(List.of(new HeldDay(1L, DAY)));
+        when(holdRepository.findMaskHeldByOthers(1L, DAY, 10L)).thenReturn(0L);
+
+        holdService.claim(10L, 1L, DAY, SlotMask.range(20, 22), token);
+
+        verify(eventPublisher).publishEvent(new SlotHoldChangedEvent(1L, DAY));
+    }
+
+    @Test
+    void claimShouldRejectSlotsHeldByOthers() {
+        when(holdRepository.findMaskHeldByOthers(1L, DAY, 10L))
+                .thenReturn(SlotMask.range(21, 23));
+
+        assertThrows(BookingConflictException.class,
+                () -> holdService.claim(10L, 1L, DAY, SlotMask.range(20, 22), null));
+
+        verify(holdRepository, never()).deleteByToken(any(), any());
+    }
+}
@@ -0,0 +1,112 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.powerme.exception.ValidationException;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.SlotService;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SlotMaskTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+    private static final ZoneId UTC = ZoneOffset.UTC;
+
+    @Test
+    void openingHoursShouldKeepOnlyFullSlots() {
+        // 08:15 - 10:00 : créneaux 17 (08:30) à 19 (09:30)
+        long open = SlotMask.openingHours(LocalTime.of(8, 15), LocalTime.of(10, 0));
+
+        assertEquals(List.of(17, 18, 19), SlotMask.toList(open));
+        assertEquals(SlotMask.FULL_DAY, SlotMask.openingHours(null, null));
+        assertEquals(0L, SlotMask.openingHours(LocalTime.of(18, 0), LocalTime.of(8, 0)));
+    }
+
+    @Test
+    void occupiedShouldCoverPartiallyOverlappedSlots() {
+        // 10:10 - 11:05 chevauche 10:00, 10:30 et 11:00
+        long booked = SlotMask.occupied(
+                DAY,
+                DAY.atTime(10, 10).toInstant(ZoneOffset.UTC),
+                DAY.atTime(11, 5).toInstant(ZoneOffset.UTC),
+                UTC
+        );
+
+        assertEquals(List.of(20, 21, 22), SlotMask.toList(booked));
+    }
+
+    @Test
+    void occupiedShouldClampBookingsSpanningSeveralDays() {
+        long overnight = SlotMask.occupied(
+                DAY,
+                DAY.minusDays(1).atTime(22, 0).toInstant(ZoneOffset.UTC),
+                DAY.atTime(1, 0).toInstant(ZoneOffset.UTC),
+                UTC
+        );
+        long nextDay = SlotMask.occupied(
+                DAY,
+                DAY.plusDays(1).atTime(0, 0).toInstant(ZoneOffset.UTC),
+                DAY.plusDays(1).atTime(2, 0).toInstant(ZoneOffset.UTC),
+                UTC
+        );
+
+        assertEquals(List.of(0, 1), SlotMask.toList(overnight));
+        assertEquals(0L, nextDay);
+    }
+
+    @Test
+    void isContiguousShouldDetectGaps() {
+        assertTrue(SlotMask.isContiguous(SlotMask.range(5, 9)));
+        assertTrue(SlotMask.isContiguous(SlotMask.FULL_DAY));
+        assertFalse(SlotMask.isContiguous(SlotMask.range(5, 9) | SlotMask.range(10, 12)));
+        assertFalse(SlotMask.isContiguous(0L));
+    }
+
+    @Test
+    void firstRunShouldFindEarliestConsecutiveSlots() {
+        long free = SlotMask.range(2, 4) | SlotMask.range(10, 14);
+
+        assertEquals(2, SlotMask.firstRun(free, 2));
+        assertEquals(10, SlotMask.firstRun(free, 3));
+        assertEquals(-1, SlotMask.firstRun(free, 5));
+        assertEquals(0, SlotMask.firstRun(SlotMask.FULL_DAY, 48));
+    }
+
+    @Test
+    void encodeRunsShouldDescribeWholeDay() {
+        long open = SlotMask.range(16, 40);
+        long occupied = SlotMask.range(20, 22);
+
+        assertEquals("C16F4B2F18C8", SlotMask.encodeRuns(open, occupied));
+        assertEquals("F48", SlotMask.encodeRuns(SlotMask.FULL_DAY, 0L));
+    }
+
+    @Test
+    void computeRangeShouldValidateSlotsFromMask() {
+        SlotService slotService = new SlotService();
+
+        SlotService.SlotRange range = slotService.computeRange(DAY, List.of(21, 20, 20, 22));
+
+        assertEquals(List.of(20, 21, 22), range.slots());
+        assertEquals(
+                DAY.atTime(10, 0).atZone(ZoneId.systemDefault()).toInstant(), range.start()
+        );
+        assertEquals(
+                DAY.atTime(11, 30).atZone(ZoneId.systemDefault()).toInstant(), range.end()
+        );
+        assertThrows(ValidationException.class,
+                () -> slotService.computeRange(DAY, List.of(20, 22)));
+        assertThrows(ValidationException.class,
+                () -> slotService.computeRange(DAY, List.of(48)));
+        assertThrows(ValidationException.class,
+                () -> slotService.computeRange(DAY, List.of()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.dto.ChargingLocationFilterDto;
+import com.powerme.dto.EarliestSlotDto;
+import com.powerme.repository.ChargingStationRepository;
+import com.powerme.repository.ChargingStationRepository.SlotCandidate;
+import com.powerme.service.booking.SlotHoldService;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.StationOccupancyService;
+import com.powerme.service.chargingstation.SlotSearchService;
+import com.powerme.service.pricing.PricingService;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SlotSearchServiceTest {
+
+    @Mock
+    private ChargingStationRepository stationRepository;
+
+    @Mock
+    private StationOccupancyService occupancyService;
+
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @Mock
+    private PricingService pricingService;
+
+    @InjectMocks
+    private SlotSearchService slotSearchService;
+
+    @Test
+    void findEarliestShouldRankByStartThenDistanceAndStopWhenFull() {
+        // GIVEN : demain 00:00, borne 1 (proche) occupée jusqu'à 02:00, bornes 2 et 3 libres
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = LocalDate.now(zone).plusDays(1);
+        Instant from = day.atStartOfDay(zone).toInstant();
+
+        when(stationRepository.findSlotCandidates(anyDouble(), anyDouble(), anyDouble(),
+                anyList(), anyList(), any(), anyInt()))
+                .thenReturn(List.of(
+                        candidate(1L, 100),
+                        candidate(2L, 500),
+                        candidate(3L, 900)
+                ));
+        when(occupancyService.getOccupiedSlots(anyCollection(), eq(day)))
+                .thenReturn(Map.of(1L, SlotMask.range(0, 4)));
+        when(stationRepository.findUnavailableStationIds(anyCollection(), eq(day)))
+                .thenReturn(List.of());
+        when(pricingService.computePrice(any(), anyList())).thenReturn(BigDecimal.ONE);
+
+        // WHEN : 2 créneaux, 2 résultats
+        List<EarliestSlotDto> result = slotSearchService.findEarliest(
+                45.0, 4.0, 5_000, from, 2, ChargingLocationFilterDto.NONE, 2
+        );
+
+        // THEN : bornes 2 et 3 à 00:00 ; la borne 1 (02:00) est écartée par le tas
+        assertEquals(List.of(2L, 3L), result.stream().map(EarliestSlotDto::stationId).toList());
+        assertEquals(from, result.getFirst().start());
+        assertEquals(day.atTime(1, 0).atZone(zone).toInstant(), result.getFirst().end());
+        // Tas plein dès le premier jour : pas de lecture des jours suivants
+        verify(occupancyService, times(1)).getOccupiedSlots(anyCollection(), any());
+    }
+
+    @Test
+    void heldSlotsShouldNotBeProposed() {
+        // GIVEN : demain 00:00, borne 1 libre mais bloquée jusqu'à 02:00
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = LocalDate.now(zone).plusDays(1);
+        Instant from = day.atStartOfDay(zone).toInstant();
+
+        when(stationRepository.findSlotCandidates(anyDouble(), anyDouble(), anyDouble(),
+                anyList(), anyList(), any(), anyInt()))
+                .thenReturn(List.of(candidate(1L, 100)));
+        when(occupancyService.getOccupiedSlots(anyCollection(), eq(day))).thenReturn(Map.of());
+        when(slotHoldService.getHeldSlots(anyCollection(), eq(day)))
+                .thenReturn(Map.of(1L, SlotMask.range(0, 4)));
+        when(stationRepository.findUnavailableStationIds(anyCollection(), eq(day)))
+                .thenReturn(List.of());
+        when(pricingService.computePrice(any(), anyList())).thenReturn(BigDecimal.ONE);
+
+        List<EarliestSlotDto> result = slotSearchService.findEarliest(
+                45.0, 4.0, 5_000, from, 2, ChargingLocationFilterDto.NONE, 1
+        );
+
+        // THEN : premier créneau après le blocage
+        assertEquals(day.atTime(2, 0).atZone(zone).toInstant(), result.getFirst().start());
+    }
+
+    private static SlotCandidate candidate(Long stationId, double distanceMeters) {
+        return new SlotCandidate(stationId, "Borne " + stationId, 1L, "Lieu",
+                BigDecimal.TEN, null, null, distanceMeters);
+    }
+}
@@ -0,0 +1,159 @@
+package com.powerme.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.powerme.entity.Booking;
+import com.powerme.entity.ChargingStation;
+import com.powerme.repository.BookingRepository;
+import com.powerme.repository.StationDayOccupancyRepository;
+import com.powerme.service.booking.SlotMask;
+import com.powerme.service.booking.StationOccupancyService;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StationOccupancyServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private StationDayOccupancyRepository occupancyRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private StationOccupancyService occupancyService;
+
+    @Test
+    void getOccupiedSlotsShouldReadExistingRowOnly() {
+        when(occupancyRepository.findMask(1L, DAY)).thenReturn(Optional.of(0b110L));
+
+        assertEquals(0b110L, occupancyService.getOccupiedSlots(1L, DAY));
+        verify(bookingRepository, never())
+                .findActiveBookingsForDay(any(), any(Instant.class), any(Instant.class));
+    }
+
+    @Test
+    void getOccupiedSlotsShouldMaterializeMissingRowFromBookings() {
+        // GIVEN : une réservation 10:00 - 11:00 (créneaux 20 et 21), pas encore de ligne
+        ZoneId zone = ZoneId.systemDefault();
+        Booking booking = new Booking();
+        booking.setStartTime(DAY.atTime(10, 0).atZone(zone).toInstant());
+        booking.setEndTime(DAY.atTime(11, 0).atZone(zone).toInstant());
+        long expected = SlotMask.range(20, 22);
+
+        when(occupancyRepository.findMask(1L, DAY)).thenReturn(Optional.empty());
+        when(occupancyRepository.findMasks(1L, DAY, DAY)).thenReturn(Map.of(DAY, expected));
+        when(bookingRepository.findActiveBookingsForDay(any(), any(Instant.class),
+                any(Instant.class)))
+                .thenReturn(List.of(booking));
+
+        // WHEN / THEN
+        assertEquals(expected, occupancyService.getOccupiedSlots(1L, DAY));
+        verify(occupancyRepository).insertIfAbsent(1L, DAY, expected);
+    }
+
+    @Test
+    void getOccupiedSlotsForRangeShouldQueryBookingsOnceForMissingDays() {
+        // GIVEN : seul le 2e jour existe déjà
+        LocalDate next = DAY.plusDays(1);
+        LocalDate last = DAY.plusDays(2);
+        when(occupancyRepository.findMasks(1L, DAY, last)).thenReturn(new HashMap<>(
+                Map.of(next, 0b10L)
+        ));
+        when(bookingRepository.findActiveBookingsForDay(any(), any(Instant.class),
+                any(Instant.class)))
+                .thenReturn(List.of());
+
+        // WHEN
+        long[] masks = occupancyService.getOccupiedSlots(1L, DAY, last);
+
+        // THEN
+        assertArrayEquals(new long[] {0L, 0b10L, 0L}, masks);
+        verify(bookingRepository, times(1))
+                .findActiveBookingsForDay(any(), any(Instant.class), any(Instant.class));
+        verify(occupancyRepository).insertIfAbsent(1L, DAY, 0L);
+        verify(occupancyRepository).insertIfAbsent(1L, last, 0L);
+    }
+
+    @Test
+    void getOccupiedSlotsForStationsShouldQueryBookingsOnceForMissingStations() {
+        // GIVEN : borne 1 déjà calculée, bornes 2 et 3 manquantes (réservation 10:00 - 10:30 sur 2)
+        ZoneId zone = ZoneId.systemDefault();
+        ChargingStation station = new ChargingStation();
+        station.setId(2L);
+        Booking booking = new Booking();
+        booking.setChargingStation(station);
+        booking.setStartTime(DAY.atTime(10, 0).atZone(zone).toInstant());
+        booking.setEndTime(DAY.atTime(10, 30).atZone(zone).toInstant());
+
+        when(occupancyRepository.findMasksForStations(List.of(1L, 2L, 3L), DAY))
+                .thenReturn(new HashMap<>(Map.of(1L, 0b1L)));
+        when(occupancyRepository.findMasksForStations(List.of(2L, 3L), DAY))
+                .thenReturn(new HashMap<>());
+        when(bookingRepository.findActiveBookingsForStations(any(), any(Instant.class),
+                any(Instant.class)))
+                .thenReturn(List.of(booking));
+
+        // WHEN
+        Map<Long, Long> masks = occupancyService.getOccupiedSlots(List.of(1L, 2L, 3L), DAY);
+
+        // THEN
+        assertEquals(Map.of(1L, 0b1L, 2L, SlotMask.range(20, 21), 3L, 0L), masks);
+        verify(bookingRepository, times(1))
+                .findActiveBookingsForStations(any(), any(Instant.class), any(Instant.class));
+    }
+
+    @Test
+    void prepareDayShouldNotRecomputeExistingRow() {
+        when(occupancyRepository.findMask(1L, DAY)).thenReturn(Optional.of(0b1L));
+
+        occupancyService.prepareDay(1L, DAY);
+
+        verify(occupancyRepository, never()).insertIfAbsent(any(), any(), anyLong());
+    }
+
+    @Test
+    void releaseShouldMaterializeMissingRowBeforeReleasing() {
+        // GIVEN : annulation 10:00 - 11:00, ligne du jour absente (recalculée dans la
+        // transaction de l'annulation, puis créneaux libérés)
+        ZoneId zone = ZoneId.systemDefault();
+        Instant start = DAY.atTime(10, 0).atZone(zone).toInstant();
+        Instant end = DAY.atTime(11, 0).atZone(zone).toInstant();
+        long slots = SlotMask.range(20, 22);
+
+        when(occupancyRepository.findMask(1L, DAY)).thenReturn(Optional.empty());
+        when(occupancyRepository.findMasks(1L, DAY, DAY)).thenReturn(Map.of(DAY, 0L));
+        when(bookingRepository.findActiveBookingsForDay(any(), any(Instant.class),
+                any(Instant.class)))
+                .thenReturn(List.of());
+
+        // WHEN
+        occupancyService.release(1L, start, end);
+
+        // THEN
+        InOrder order = inOrder(occupancyRepository);
+        order.verify(occupancyRepository).insertIfAbsent(1L, DAY, 0L);
+        order.verify(occupancyRepository).release(1L, DAY, slots);
+    }
+}